@@ -0,0 +1,142 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+
+/**
+ * Synthetic OpenAPI specifications for the benchmarks.
+ *
+ * <p>Every specification has a component schema {@code Root} of the requested shape, which only references other
+ * component schemas of the specification.
+ */
+final class BenchmarkSpecs {
+    static final String ROOT = "Root";
+
+    private BenchmarkSpecs() {
+    }
+
+    /**
+     * @param shape {@code wide}: object with {@code size} properties, {@code deep}: objects nested {@code size} levels,
+     *              {@code enum}: string enumeration with {@code size} values, {@code allOf}/{@code oneOf}: composition of
+     *              {@code size} component schemas, {@code mixed}: {@code size} component schemas of all shapes
+     * @return specification in JSON format
+     */
+    static String spec(String shape, int size) {
+        StringBuilder schemas = new StringBuilder();
+        switch (shape) {
+            case "wide":
+                schemas.append(quote(ROOT)).append(':').append(wide(size));
+                break;
+            case "deep":
+                schemas.append(quote(ROOT)).append(':').append(deep(size));
+                break;
+            case "enum":
+                schemas.append(quote(ROOT)).append(':').append(enumeration(size));
+                break;
+            case "allOf":
+            case "oneOf":
+                schemas.append(quote(ROOT)).append(':').append(composed(shape, "Part", size));
+                for (int i = 0; i < size; i++) {
+                    schemas.append(',').append(quote("Part" + i)).append(':').append(wide(5));
+                }
+                break;
+            case "mixed":
+                schemas.append(quote(ROOT)).append(':').append(composed("allOf", "Schema", size));
+                for (int i = 0; i < size; i++) {
+                    schemas.append(',').append(quote("Schema" + i)).append(':').append(mixed(i));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+
+        return "{\"openapi\":\"3.0.3\",\"info\":{\"title\":\"Benchmark\",\"version\":\"1\"},\"paths\":{}," +
+                "\"components\":{\"schemas\":{" + schemas + "}}}";
+    }
+
+    static Components parse(String spec) {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolveCombinators(false);
+        parseOptions.setFlatten(false);
+        SwaggerParseResult result = new OpenAPIV3Parser().readContents(spec, null, parseOptions);
+        if (result.getOpenAPI() == null) {
+            throw new IllegalStateException("Invalid benchmark specification: " + result.getMessages());
+        }
+        return result.getOpenAPI().getComponents();
+    }
+
+    private static String mixed(int i) {
+        switch (i % 5) {
+            case 0:
+                return wide(20);
+            case 1:
+                return deep(5);
+            case 2:
+                return enumeration(20);
+            case 3:
+                return "{\"type\":\"array\",\"items\":{\"$ref\":\"#/components/schemas/Schema" + (i - 1) + "\"}}";
+            default:
+                return "{\"oneOf\":[{\"$ref\":\"#/components/schemas/Schema" + (i - 2) + "\"}," +
+                        "{\"$ref\":\"#/components/schemas/Schema" + (i - 1) + "\"}]}";
+        }
+    }
+
+    private static String wide(int size) {
+        StringBuilder properties = new StringBuilder();
+        StringBuilder required = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                properties.append(',');
+            }
+            properties.append(quote("property" + i)).append(':');
+            switch (i % 4) {
+                case 0:
+                    properties.append("{\"type\":\"string\",\"maxLength\":100,\"description\":\"Property ")
+                            .append(i).append("\"}");
+                    required.append(required.length() > 0 ? "," : "").append(quote("property" + i));
+                    break;
+                case 1:
+                    properties.append("{\"type\":\"integer\",\"format\":\"int64\",\"minimum\":0}");
+                    break;
+                case 2:
+                    properties.append("{\"type\":\"number\",\"nullable\":true,\"readOnly\":true}");
+                    break;
+                default:
+                    properties.append("{\"type\":\"array\",\"items\":{\"type\":\"string\",\"format\":\"date-time\"}}");
+                    break;
+            }
+        }
+        return "{\"type\":\"object\",\"required\":[" + required + "],\"properties\":{" + properties + "}}";
+    }
+
+    private static String deep(int depth) {
+        String schema = "{\"type\":\"string\"}";
+        for (int i = 0; i < depth; i++) {
+            schema = "{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"integer\"},\"child\":" + schema + "}}";
+        }
+        return schema;
+    }
+
+    private static String enumeration(int size) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            values.append(i > 0 ? "," : "").append(quote("VALUE_" + i));
+        }
+        return "{\"type\":\"string\",\"enum\":[" + values + "]}";
+    }
+
+    private static String composed(String keyword, String prefix, int size) {
+        StringBuilder references = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            references.append(i > 0 ? "," : "")
+                    .append("{\"$ref\":\"#/components/schemas/").append(prefix).append(i).append("\"}");
+        }
+        return "{" + quote(keyword) + ":[" + references + "]}";
+    }
+
+    private static String quote(String value) {
+        return '"' + value + '"';
+    }
+}
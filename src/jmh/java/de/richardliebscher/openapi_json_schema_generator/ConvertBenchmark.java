@@ -0,0 +1,48 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.Components;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of parsed component schemas of different shapes, see {@link BenchmarkSpecs#spec(String, int)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConvertBenchmark {
+    @Param({"wide", "deep", "enum", "allOf", "oneOf"})
+    public String shape;
+
+    @Param({"100"})
+    public int size;
+
+    private Components components;
+    private Converter converter;
+
+    @Setup
+    public void setUp() {
+        components = BenchmarkSpecs.parse(BenchmarkSpecs.spec(shape, size));
+        converter = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { });
+    }
+
+    @Benchmark
+    public JsonSchema convert() {
+        return converter.convert(components, BenchmarkSpecs.ROOT);
+    }
+}
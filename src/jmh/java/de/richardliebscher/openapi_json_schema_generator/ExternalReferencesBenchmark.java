@@ -0,0 +1,98 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of a split specification: a root file with {@code size} component schemas, which reference a file per
+ * schema, and a file with shared schemas referenced by all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExternalReferencesBenchmark {
+    @Param({"500"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int jobs;
+
+    private Path directory;
+    private Path input;
+    private DefinitionCache cache;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("external-references");
+        Path schemas = Files.createDirectory(directory.resolve("schemas"));
+        StringBuilder root = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            root.append(i == 0 ? "" : ",")
+                    .append("\"Schema").append(i).append("\":{\"$ref\":\"schemas/schema").append(i).append(".json\"}");
+            Files.writeString(schemas.resolve("schema" + i + ".json"), "{\"type\":\"object\",\"properties\":{" +
+                    "\"id\":{\"$ref\":\"../common.json#/Id\"}," +
+                    "\"amount\":{\"$ref\":\"../common.json#/Money\"}," +
+                    "\"name\":{\"type\":\"string\",\"maxLength\":100}," +
+                    "\"next\":{\"$ref\":\"schema" + ((i + 1) % size) + ".json\"}}}");
+        }
+        Files.writeString(directory.resolve("common.json"), "{\"Id\":{\"type\":\"integer\",\"format\":\"int64\"}," +
+                "\"Money\":{\"type\":\"object\",\"properties\":{\"value\":{\"type\":\"number\"}," +
+                "\"currency\":{\"type\":\"string\",\"enum\":[\"EUR\",\"USD\"]}}}}");
+        input = directory.resolve("api.json");
+        Files.writeString(input, "{\"openapi\":\"3.0.3\",\"info\":{\"title\":\"Benchmark\",\"version\":\"1\"}," +
+                "\"paths\":{},\"components\":{\"schemas\":{" + root + "}}}");
+
+        cache = new DefinitionCache(Files.createDirectory(directory.resolve("cache")), Long.MAX_VALUE, "benchmark");
+        warmCache();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    /**
+     * Every referenced file is read and every schema is converted.
+     */
+    @Benchmark
+    public int coldCache() {
+        return command().run();
+    }
+
+    /**
+     * Every referenced file is read, the converted schemas are taken from the definition cache.
+     */
+    @Benchmark
+    public int warmCache() {
+        return command().withCache(cache).run();
+    }
+
+    private GenerateCommand command() {
+        Converter converter = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { })
+                .withParallelism(jobs);
+        return new GenerateCommand(
+                input.toString(), null, InputStream.nullInputStream(), NullOutputStream.INSTANCE, converter,
+                message -> { });
+    }
+}
@@ -0,0 +1,56 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single {@link JsonSchemaGenerator} shared by all benchmark threads, like in a server.
+ *
+ * <p>Compare the scores of different thread counts to see how it scales with cores, e.g.
+ * {@code ./gradlew jmh -Pjmh='GenerateBenchmark -t 1'} and {@code ./gradlew jmh -Pjmh='GenerateBenchmark -t 4'}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GenerateBenchmark {
+    @Param({"mixed"})
+    public String shape;
+
+    @Param({"200"})
+    public int size;
+
+    private final JsonSchemaGenerator generator = new JsonSchemaGenerator();
+    private byte[] spec;
+
+    @Setup
+    public void setUp() {
+        spec = BenchmarkSpecs.spec(shape, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonSchemaGenerator.Result generate() {
+        JsonSchemaGenerator.Result result = generator.generate(
+                JsonSchemaGenerator.Request.of(new ByteArrayInputStream(spec)), OutputStream.nullOutputStream());
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException("Generation failed: " + result.getMessages());
+        }
+        return result;
+    }
+}
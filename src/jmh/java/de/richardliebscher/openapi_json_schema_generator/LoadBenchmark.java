@@ -0,0 +1,56 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading of generated schemas in the different output formats, like services do at startup.
+ *
+ * <p>The size of the schema in every format is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoadBenchmark {
+    @Param({"json", "compact-json", "smile", "cbor"})
+    public String format;
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private byte[] schema;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonSchema jsonSchema = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { })
+                .convert(BenchmarkSpecs.parse(BenchmarkSpecs.spec("mixed", size)), null);
+        OutputFormat outputFormat = OutputFormat.fromName(format);
+        objectMapper = outputFormat.createObjectMapper();
+        schema = outputFormat.createWriter(objectMapper).writeValueAsBytes(jsonSchema);
+        System.out.printf("%n%s: %d bytes%n", format, schema.length);
+    }
+
+    @Benchmark
+    public JsonNode load() throws IOException {
+        return objectMapper.readTree(schema);
+    }
+}
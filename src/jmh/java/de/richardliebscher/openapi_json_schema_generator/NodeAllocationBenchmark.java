@@ -0,0 +1,136 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.CompactJsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.Components;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocations of the conversion compared to the converted schemas themselves.
+ *
+ * <p>{@code convert} converts all component schemas, {@code outputObjects} only copies the result of the conversion
+ * and so allocates exactly the output objects. The difference of {@code gc.alloc.rate.norm} is the garbage the
+ * conversion produces on top.
+ *
+ * <p>{@code compactObjects} allocates the {@link CompactJsonSchema} form of the same schemas, so comparing it to
+ * {@code outputObjects} shows how much smaller the retained schemas are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NodeAllocationBenchmark {
+    @Param({"wide", "deep", "enum", "mixed"})
+    public String shape;
+
+    @Param({"100"})
+    public int size;
+
+    private Components components;
+    private Converter converter;
+    private Map<String, JsonSchema> definitions;
+
+    @Setup
+    public void setUp() {
+        components = BenchmarkSpecs.parse(BenchmarkSpecs.spec(shape, size));
+        converter = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { });
+        definitions = converter.convertDefinitions(components);
+    }
+
+    @Benchmark
+    public Map<String, JsonSchema> convert() {
+        return converter.convertDefinitions(components);
+    }
+
+    @Benchmark
+    public Map<String, JsonSchema> outputObjects() {
+        Map<String, JsonSchema> copy = new LinkedHashMap<>();
+        definitions.forEach((name, definition) -> copy.put(name, copy(definition)));
+        return copy;
+    }
+
+    @Benchmark
+    public Map<String, CompactJsonSchema> compactObjects() {
+        Map<String, CompactJsonSchema> compact = new LinkedHashMap<>();
+        definitions.forEach((name, definition) -> compact.put(name, CompactJsonSchema.of(definition)));
+        return compact;
+    }
+
+    /**
+     * Copy the objects a conversion allocates, shared values like types and numeric bounds are not copied.
+     */
+    private static JsonSchema copy(JsonSchema schema) {
+        if (schema == null) {
+            return null;
+        }
+
+        JsonSchema copy = new JsonSchema();
+        copy.title = schema.title;
+        copy.description = schema.description;
+        copy.multipleOf = schema.multipleOf;
+        copy.maxLength = schema.maxLength;
+        copy.minLength = schema.minLength;
+        copy.pattern = schema.pattern;
+        copy.maxItems = schema.maxItems;
+        copy.minItems = schema.minItems;
+        copy.uniqueItems = schema.uniqueItems;
+        copy.maxProperties = schema.maxProperties;
+        copy.minProperties = schema.minProperties;
+        copy.required = schema.required;
+        copy.$ref = schema.$ref;
+        copy.not = copy(schema.not);
+        copy.anyOf = copy(schema.anyOf);
+        copy.oneOf = copy(schema.oneOf);
+        copy.allOf = copy(schema.allOf);
+        copy.items = copy(schema.items);
+        if (schema.properties != null) {
+            copy.properties = new HashMap<>();
+            schema.properties.forEach((name, property) -> copy.properties.put(name, copy(property)));
+        }
+        copy.additionalProperties = schema.additionalProperties instanceof JsonSchema
+                ? copy((JsonSchema) schema.additionalProperties)
+                : schema.additionalProperties;
+        copy.maximum = schema.maximum;
+        copy.exclusiveMaximum = schema.exclusiveMaximum;
+        copy.minimum = schema.minimum;
+        copy.exclusiveMinimum = schema.exclusiveMinimum;
+        copy.type = schema.type;
+        copy.format = schema.format;
+        copy.readOnly = schema.readOnly;
+        copy.writeOnly = schema.writeOnly;
+        copy.deprecated = schema.deprecated;
+        copy.examples = schema.examples != null ? List.copyOf(schema.examples) : null;
+        copy.enum_ = schema.enum_ != null ? new ArrayList<>(schema.enum_) : null;
+        copy.default_ = schema.default_;
+        return copy;
+    }
+
+    private static List<JsonSchema> copy(List<JsonSchema> schemas) {
+        if (schemas == null) {
+            return null;
+        }
+
+        List<JsonSchema> copy = new ArrayList<>(schemas.size());
+        schemas.forEach(schema -> copy.add(copy(schema)));
+        return copy;
+    }
+}
@@ -0,0 +1,62 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a specification with {@code size} component schemas of all shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParseBenchmark {
+    @Param({"100", "1000"})
+    public int size;
+
+    private String spec;
+    private byte[] specBytes;
+
+    @Setup
+    public void setUp() {
+        spec = BenchmarkSpecs.spec("mixed", size);
+        specBytes = spec.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * swagger-parser on the whole document, as used for URLs.
+     */
+    @Benchmark
+    public OpenAPI openApiParser() {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolveCombinators(false);
+        parseOptions.setFlatten(false);
+        return new OpenAPIParser().readContents(spec, null, parseOptions).getOpenAPI();
+    }
+
+    /**
+     * Streaming path used for local files and standard input.
+     */
+    @Benchmark
+    public OpenAPI specReader() {
+        return new SpecReader(message -> { }).read("-", new ByteArrayInputStream(specBytes));
+    }
+}
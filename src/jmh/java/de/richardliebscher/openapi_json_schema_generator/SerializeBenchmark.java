@@ -0,0 +1,69 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of converted JSON schemas, like {@link GenerateCommand} does, with the dedicated serializer of
+ * {@link OutputFormat} or the bean serializer of Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializeBenchmark {
+    @Param({"wide", "mixed"})
+    public String shape;
+
+    @Param({"100"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean beanSerializer;
+
+    private JsonSchema jsonSchema;
+    private ObjectWriter prettyWriter;
+    private ObjectWriter compactWriter;
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setUp() {
+        jsonSchema = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { })
+                .convert(BenchmarkSpecs.parse(BenchmarkSpecs.spec(shape, size)), null);
+        prettyWriter = OutputFormat.JSON.createWriter(OutputFormat.JSON.createObjectMapper(beanSerializer));
+        compactWriter = OutputFormat.COMPACT_JSON.createWriter(
+                OutputFormat.COMPACT_JSON.createObjectMapper(beanSerializer));
+        outputStream = new ByteArrayOutputStream(1024 * 1024);
+    }
+
+    @Benchmark
+    public int pretty() throws IOException {
+        outputStream.reset();
+        prettyWriter.writeValue(outputStream, jsonSchema);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int compact() throws IOException {
+        outputStream.reset();
+        compactWriter.writeValue(outputStream, jsonSchema);
+        return outputStream.size();
+    }
+}
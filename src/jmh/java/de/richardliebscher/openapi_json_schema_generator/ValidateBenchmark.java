@@ -0,0 +1,83 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.validator.JsonSchemaValidator;
+import de.richardliebscher.openapi_json_schema_generator.validator.ValidationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of an instance of a wide object schema, read into a tree first ({@code tree}) or validated from the
+ * parser ({@code stream}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ValidateBenchmark {
+    @Param({"tree", "stream"})
+    public String input;
+
+    @Param({"200"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private JsonSchemaValidator validator;
+    private byte[] instance;
+
+    @Setup
+    public void setUp() {
+        validator = JsonSchemaValidator.compile(new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { })
+                .convert(BenchmarkSpecs.parse(BenchmarkSpecs.spec("wide", size)), BenchmarkSpecs.ROOT));
+
+        // matches the properties of BenchmarkSpecs wide schemas
+        StringBuilder instance = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            instance.append(i > 0 ? "," : "").append("\"property").append(i).append("\":");
+            switch (i % 4) {
+                case 0:
+                    instance.append("\"value ").append(i).append('"');
+                    break;
+                case 1:
+                    instance.append(i * 1_000_000L);
+                    break;
+                case 2:
+                    instance.append(i % 8 == 2 ? "null" : "1.5");
+                    break;
+                default:
+                    instance.append("[\"2023-01-01T00:00:00Z\",\"2023-01-02T00:00:00Z\"]");
+                    break;
+            }
+        }
+        this.instance = instance.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<ValidationError> validate() throws IOException {
+        if (input.equals("tree")) {
+            return validator.validate(objectMapper.readTree(instance));
+        }
+        try (JsonParser parser = objectMapper.createParser(instance)) {
+            return validator.validate(parser);
+        }
+    }
+}
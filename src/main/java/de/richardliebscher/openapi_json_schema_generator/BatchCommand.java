@@ -0,0 +1,220 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs many generate jobs in one JVM on a bounded work-stealing pool.
+ */
+@RequiredArgsConstructor
+public class BatchCommand {
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final List<Job> jobs;
+    private final int parallelism;
+    private final CommandFactory commandFactory;
+    private final Consumer<Message> warningsListener;
+
+    /**
+     * Creates the command for a single job, so all jobs share the same options.
+     */
+    @FunctionalInterface
+    public interface CommandFactory {
+        GenerateCommand create(
+                String input, String mainSchema, OutputStream outputStream, Consumer<Message> warningsListener);
+    }
+
+    @RequiredArgsConstructor
+    public static final class Job {
+        public final String input;
+        public final Path output;
+        public final String mainSchema;
+
+        @Override
+        public String toString() {
+            return input + " -> " + output;
+        }
+    }
+
+    /**
+     * Run all jobs.
+     *
+     * @return exit status of every job, in the order of the jobs
+     */
+    public List<Integer> run() {
+        List<Callable<Integer>> tasks = jobs.stream()
+                .map(job -> (Callable<Integer>) () -> run(job))
+                .collect(Collectors.toList());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Integer> statuses = new ArrayList<>(jobs.size());
+            for (Future<Integer> future : pool.invokeAll(tasks)) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch jobs", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Batch job failed unexpectedly", exception.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int run(Job job) {
+        Consumer<Message> jobWarningsListener = m -> warningsListener.accept(m.withSource(job.input));
+
+        int status;
+        try {
+            Path parent = job.output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(job.output))) {
+                status = commandFactory.create(job.input, job.mainSchema, outputStream, jobWarningsListener).run();
+            }
+        } catch (IOException exception) {
+            jobWarningsListener.accept(
+                    Message.error("Failed to write " + job.output + ": " + exception.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            status = 3;
+        } catch (RuntimeException exception) {
+            jobWarningsListener.accept(Message.error(String.valueOf(exception.getMessage())));
+            status = 5;
+        }
+
+        if (status != 0) {
+            try {
+                Files.deleteIfExists(job.output);
+            } catch (IOException exception) {
+                jobWarningsListener.accept(
+                        Message.warning("Failed to delete incomplete " + job.output + ": " + exception.getMessage())
+                                .withCategory(Message.Category.OUTPUT));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Read jobs from a batch file.
+     *
+     * <p>Each non-empty line not starting with {@code #} consists of whitespace separated
+     * {@code INPUT OUTPUT [MAIN_SCHEMA]}. Relative paths are resolved against the directory of the batch file.
+     *
+     * @throws IllegalArgumentException when a line is malformed, with file and line number in the message
+     */
+    public static List<Job> readBatchFile(Path batchFile) throws IOException {
+        Path baseDirectory = batchFile.toAbsolutePath().getParent();
+        List<Job> jobs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(batchFile)) {
+            lineNumber += 1;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = trimmed.split("\\s+");
+            if (fields.length < 2 || fields.length > 3) {
+                throw new IllegalArgumentException(
+                        batchFile + ":" + lineNumber + ": expected 'INPUT OUTPUT [MAIN_SCHEMA]' but was: " + line);
+            }
+            String input = isUrl(fields[0]) ? fields[0] : baseDirectory.resolve(fields[0]).toString();
+            jobs.add(new Job(input, baseDirectory.resolve(fields[1]), fields.length == 3 ? fields[2] : null));
+        }
+        return jobs;
+    }
+
+    /**
+     * Create a job for every file matching a glob pattern.
+     *
+     * <p>The output of {@code specs/a/api.yaml} for the pattern {@code specs/**.yaml} is
+     * {@code OUTPUT_DIR/a/api.json}.
+     *
+     * @param extension extension of output files, e.g. {@code .json}
+     */
+    public static List<Job> expandGlob(String pattern, Path outputDirectory, String mainSchema, String extension)
+            throws IOException {
+        if (isUrl(pattern) || firstGlobCharacter(pattern) == pattern.length()) {
+            String fileName = Paths.get(pattern).getFileName().toString();
+            return List.of(new Job(pattern, outputDirectory.resolve(toOutputName(fileName, extension)), mainSchema));
+        }
+
+        Path baseDirectory = globBaseDirectory(pattern);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.walk(baseDirectory)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .map(file -> new Job(
+                            file.toString(),
+                            outputDirectory.resolve(toOutputName(baseDirectory.relativize(file).toString(), extension)),
+                            mainSchema))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Find jobs which would write the same output file concurrently, e.g. for {@code api.yaml} and {@code api.json}
+     * matching the same glob pattern.
+     *
+     * @return description of the first conflict or {@code null} when every job has its own output
+     */
+    public static String findConflictingOutput(List<Job> jobs) {
+        Map<Path, Job> outputs = new HashMap<>();
+        for (Job job : jobs) {
+            Job other = outputs.putIfAbsent(job.output.toAbsolutePath().normalize(), job);
+            if (other != null) {
+                return "'" + other.input + "' and '" + job.input + "' both write " + job.output;
+            }
+        }
+        return null;
+    }
+
+    private static Path globBaseDirectory(String pattern) {
+        String prefix = pattern.substring(0, firstGlobCharacter(pattern));
+        int separator = prefix.lastIndexOf('/');
+        return separator < 0 ? Paths.get("") : Paths.get(prefix.substring(0, separator + 1));
+    }
+
+    private static int firstGlobCharacter(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return pattern.length();
+    }
+
+    private static String toOutputName(String inputName, String outputExtension) {
+        int extension = inputName.lastIndexOf('.');
+        int separator = Math.max(inputName.lastIndexOf('/'), inputName.lastIndexOf('\\'));
+        return (extension > separator ? inputName.substring(0, extension) : inputName) + outputExtension;
+    }
+
+    private static boolean isUrl(String input) {
+        return input.contains("://");
+    }
+}
@@ -0,0 +1,190 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.CompactJsonSchema;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.swagger.v3.oas.models.Components.COMPONENTS_SCHEMAS_REF;
+
+/**
+ * Writes one standalone JSON schema per component schema from a single parse and conversion.
+ */
+@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BundleCommand {
+    private final String input;
+    private final List<String> schemaNames;
+    private final InputStream inputStream;
+    private final Path outputDirectory;
+    private final int parallelism;
+    private final Converter converter;
+    private final Consumer<Message> warningsListener;
+
+    @With
+    private OutputFormat outputFormat = OutputFormat.JSON;
+
+    /**
+     * Read only the component schemas of local specifications, see {@link SpecReader#withSchemasOnly(boolean)}.
+     */
+    @With
+    private boolean schemasOnly = false;
+
+    /**
+     * Directory which resolves references of standard input, see {@link SpecReader#withWorkingDirectory(Path)}.
+     */
+    @With
+    private Path workingDirectory = null;
+
+    public int run() {
+        OpenAPI openAPI = new SpecReader(warningsListener)
+                .withSchemasOnly(schemasOnly)
+                .withParallelism(parallelism)
+                .withWorkingDirectory(workingDirectory)
+                .read(input, inputStream);
+        if (openAPI == null) {
+            return 2;
+        }
+
+        Components components = openAPI.getComponents();
+        Map<String, Schema> schemas = components.getSchemas();
+        List<String> names = schemaNames.isEmpty()
+                ? new ArrayList<>(schemas.keySet())
+                : schemaNames.stream().map(BundleCommand::toName).distinct().collect(Collectors.toList());
+        List<String> unknownNames = names.stream()
+                .filter(name -> !schemas.containsKey(name))
+                .collect(Collectors.toList());
+        if (!unknownNames.isEmpty()) {
+            warningsListener.accept(
+                    Message.error("Unknown component schemas: " + String.join(", ", unknownNames)));
+            return 2;
+        }
+        List<String> invalidNames = names.stream()
+                .filter(name -> !isFileName(name))
+                .collect(Collectors.toList());
+        if (!invalidNames.isEmpty()) {
+            warningsListener.accept(
+                    Message.error("Component schemas can not be written to " + outputDirectory + ": "
+                                    + String.join(", ", invalidNames))
+                            .withCategory(Message.Category.OUTPUT));
+            return 2;
+        }
+
+        // walk every schema once for its direct references, bundles share them when following references
+        Map<String, Collection<String>> references = new HashMap<>();
+        Function<String, Collection<String>> referencesOf = name -> references.computeIfAbsent(
+                name, key -> converter.referencedDefinitions(schemas.get(key)));
+        Map<String, Set<String>> reachable = new LinkedHashMap<>();
+        for (String name : names) {
+            reachable.put(name, Converter.reachableDefinitions(List.of(name), schemas::containsKey, referencesOf));
+        }
+
+        // convert every reachable definition once, bundles share them
+        Set<String> allReachable = reachable.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        Map<String, CompactJsonSchema> definitions = converter.convertCompactDefinitions(components, allReachable);
+
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to create " + outputDirectory + ": " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            return 3;
+        }
+
+        // print
+        ObjectWriter objectWriter = outputFormat.getWriter();
+        List<Callable<Integer>> tasks = names.stream()
+                .map(name -> (Callable<Integer>) () -> write(
+                        objectWriter, name, converter.bundleCompact(select(definitions, reachable.get(name)), name)))
+                .collect(Collectors.toList());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int exitCode = 0;
+            for (Future<Integer> future : pool.invokeAll(tasks)) {
+                exitCode = Math.max(exitCode, future.get());
+            }
+            return exitCode;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing bundles", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Writing bundle failed unexpectedly", exception.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int write(ObjectWriter objectWriter, String name, CompactJsonSchema jsonSchema) {
+        Path output = outputDirectory.resolve(name + outputFormat.extension);
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(output))) {
+            objectWriter.writeValue(outputStream, jsonSchema);
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to generate json for " + name + ": " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * Whether the bundle of a component schema is written directly into the output directory, so names with path
+     * separators or {@code ..} can not write elsewhere.
+     */
+    private boolean isFileName(String name) {
+        try {
+            Path output = outputDirectory.resolve(name + outputFormat.extension).normalize();
+            return outputDirectory.normalize().equals(output.getParent());
+        } catch (InvalidPathException exception) {
+            return false;
+        }
+    }
+
+    private static Map<String, CompactJsonSchema> select(
+            Map<String, CompactJsonSchema> definitions, Set<String> names) {
+        Map<String, CompactJsonSchema> selected = new LinkedHashMap<>();
+        definitions.forEach((name, definition) -> {
+            if (names.contains(name)) {
+                selected.put(name, definition);
+            }
+        });
+        return selected;
+    }
+
+    private static String toName(String component) {
+        return component.startsWith(COMPONENTS_SCHEMAS_REF)
+                ? component.substring(COMPONENTS_SCHEMAS_REF.length())
+                : component;
+    }
+}
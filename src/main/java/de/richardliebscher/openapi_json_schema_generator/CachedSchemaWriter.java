@@ -0,0 +1,343 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the JSON schema of a specification like {@link StreamingSchemaWriter}, but reuses the definitions of
+ * unchanged component schemas from a {@link DefinitionCache}.
+ *
+ * <p>Works on the unparsed document: only component schemas missing in the cache are parsed and converted, so parser
+ * messages are only reported for these. Definitions and conversion warnings keep the order of the specification.
+ */
+@RequiredArgsConstructor
+public class CachedSchemaWriter {
+    private final Converter converter;
+    /**
+     * Writer for single definitions. Must not have a pretty printer configured, the cache stores compact JSON.
+     */
+    private final ObjectWriter definitionWriter;
+    private final DefinitionCache cache;
+    private final SpecReader specReader;
+    private final String input;
+
+    /**
+     * @param document unparsed OpenAPI 3 document
+     * @return {@code false} when component schemas could not be parsed, nothing is written then. Reasons are reported
+     * to the warnings listener.
+     */
+    public boolean write(JsonGenerator generator, JsonNode document, String mainSchema) throws IOException {
+        return new Run(generator, document).write(mainSchema);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private final class Run {
+        private final JsonGenerator generator;
+        private final JsonNode document;
+        private final Map<String, String> keys = new LinkedHashMap<>();
+        private final Set<String> missing = new HashSet<>();
+        private final Map<String, Schema> schemas = new HashMap<>();
+
+        private Run(JsonGenerator generator, JsonNode document) {
+            this.generator = generator;
+            this.document = document;
+        }
+
+        private boolean write(String mainSchema) throws IOException {
+            String openApiVersion = document.path("openapi").asText();
+            document.path("components").path("schemas").fields().forEachRemaining(source -> {
+                String key = cache.key(converter, openApiVersion, source.getKey(), source.getValue());
+                keys.put(source.getKey(), key);
+                if (!cache.contains(key)) {
+                    missing.add(source.getKey());
+                }
+            });
+            if (!missing.isEmpty() && !parse(missing)) {
+                return false;
+            }
+
+            Set<String> names = mainSchema == null
+                    ? keys.keySet()
+                    : Converter.reachableDefinitions(List.of(mainSchema), keys::containsKey, this::references);
+            Set<String> convertedNames = new HashSet<>(names);
+            convertedNames.retainAll(missing);
+            Map<String, Schema> convertedSchemas = new LinkedHashMap<>();
+            for (String name : keys.keySet()) {
+                if (convertedNames.contains(name)) {
+                    convertedSchemas.put(name, schemas.get(name));
+                }
+            }
+
+            // same property order as JsonSchema
+            JsonSchema root = converter.bundle(null, mainSchema);
+            generator.writeStartObject();
+            generator.writeStringField("$schema", root.$schema);
+
+            generator.writeFieldName(converter.getJsonSchemaDraft().definitionsKeyword());
+            generator.writeStartObject();
+            try {
+                Iterator<String> remaining = keys.keySet().stream().filter(names::contains).iterator();
+                List<Message> messages = new ArrayList<>();
+                converter.withWarningsListener(messages::add).convertDefinitions(
+                        new Components().schemas(convertedSchemas),
+                        convertedNames,
+                        (name, definition) -> {
+                            // messages only contain warnings of this definition
+                            List<Message> definitionMessages = new ArrayList<>(messages);
+                            messages.clear();
+                            writeCachedDefinitions(remaining, convertedNames, name);
+                            writeEntry(name, store(name, definitionMessages, definition));
+                        });
+                writeCachedDefinitions(remaining, convertedNames, null);
+            } catch (UncheckedIOException exception) {
+                throw exception.getCause();
+            }
+            generator.writeEndObject();
+
+            if (root.$ref != null) {
+                generator.writeStringField("$ref", root.$ref);
+            }
+            generator.writeEndObject();
+            return true;
+        }
+
+        /**
+         * Write cached definitions up to the next converted one.
+         */
+        private void writeCachedDefinitions(Iterator<String> remaining, Set<String> convertedNames, String next) {
+            while (remaining.hasNext()) {
+                String name = remaining.next();
+                if (name.equals(next)) {
+                    return;
+                }
+                if (convertedNames.contains(name)) {
+                    continue; // excluded by the conversion
+                }
+
+                DefinitionCache.Entry entry = cache.load(keys.get(name));
+                if (entry == null) {
+                    // removed in the meantime
+                    List<Message> messages = new ArrayList<>();
+                    JsonSchema definition = converter.withWarningsListener(messages::add)
+                            .convert(schema(name), new JsonPath("components").push("schemas").push(name));
+                    if (definition == null) {
+                        continue;
+                    }
+                    entry = store(name, messages, definition);
+                }
+                writeEntry(name, entry);
+            }
+        }
+
+        private Collection<String> references(String name) {
+            if (!missing.contains(name)) {
+                DefinitionCache.Entry entry = cache.load(keys.get(name));
+                if (entry != null) {
+                    return entry.references;
+                }
+                missing.add(name);
+            }
+            return converter.referencedDefinitions(schema(name));
+        }
+
+        private Schema<?> schema(String name) {
+            if (!schemas.containsKey(name) && !parse(Set.of(name))) {
+                throw new IllegalStateException("Failed to parse component schema " + name);
+            }
+            return schemas.get(name);
+        }
+
+        private boolean parse(Set<String> names) {
+            Map<String, Schema> parsed;
+            try (Stats.Phase ignored = Stats.phase(converter.getStats(), Stats.PARSE)) {
+                parsed = specReader.parseSchemas(input, document, names);
+            }
+            if (parsed == null) {
+                return false;
+            }
+            schemas.putAll(parsed);
+            return true;
+        }
+
+        private DefinitionCache.Entry store(String name, List<Message> messages, JsonSchema definition) {
+            DefinitionCache.Entry entry;
+            try {
+                entry = new DefinitionCache.Entry(
+                        messages,
+                        new ArrayList<>(converter.referencedDefinitions(schema(name))),
+                        definitionWriter.writeValueAsBytes(definition));
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            cache.store(keys.get(name), entry, converter.getWarningsListener());
+            return entry;
+        }
+
+        private void writeEntry(String name, DefinitionCache.Entry entry) {
+            entry.messages.forEach(converter.getWarningsListener());
+            try (JsonParser parser = definitionWriter.getFactory().createParser(entry.definition)) {
+                generator.writeFieldName(name);
+                copy(parser, generator);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Copy tokens like {@link JsonGenerator#copyCurrentStructure(JsonParser)}, but keep numbers as written. Binary
+     * generators get numbers like the serialized definitions: decimals, numeric bounds and converted values as
+     * {@link java.math.BigDecimal}, other integers as {@code int} or {@code long}.
+     */
+    private static void copy(JsonParser parser, JsonGenerator generator) throws IOException {
+        Contexts contexts = new Contexts();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            switch (token) {
+                case START_OBJECT:
+                    contexts.push(false);
+                    generator.writeStartObject();
+                    break;
+                case END_OBJECT:
+                    contexts.pop();
+                    generator.writeEndObject();
+                    break;
+                case START_ARRAY:
+                    contexts.push(true);
+                    generator.writeStartArray();
+                    break;
+                case END_ARRAY:
+                    contexts.pop();
+                    generator.writeEndArray();
+                    break;
+                case FIELD_NAME:
+                    contexts.field = parser.getCurrentName();
+                    generator.writeFieldName(contexts.field);
+                    break;
+                case VALUE_STRING:
+                    generator.writeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    break;
+                case VALUE_NUMBER_INT:
+                    if (generator.canWriteFormattedNumbers()) {
+                        generator.writeNumber(parser.getText());
+                    } else if (contexts.isDecimal()) {
+                        generator.writeNumber(parser.getDecimalValue());
+                    } else {
+                        generator.copyCurrentEvent(parser);
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    if (generator.canWriteFormattedNumbers()) {
+                        generator.writeNumber(parser.getText());
+                    } else {
+                        // keep scale of BigDecimal
+                        generator.writeNumber(parser.getDecimalValue());
+                    }
+                    break;
+                case VALUE_TRUE:
+                    generator.writeBoolean(true);
+                    break;
+                case VALUE_FALSE:
+                    generator.writeBoolean(false);
+                    break;
+                case VALUE_NULL:
+                    generator.writeNull();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected token in cached definition: " + token);
+            }
+        }
+    }
+
+    /**
+     * Kinds of the open objects and arrays of a definition, to tell integers written as {@link java.math.BigDecimal}
+     * by {@link Converter}, like numeric bounds and enumeration values, from other integers.
+     */
+    private static final class Contexts {
+        private static final int SCHEMA = 0;
+        private static final int SCHEMA_MAP = 1;
+        /**
+         * Array of {@code enum} or {@code examples}.
+         */
+        private static final int VALUE_LIST = 2;
+        /**
+         * Object or array inside of a value, kept as parsed.
+         */
+        private static final int VALUE = 3;
+        private static final int ARRAY = 4;
+
+        private static final Set<String> DECIMAL_KEYWORDS = Set.of(
+                "multipleOf", "minimum", "exclusiveMinimum", "maximum", "exclusiveMaximum", "default", "const");
+        private static final Set<String> VALUE_KEYWORDS = Set.of("default", "const");
+        private static final Set<String> VALUE_LIST_KEYWORDS = Set.of("examples", "enum");
+        private static final Set<String> SCHEMA_MAP_KEYWORDS = Set.of(
+                "properties", "patternProperties", "definitions", "$defs");
+
+        private int[] kinds = new int[16];
+        private int depth;
+        /**
+         * Last field name of the innermost object.
+         */
+        private String field;
+
+        void push(boolean array) {
+            int kind = depth == 0 ? SCHEMA : childKind(array);
+            if (depth == kinds.length) {
+                kinds = Arrays.copyOf(kinds, depth * 2);
+            }
+            kinds[depth++] = array ? kind | ARRAY : kind;
+        }
+
+        void pop() {
+            depth--;
+        }
+
+        /**
+         * @return whether the current number is a {@link java.math.BigDecimal} in the converted schema
+         */
+        boolean isDecimal() {
+            if (depth == 0) {
+                return false;
+            }
+            int parent = kinds[depth - 1];
+            return parent == SCHEMA && DECIMAL_KEYWORDS.contains(field) || parent == (VALUE_LIST | ARRAY);
+        }
+
+        private int childKind(boolean array) {
+            int parent = kinds[depth - 1];
+            if (parent == SCHEMA) {
+                if (VALUE_KEYWORDS.contains(field)) {
+                    return VALUE;
+                } else if (VALUE_LIST_KEYWORDS.contains(field)) {
+                    return array ? VALUE_LIST : VALUE;
+                } else {
+                    return SCHEMA_MAP_KEYWORDS.contains(field) ? SCHEMA_MAP : SCHEMA;
+                }
+            } else if (parent == SCHEMA_MAP || parent == (SCHEMA | ARRAY)) {
+                return SCHEMA;
+            } else {
+                return VALUE;
+            }
+        }
+    }
+}
@@ -5,44 +5,289 @@ import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.DecimalNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.CompactJsonSchema;
 import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
 import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchemaDataType;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.media.ArraySchema;
 import io.swagger.v3.oas.models.media.ComposedSchema;
 import io.swagger.v3.oas.models.media.Schema;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.With;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.IntStream;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static io.swagger.v3.oas.models.Components.COMPONENTS_SCHEMAS_REF;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 
 @RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Converter {
+    private static final BigDecimal INT32_MINIMUM = BigDecimal.valueOf(Integer.MIN_VALUE);
+    private static final BigDecimal INT32_MAXIMUM = BigDecimal.valueOf(Integer.MAX_VALUE);
+    private static final BigDecimal INT64_MINIMUM = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal INT64_MAXIMUM = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal FLOAT_MINIMUM = BigDecimal.valueOf(-Float.MAX_VALUE);
+    private static final BigDecimal FLOAT_MAXIMUM = BigDecimal.valueOf(Float.MAX_VALUE);
+    private static final BigDecimal DOUBLE_MINIMUM = BigDecimal.valueOf(-Double.MAX_VALUE);
+    private static final BigDecimal DOUBLE_MAXIMUM = BigDecimal.valueOf(Double.MAX_VALUE);
+
+    /**
+     * Immutable type lists shared by all converted schemas.
+     */
+    private static final Map<JsonSchemaDataType, List<JsonSchemaDataType>> TYPES =
+            new EnumMap<>(JsonSchemaDataType.class);
+    private static final Map<JsonSchemaDataType, List<JsonSchemaDataType>> NULLABLE_TYPES =
+            new EnumMap<>(JsonSchemaDataType.class);
+
+    static {
+        for (JsonSchemaDataType type : JsonSchemaDataType.values()) {
+            TYPES.put(type, List.of(type));
+            NULLABLE_TYPES.put(type, List.of(type, JsonSchemaDataType.NULL));
+        }
+    }
+
+    @Getter
     private final boolean includeReadOnly;
+    @Getter
     private final boolean includeWriteOnly;
+    @Getter
     private final JsonSchemaDraft jsonSchemaDraft;
+    @Getter(AccessLevel.PACKAGE)
+    @With(AccessLevel.PACKAGE)
     private final Consumer<Message> warningsListener;
 
+    /**
+     * Number of threads used to convert definitions. The result and the order of warnings do not depend on it.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @With
+    private int parallelism = 1;
+
+    /**
+     * Collects timings and counters of conversions or {@code null}.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @With
+    private Stats stats = null;
+
+    /**
+     * Rewritten references by original reference. Shared by copies of the converter, so every reference is only
+     * rewritten once. References outside of components are not stored, they fail the conversion anyway.
+     */
+    private Map<String, String> references = new ConcurrentHashMap<>();
+
     public JsonSchema convert(Components components, String mainSchema) {
+        return bundle(convertDefinitions(components, definitionNames(components, mainSchema)), mainSchema);
+    }
+
+    /**
+     * Same as {@link #convert(Components, String)}, but only the compact form of every definition is kept, see
+     * {@link CompactJsonSchema}.
+     */
+    public CompactJsonSchema convertCompact(Components components, String mainSchema) {
+        Set<String> names = definitionNames(components, mainSchema);
+        return bundleCompact(convertCompactDefinitions(components, names), mainSchema);
+    }
+
+    /**
+     * Names of component schemas to emit as definitions: all of them without main schema, otherwise only the ones
+     * reachable from the main schema.
+     */
+    public Set<String> definitionNames(Components components, String mainSchema) {
+        if (mainSchema == null) {
+            return components.getSchemas().keySet();
+        }
+        return reachableDefinitions(components, List.of(mainSchema));
+    }
+
+    /**
+     * Convert all schemas of components.
+     */
+    public Map<String, JsonSchema> convertDefinitions(Components components) {
+        return convertDefinitions(components, components.getSchemas().keySet());
+    }
+
+    /**
+     * Convert selected schemas of components.
+     *
+     * @param names names of component schemas to convert
+     * @return converted definitions in order of the specification
+     */
+    public Map<String, JsonSchema> convertDefinitions(Components components, Set<String> names) {
+        Map<String, JsonSchema> definitions = new LinkedHashMap<>();
+        convertDefinitions(components, names, definitions::put);
+        return definitions;
+    }
+
+    /**
+     * Convert selected schemas of components and keep only their compact form.
+     *
+     * @param names names of component schemas to convert
+     * @return converted definitions in order of the specification
+     */
+    public Map<String, CompactJsonSchema> convertCompactDefinitions(Components components, Set<String> names) {
+        Map<String, CompactJsonSchema> definitions = new LinkedHashMap<>();
+        convertDefinitions(components, names,
+                (name, definition) -> definitions.put(name, CompactJsonSchema.of(definition)));
+        return definitions;
+    }
+
+    /**
+     * Convert selected schemas of components one after another in order of the specification.
+     *
+     * <p>Converted definitions are not retained, so the consumer can write them out and drop them.
+     *
+     * @param names names of component schemas to convert
+     */
+    public void convertDefinitions(
+            Components components, Set<String> names, BiConsumer<String, JsonSchema> definitionConsumer) {
         var path = new JsonPath("components").push("schemas");
+        if (parallelism > 1 && names.size() > 1) {
+            convertDefinitionsInParallel(components, names, path, definitionConsumer);
+            return;
+        }
+
+        for (Map.Entry<String, Schema> entry : components.getSchemas().entrySet()) {
+            if (names.contains(entry.getKey())) {
+                JsonSchema definition;
+                try (Stats.Phase ignored = startPhase(Stats.CONVERT)) {
+                    definition = convertDefinition(entry.getKey(), entry.getValue(), path.push(entry.getKey()));
+                }
+                if (definition != null) {
+                    definitionConsumer.accept(entry.getKey(), definition);
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert definitions on a fork-join pool and hand them to the consumer in order of the specification.
+     *
+     * <p>Every definition collects its warnings separately, they are passed to the warnings listener together with
+     * the definition on the calling thread. So the listener does not need to be thread-safe and sees the same
+     * warnings in the same order as with sequential conversion. Only a few definitions are converted ahead of the
+     * consumer, so streaming output stays bounded in memory.
+     */
+    private void convertDefinitionsInParallel(
+            Components components, Set<String> names, JsonPath path,
+            BiConsumer<String, JsonSchema> definitionConsumer) {
+        Iterator<Map.Entry<String, Schema>> entries = components.getSchemas().entrySet().iterator();
+        Deque<Future<ConvertedDefinition>> pending = new ArrayDeque<>();
+        int window = parallelism * 4;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+                while (entries.hasNext() && pending.size() < window) {
+                    Map.Entry<String, Schema> entry = entries.next();
+                    if (names.contains(entry.getKey())) {
+                        pending.add(pool.submit(
+                                () -> convertIsolated(entry.getKey(), entry.getValue(), path.push(entry.getKey()))));
+                    }
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
 
+                ConvertedDefinition converted;
+                try (Stats.Phase ignored = startPhase(Stats.CONVERT)) {
+                    converted = pending.remove().get();
+                }
+                converted.messages.forEach(warningsListener);
+                if (converted.exception != null) {
+                    throw converted.exception;
+                }
+                if (converted.definition != null) {
+                    definitionConsumer.accept(converted.name, converted.definition);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting definitions", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Converting definitions failed unexpectedly", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ConvertedDefinition convertIsolated(String name, Schema<?> schema, JsonPath path) {
+        List<Message> messages = new ArrayList<>();
+        long allocatedBytes = stats != null ? Stats.allocatedBytes() : -1;
+        try {
+            JsonSchema definition = withWarningsListener(messages::add).convertDefinition(name, schema, path);
+            return new ConvertedDefinition(name, definition, messages, null);
+        } catch (RuntimeException exception) {
+            return new ConvertedDefinition(name, null, messages, exception);
+        } finally {
+            if (allocatedBytes >= 0) {
+                stats.addAllocatedBytes(Stats.CONVERT, Stats.allocatedBytes() - allocatedBytes);
+            }
+        }
+    }
+
+    /**
+     * Convert component schema and record a {@link DefinitionEvent}.
+     */
+    private JsonSchema convertDefinition(String name, Schema<?> schema, JsonPath path) {
+        DefinitionEvent event = new DefinitionEvent();
+        event.begin();
+        JsonSchema definition = convert(schema, path);
+        event.name = name;
+        event.commit();
+
+        if (stats != null && definition != null) {
+            stats.definitionConverted();
+        }
+        return definition;
+    }
+
+    private Stats.Phase startPhase(String name) {
+        return Stats.phase(stats, name);
+    }
+
+    @RequiredArgsConstructor
+    private static final class ConvertedDefinition {
+        private final String name;
+        private final JsonSchema definition;
+        private final List<Message> messages;
+        private final RuntimeException exception;
+    }
+
+    /**
+     * Create top-level schema for already converted definitions.
+     *
+     * <p>The definitions are not copied, so the same definitions can be shared by multiple bundles.
+     */
+    public JsonSchema bundle(Map<String, JsonSchema> definitions, String mainSchema) {
         var jsonSchema = new JsonSchema();
         jsonSchema.$schema = jsonSchemaDraft.id;
         jsonSchema.$ref = mapReference(mainSchema, null);
 
-        var definitions = components.getSchemas()
-                .entrySet()
-                .stream()
-                .collect(toMap(
-                        Map.Entry::getKey,
-                        e -> convert(e.getValue(), path.push(e.getKey()))));
         if (isOrNewerThan2019_09()) {
             jsonSchema.$defs = definitions;
         } else {
@@ -52,17 +297,133 @@ public class Converter {
         return jsonSchema;
     }
 
+    /**
+     * Same as {@link #bundle(Map, String)} for compact definitions.
+     */
+    public CompactJsonSchema bundleCompact(Map<String, CompactJsonSchema> definitions, String mainSchema) {
+        return CompactJsonSchema.bundle(bundle(new LinkedHashMap<>(), mainSchema), definitions);
+    }
+
+    /**
+     * Find component schemas which are reachable from the given references.
+     *
+     * <p>Follows references in the same places and with the same rules as the conversion, so the result contains all
+     * definitions the converted schemas can refer to. References outside of components are ignored here, they fail
+     * the conversion.
+     *
+     * @param roots names of component schemas or references to them
+     * @return names of reachable component schemas including the roots
+     */
+    public Set<String> reachableDefinitions(Components components, Collection<String> roots) {
+        Map<String, Schema> schemas = components.getSchemas();
+        return reachableDefinitions(roots, schemas::containsKey, name -> referencedDefinitions(schemas.get(name)));
+    }
+
+    /**
+     * Find definitions which are reachable from the given references.
+     *
+     * @param roots names of component schemas or references to them
+     * @param exists whether a component schema exists
+     * @param references names of component schemas directly referenced by a component schema, see
+     * {@link #referencedDefinitions(Schema)}
+     * @return names of reachable component schemas including the roots
+     */
+    public static Set<String> reachableDefinitions(
+            Collection<String> roots, Predicate<String> exists, Function<String, Collection<String>> references) {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+
+        for (String root : roots) {
+            String name = toComponentName(root);
+            if (name != null && exists.test(name) && reachable.add(name)) {
+                pending.push(name);
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            for (String name : references.apply(pending.pop())) {
+                if (exists.test(name) && reachable.add(name)) {
+                    pending.push(name);
+                }
+            }
+        }
+
+        return reachable;
+    }
+
+    /**
+     * Find component schemas which are directly referenced by a schema, without following these references.
+     *
+     * @return names of referenced component schemas, which do not need to exist
+     */
+    public Set<String> referencedDefinitions(Schema<?> root) {
+        Set<String> referenced = new HashSet<>();
+        Deque<Schema<?>> pending = new ArrayDeque<>();
+        pushIfPresent(pending, root);
+
+        while (!pending.isEmpty()) {
+            Schema<?> schema = pending.pop();
+            if (!isIncluded(schema)) {
+                continue;
+            }
+
+            String name = toComponentName(schema.get$ref());
+            if (name != null) {
+                referenced.add(name);
+            }
+
+            pushIfPresent(pending, schema.getNot());
+            if (schema instanceof ComposedSchema) {
+                ComposedSchema composedSchema = (ComposedSchema) schema;
+                pushAll(pending, composedSchema.getAnyOf());
+                pushAll(pending, composedSchema.getOneOf());
+                pushAll(pending, composedSchema.getAllOf());
+            }
+            if (schema instanceof ArraySchema) {
+                pushIfPresent(pending, ((ArraySchema) schema).getItems());
+            }
+            if (schema.getProperties() != null) {
+                schema.getProperties().values().forEach(property -> pushIfPresent(pending, property));
+            }
+            if (schema.getAdditionalProperties() instanceof Schema) {
+                pushIfPresent(pending, (Schema<?>) schema.getAdditionalProperties());
+            }
+        }
+
+        return referenced;
+    }
+
+    private static void pushIfPresent(Deque<Schema<?>> pending, Schema<?> schema) {
+        if (schema != null) {
+            pending.push(schema);
+        }
+    }
+
+    private static void pushAll(Deque<Schema<?>> pending, @SuppressWarnings("rawtypes") List<Schema> schemas) {
+        if (schemas != null) {
+            schemas.forEach(schema -> pushIfPresent(pending, schema));
+        }
+    }
+
     public JsonSchema convert(Schema<?> schema, JsonPath path) {
-        // filter
+        return convert(schema, new Location(path));
+    }
 
+    private JsonSchema convert(Schema<?> schema, Location location, String name) {
         if (schema == null) {
             return null;
         }
-        if (!includeReadOnly && Boolean.TRUE.equals(schema.getReadOnly())) {
-            return null; // TODO: handle it top level
-        }
-        if (!includeWriteOnly && Boolean.TRUE.equals(schema.getWriteOnly())) {
-            return null; // TODO: handle it top level
+
+        JsonSchema jsonSchema = convert(schema, location.push(name));
+        location.pop();
+        return jsonSchema;
+    }
+
+    private JsonSchema convert(Schema<?> schema, Location location) {
+        // filter
+
+        if (schema == null || !isIncluded(schema)) {
+            return null; // TODO: handle read only and write only top level
         }
 
         // trivial
@@ -83,34 +444,27 @@ public class Converter {
 
         // schema conversions
 
-        jsonSchema.$ref = mapReference(schema.get$ref(), path);
-        jsonSchema.not = convert(schema.getNot(), path.push("not"));
+        jsonSchema.$ref = mapReference(schema.get$ref(), location);
+        jsonSchema.not = convert(schema.getNot(), location, "not");
 
         if (schema instanceof ComposedSchema) {
             ComposedSchema composedSchema = (ComposedSchema) schema;
-            jsonSchema.anyOf = convertSchemaList(composedSchema.getAnyOf(), path);
-            jsonSchema.oneOf = convertSchemaList(composedSchema.getOneOf(), path);
-            jsonSchema.allOf = convertSchemaList(composedSchema.getAllOf(), path);
+            jsonSchema.anyOf = convertSchemaList(composedSchema.getAnyOf(), location);
+            jsonSchema.oneOf = convertSchemaList(composedSchema.getOneOf(), location);
+            jsonSchema.allOf = convertSchemaList(composedSchema.getAllOf(), location);
         }
 
         if (schema instanceof ArraySchema) {
-            jsonSchema.items = convert(((ArraySchema) schema).getItems(), path);
+            jsonSchema.items = convert(((ArraySchema) schema).getItems(), location);
         }
 
-        if (schema.getProperties() != null) {
-            jsonSchema.properties = schema.getProperties()
-                    .entrySet()
-                    .stream()
-                    .collect(toMap(
-                            Map.Entry::getKey,
-                            e -> convert(e.getValue(), path.push(e.getKey()))));
-        }
+        jsonSchema.properties = convertProperties(schema.getProperties(), location);
 
         if (schema.getAdditionalProperties() instanceof Boolean) {
             jsonSchema.additionalProperties = schema.getAdditionalProperties();
         } else if (schema.getAdditionalProperties() instanceof Schema) {
             jsonSchema.additionalProperties = convert(
-                    (Schema<?>) schema.getAdditionalProperties(), path.push("additionalProperties"));
+                    (Schema<?>) schema.getAdditionalProperties(), location, "additionalProperties");
         }
 
         // v4 -> v6
@@ -138,12 +492,12 @@ public class Converter {
         if (schema.getType() != null) {
             JsonSchemaDataType type = JsonSchemaDataType.fromValue(schema.getType());
             if (Boolean.TRUE.equals(schema.getNullable())) {
-                jsonSchema.type = List.of(type, JsonSchemaDataType.NULL);
+                jsonSchema.type = NULLABLE_TYPES.get(type);
             } else {
-                jsonSchema.type = List.of(type);
+                jsonSchema.type = TYPES.get(type);
             }
         }
-        setFormat(schema.getFormat(), jsonSchema, path);
+        setFormat(schema.getFormat(), jsonSchema);
 
         if (jsonSchemaDraft.compareTo(JsonSchemaDraft.v7) >= 0) {
             jsonSchema.readOnly = schema.getReadOnly();
@@ -154,44 +508,79 @@ public class Converter {
             jsonSchema.deprecated = schema.getDeprecated();
         }
 
-        jsonSchema.examples = convertExample(schema, path);
-        jsonSchema.enum_ = convertEnum(schema, path);
-        jsonSchema.default_ = schema.getDefault() != null
-                ? toJsonNode(schema.getDefault(), path.push("default"))
-                : null;
+        jsonSchema.examples = convertExample(schema, location);
+        jsonSchema.enum_ = convertEnum(schema, location);
+        if (schema.getDefault() != null) {
+            jsonSchema.default_ = toJsonNode(schema.getDefault(), location.push("default"));
+            location.pop();
+        }
 
         // Warnings
         if (schema.getExternalDocs() != null) {
-            warn(path, "'externalDocs' property at ignored: " + schema.getExternalDocs());
+            warn(location, "'externalDocs' property at ignored: " + schema.getExternalDocs());
         }
         if (schema.getXml() != null) {
-            warn(path, "'xml' property ignored");
+            warn(location, "'xml' property ignored");
         }
         if (schema.getExtensions() != null) {
-            warn(path, "'extensions' property ignored");
+            warn(location, "'extensions' property ignored");
         }
         if (schema.getDiscriminator() != null) {
             // TODO: can we do better?
-            warn(path, "'discriminator' property ignored");
+            warn(location, "'discriminator' property ignored");
         }
 
         return jsonSchema;
     }
 
-    private String mapReference(String $ref, JsonPath path) {
-        if ($ref == null) {
+    @SuppressWarnings("rawtypes")
+    private Map<String, JsonSchema> convertProperties(Map<String, Schema> properties, Location location) {
+        if (properties == null) {
             return null;
         }
 
-        // handle short ref
-        if (!$ref.contains(".") && !$ref.contains("/")) {
-            $ref = COMPONENTS_SCHEMAS_REF + $ref;
+        Map<String, JsonSchema> converted = newHashMap(properties.size());
+        for (Map.Entry<String, Schema> property : properties.entrySet()) {
+            JsonSchema jsonSchema = convert(property.getValue(), location, property.getKey());
+            if (jsonSchema != null) {
+                converted.put(property.getKey(), jsonSchema);
+            }
         }
+        return converted;
+    }
 
-        if ($ref.startsWith(COMPONENTS_SCHEMAS_REF)) {
-            String definitionsPath = isOrNewerThan2019_09() ? "#/$defs/" : "#/definitions/";
-            return definitionsPath + $ref.substring(COMPONENTS_SCHEMAS_REF.length());
+    /**
+     * Create a hash map with the table size it would grow to with {@code size} entries, so it is not resized while
+     * filling and iterates in the same order as a map with default capacity.
+     */
+    private static <K, V> Map<K, V> newHashMap(int size) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < size) {
+            capacity *= 2;
+        }
+        return new HashMap<>(capacity);
+    }
+
+    private boolean isIncluded(Schema<?> schema) {
+        if (!includeReadOnly && Boolean.TRUE.equals(schema.getReadOnly())) {
+            return false;
+        }
+        return includeWriteOnly || !Boolean.TRUE.equals(schema.getWriteOnly());
+    }
+
+    private String mapReference(String $ref, Location location) {
+        if ($ref == null) {
+            return null;
+        }
+
+        String reference = references.computeIfAbsent($ref, this::toDefinitionReference);
+        if (reference != null) {
+            if (stats != null) {
+                stats.referenceRewritten();
+            }
+            return reference;
         } else {
+            JsonPath path = location != null ? location.toJsonPath() : null;
             if (path != null) {
                 throw new IllegalArgumentException(
                         "At " + path + " reference outside of " + COMPONENTS_SCHEMAS_REF + "not supported: " + $ref);
@@ -202,36 +591,72 @@ public class Converter {
         }
     }
 
+    /**
+     * @return reference to the definition of a component schema or {@code null} if reference is not pointing to a
+     * component schema
+     */
+    private String toDefinitionReference(String $ref) {
+        String name = toComponentName($ref);
+        if (name == null) {
+            return null;
+        }
+        return (isOrNewerThan2019_09() ? "#/$defs/" : "#/definitions/") + name;
+    }
+
+    /**
+     * @return name of referenced component schema or {@code null} if reference is not pointing to a component schema
+     */
+    private static String toComponentName(String $ref) {
+        if ($ref == null) {
+            return null;
+        }
+
+        // handle short ref
+        if (!$ref.contains(".") && !$ref.contains("/")) {
+            return $ref;
+        }
+
+        if ($ref.startsWith(COMPONENTS_SCHEMAS_REF)) {
+            return $ref.substring(COMPONENTS_SCHEMAS_REF.length());
+        } else {
+            return null;
+        }
+    }
+
     private boolean isOrNewerThan2019_09() {
         return jsonSchemaDraft.compareTo(JsonSchemaDraft.v2019_09) >= 0;
     }
 
-    private List<JsonNode> convertEnum(Schema<?> schema, JsonPath path) {
-        if (schema.getEnum() == null) {
+    private List<JsonNode> convertEnum(Schema<?> schema, Location location) {
+        List<?> enumValues = schema.getEnum();
+        if (enumValues == null) {
             return null;
         }
 
-        JsonPath enumPath = path.push("enum");
-        List<JsonNode> values = IntStream
-                .range(0, schema.getEnum().size())
-                .mapToObj(i -> toJsonNode(schema.getEnum().get(i), enumPath.push(String.valueOf(i))))
-                .collect(toList());
+        List<JsonNode> values = new ArrayList<>(enumValues.size() + 1);
+        location.push("enum");
+        for (int i = 0; i < enumValues.size(); i++) {
+            values.add(toJsonNode(enumValues.get(i), location.push(i)));
+            location.pop();
+        }
+        location.pop();
         if (Boolean.TRUE.equals(schema.getNullable())) {
             values.add(NullNode.getInstance());
         }
         return values;
     }
 
-    private List<JsonNode> convertExample(Schema<?> schema, JsonPath path) {
+    private List<JsonNode> convertExample(Schema<?> schema, Location location) {
         if (!schema.getExampleSetFlag()) {
             return null;
         }
 
-        JsonNode exampleNode = toJsonNode(schema.getExample(), path.push("example"));
+        JsonNode exampleNode = toJsonNode(schema.getExample(), location.push("example"));
+        location.pop();
         return exampleNode == null ? null : List.of(exampleNode);
     }
 
-    private JsonNode toJsonNode(Object example, JsonPath path) {
+    private JsonNode toJsonNode(Object example, Location location) {
         if (example == null) {
             return NullNode.getInstance();
         } else if (example instanceof JsonNode) {
@@ -245,28 +670,32 @@ public class Converter {
         } else if (example instanceof Boolean) {
             return BooleanNode.valueOf((Boolean) example);
         } else {
-            warn(path, "value ignored because of internal error: unsupported example type: "
+            warn(location, "value ignored because of internal error: unsupported example type: "
                     + example.getClass().getName());
             return null;
         }
     }
 
-    private List<JsonSchema> convertSchemaList(@SuppressWarnings("rawtypes") List<Schema> schemaList, JsonPath path) {
+    private List<JsonSchema> convertSchemaList(
+            @SuppressWarnings("rawtypes") List<Schema> schemaList, Location location) {
         if (schemaList == null) {
             return null;
         }
 
-        return IntStream
-                .range(0, schemaList.size())
-                .mapToObj(i -> convert(schemaList.get(i), path.push(String.valueOf(i))))
-                .collect(toList());
+        List<JsonSchema> converted = new ArrayList<>(schemaList.size());
+        for (int i = 0; i < schemaList.size(); i++) {
+            converted.add(convert(schemaList.get(i), location.push(i)));
+            location.pop();
+        }
+        return converted;
     }
 
-    private void warn(JsonPath path, String message) {
-        warningsListener.accept(Message.warning(path, message));
+    private void warn(Location location, String message) {
+        warningsListener.accept(
+                Message.warning(location.toJsonPath(), message).withCategory(Message.Category.CONVERTER));
     }
 
-    private void setFormat(String format, JsonSchema schema, JsonPath path) {
+    private void setFormat(String format, JsonSchema schema) {
         if (format == null) {
             return;
         }
@@ -276,37 +705,37 @@ public class Converter {
         switch (format) {
             case "int32": {
                 if (schema.minimum == null) {
-                    schema.minimum = BigDecimal.valueOf(Integer.MIN_VALUE);
+                    schema.minimum = INT32_MINIMUM;
                 }
                 if (schema.maximum == null) {
-                    schema.maximum = BigDecimal.valueOf(Integer.MAX_VALUE);
+                    schema.maximum = INT32_MAXIMUM;
                 }
                 break;
             }
             case "int64": {
                 if (schema.minimum == null) {
-                    schema.minimum = BigDecimal.valueOf(Long.MIN_VALUE);
+                    schema.minimum = INT64_MINIMUM;
                 }
                 if (schema.maximum == null) {
-                    schema.maximum = BigDecimal.valueOf(Long.MAX_VALUE);
+                    schema.maximum = INT64_MAXIMUM;
                 }
                 break;
             }
             case "float": {
                 if (schema.minimum == null) {
-                    schema.minimum = BigDecimal.valueOf(-Float.MAX_VALUE);
+                    schema.minimum = FLOAT_MINIMUM;
                 }
                 if (schema.maximum == null) {
-                    schema.maximum = BigDecimal.valueOf(Float.MAX_VALUE);
+                    schema.maximum = FLOAT_MAXIMUM;
                 }
                 break;
             }
             case "double": {
                 if (schema.minimum == null) {
-                    schema.minimum = BigDecimal.valueOf(-Double.MAX_VALUE);
+                    schema.minimum = DOUBLE_MINIMUM;
                 }
                 if (schema.maximum == null) {
-                    schema.maximum = BigDecimal.valueOf(Double.MAX_VALUE);
+                    schema.maximum = DOUBLE_MAXIMUM;
                 }
                 break;
             }
@@ -323,4 +752,54 @@ public class Converter {
         }
     }
 
+    /**
+     * Path of the schema being converted. Unlike {@link JsonPath} it is mutable and does not allocate per level, a
+     * {@link JsonPath} is only created when a message needs it.
+     */
+    private static final class Location {
+        private final JsonPath root;
+        /**
+         * Names of the levels below the root, {@code null} for array indexes.
+         */
+        private String[] names = new String[8];
+        private int[] indexes = new int[8];
+        private int depth;
+
+        private Location(JsonPath root) {
+            this.root = root;
+        }
+
+        private Location push(String name) {
+            grow();
+            names[depth++] = name;
+            return this;
+        }
+
+        private Location push(int index) {
+            grow();
+            indexes[depth] = index;
+            names[depth++] = null;
+            return this;
+        }
+
+        private void pop() {
+            names[--depth] = null;
+        }
+
+        private void grow() {
+            if (depth == names.length) {
+                names = Arrays.copyOf(names, depth * 2);
+                indexes = Arrays.copyOf(indexes, depth * 2);
+            }
+        }
+
+        private JsonPath toJsonPath() {
+            JsonPath path = root;
+            for (int i = 0; i < depth; i++) {
+                String name = names[i] != null ? names[i] : String.valueOf(indexes[i]);
+                path = path != null ? path.push(name) : new JsonPath(name);
+            }
+            return path;
+        }
+    }
 }
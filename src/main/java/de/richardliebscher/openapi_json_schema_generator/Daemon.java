@@ -0,0 +1,310 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves generate requests over a loopback socket, so they run in a warm JVM.
+ *
+ * <p>Port and access token are written to a connection file, which only the owner can read. Every connection carries
+ * one {@link Request} followed by a {@link #STDIN} frame with the content of standard input. The response is a
+ * sequence of frames tagged with {@link #STDOUT} or {@link #STDERR}, terminated by {@link #EXIT} with the exit code.
+ * A frame is a type byte, a length and the data.
+ *
+ * <p>Client and protocol do not use Jackson, so the client starts fast.
+ */
+@RequiredArgsConstructor
+public class Daemon {
+    static final byte STDIN = 'i';
+    static final byte STDOUT = 'o';
+    static final byte STDERR = 'e';
+    static final byte EXIT = 'x';
+
+    private static final int REQUEST_TIMEOUT_MILLIS = 30_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ARGS = 10_000;
+    private static final int MAX_REQUEST_SIZE = 1024 * 1024;
+    private static final String PORT_PROPERTY = "port";
+    private static final String TOKEN_PROPERTY = "token";
+
+    private final Path connectionFile;
+    private final PrintStream log;
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".openapi-json-schema-generator", "daemon.properties");
+    }
+
+    /**
+     * Serve requests until a stop request is received.
+     *
+     * @return exit code
+     */
+    public int run() {
+        String token = createToken();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "daemon-request");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            writeConnectionFile(serverSocket.getLocalPort(), token);
+            log.println("Daemon listening on port " + serverSocket.getLocalPort());
+
+            while (true) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket, token, serverSocket));
+            }
+        } catch (SocketException exception) {
+            // closed by stop request
+            return 0;
+        } catch (IOException exception) {
+            log.println("Error: Daemon failed: " + exception.getMessage());
+            return 3;
+        } finally {
+            executor.shutdownNow();
+            try {
+                Files.deleteIfExists(connectionFile);
+            } catch (IOException exception) {
+                log.println("Failed to delete " + connectionFile + ": " + exception.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket, String token, ServerSocket serverSocket) {
+        try (socket) {
+            socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Request request = Request.read(input, token);
+            if (request == null) {
+                return; // not our client
+            }
+            byte[] stdin = readFrame(input, STDIN);
+            socket.setSoTimeout(0);
+
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (request.stop) {
+                writeExit(output, 0);
+                serverSocket.close();
+                return;
+            }
+
+            int exitCode;
+            try (PrintStream out = createPrintStream(output, STDOUT);
+                 PrintStream err = createPrintStream(output, STDERR)) {
+                Main main = new Main(new ByteArrayInputStream(stdin), out, err, Paths.get(request.workingDirectory));
+                exitCode = Main.execute(main, request.args.toArray(new String[0]));
+            }
+            writeExit(output, exitCode);
+        } catch (IOException exception) {
+            log.println("Request failed: " + exception.getMessage());
+        }
+    }
+
+    private static PrintStream createPrintStream(DataOutputStream output, byte type) {
+        return new PrintStream(
+                new BufferedOutputStream(new FrameOutputStream(output, type), BUFFER_SIZE), false, StandardCharsets.UTF_8);
+    }
+
+    static byte[] readFrame(DataInputStream input, byte type) throws IOException {
+        byte actualType = input.readByte();
+        int length = input.readInt();
+        if (actualType != type || length < 0) {
+            throw new IOException("Invalid frame");
+        }
+        byte[] data = new byte[length];
+        input.readFully(data);
+        return data;
+    }
+
+    static void writeFrame(DataOutputStream output, byte type, byte[] data, int offset, int length)
+            throws IOException {
+        output.writeByte(type);
+        output.writeInt(length);
+        output.write(data, offset, length);
+    }
+
+    private static void writeExit(DataOutputStream output, int exitCode) throws IOException {
+        synchronized (output) {
+            output.writeByte(EXIT);
+            output.writeInt(exitCode);
+            output.flush();
+        }
+    }
+
+    /**
+     * @return port and token of the daemon
+     */
+    static Properties readConnectionFile(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    static int getPort(Properties connection) {
+        return Integer.parseInt(connection.getProperty(PORT_PROPERTY, "0"));
+    }
+
+    static String getToken(Properties connection) {
+        return connection.getProperty(TOKEN_PROPERTY, "");
+    }
+
+    private void writeConnectionFile(int port, String token) throws IOException {
+        Path directory = connectionFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Path tempFile = FileSystems.getDefault().supportedFileAttributeViews().contains("posix")
+                ? Files.createTempFile(directory, "daemon", ".tmp",
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+                : Files.createTempFile(directory, "daemon", ".tmp");
+        try {
+            Properties properties = new Properties();
+            properties.setProperty(PORT_PROPERTY, String.valueOf(port));
+            properties.setProperty(TOKEN_PROPERTY, token);
+            try (Writer writer = Files.newBufferedWriter(tempFile)) {
+                properties.store(writer, "openapi-json-schema-generator daemon");
+            }
+            Files.move(tempFile, connectionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static String createToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Hashes.toHex(bytes);
+    }
+
+    /**
+     * Request of a client.
+     */
+    @RequiredArgsConstructor
+    static final class Request {
+        final String token;
+        final boolean stop;
+        final String workingDirectory;
+        final List<String> args;
+
+        void write(DataOutputStream output) throws IOException {
+            output.writeUTF(token);
+            output.writeBoolean(stop);
+            output.writeUTF(workingDirectory);
+            output.writeInt(args.size());
+            for (String arg : args) {
+                output.writeUTF(arg);
+            }
+        }
+
+        /**
+         * Read a request, but only after the client sent the expected token.
+         *
+         * <p>The token is compared before anything else is read, and the rest of the request is limited to
+         * {@link #MAX_REQUEST_SIZE} bytes, so other clients can not make the daemon allocate much.
+         *
+         * @param expectedToken token of the daemon
+         * @return request or {@code null} when the token does not match
+         */
+        static Request read(DataInputStream input, String expectedToken) throws IOException {
+            byte[] expected = expectedToken.getBytes(StandardCharsets.UTF_8);
+            if (input.readUnsignedShort() != expected.length) {
+                return null;
+            }
+            byte[] actual = new byte[expected.length];
+            input.readFully(actual);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+
+            int[] remaining = { MAX_REQUEST_SIZE };
+            boolean stop = input.readBoolean();
+            String workingDirectory = readString(input, remaining);
+            int count = input.readInt();
+            if (count < 0 || count > MAX_ARGS) {
+                throw new IOException("Invalid request");
+            }
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                args.add(readString(input, remaining));
+            }
+            return new Request(expectedToken, stop, workingDirectory, args);
+        }
+
+        /**
+         * Read a string written with {@link DataOutputStream#writeUTF(String)} if it fits into the remaining size.
+         */
+        private static String readString(DataInputStream input, int[] remaining) throws IOException {
+            input.mark(2);
+            int length = input.readUnsignedShort();
+            input.reset();
+            remaining[0] -= length;
+            if (remaining[0] < 0) {
+                throw new IOException("Request too large");
+            }
+            return input.readUTF();
+        }
+    }
+
+    /**
+     * Sends written data as frames of one type. Standard output and error share the connection.
+     */
+    @RequiredArgsConstructor
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream output;
+        private final byte type;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (output) {
+                writeFrame(output, type, bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (output) {
+                output.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // keep connection open for exit code
+            flush();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * Forwards a command line to a running {@link Daemon}.
+ */
+@RequiredArgsConstructor
+public class DaemonClient {
+    private static final byte[] NO_DATA = new byte[0];
+
+    private final Path connectionFile;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * Stop the daemon of the connection file.
+     *
+     * @return exit code
+     */
+    public static int stop(Path connectionFile, PrintStream err) {
+        Integer exitCode = new DaemonClient(connectionFile, InputStream.nullInputStream(), err, err)
+                .send(token -> new Daemon.Request(token, true, "", List.of()), NO_DATA);
+        if (exitCode == null) {
+            err.println("No daemon running");
+            return 1;
+        }
+        return exitCode;
+    }
+
+    /**
+     * Run command line in the daemon.
+     *
+     * @param readStdin whether to forward standard input
+     * @return exit code or {@code null} when no daemon is running
+     */
+    public Integer run(List<String> args, boolean readStdin) {
+        byte[] stdin;
+        try {
+            stdin = readStdin ? in.readAllBytes() : NO_DATA;
+        } catch (IOException exception) {
+            err.println("Error: Failed to read standard input: " + exception.getMessage());
+            return 2;
+        }
+
+        String workingDirectory = Paths.get("").toAbsolutePath().toString();
+        return send(token -> new Daemon.Request(token, false, workingDirectory, args), stdin);
+    }
+
+    private Integer send(Function<String, Daemon.Request> requestFactory, byte[] stdin) {
+        Properties connection;
+        try {
+            connection = Daemon.readConnectionFile(connectionFile);
+        } catch (NoSuchFileException exception) {
+            return null;
+        } catch (IOException exception) {
+            err.println("Failed to read " + connectionFile + ": " + exception.getMessage());
+            return null;
+        }
+
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), Daemon.getPort(connection));
+        } catch (IOException exception) {
+            return null; // not running anymore
+        }
+
+        try (socket) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            requestFactory.apply(Daemon.getToken(connection)).write(output);
+            Daemon.writeFrame(output, Daemon.STDIN, stdin, 0, stdin.length);
+            output.flush();
+
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                byte type = input.readByte();
+                if (type == Daemon.EXIT) {
+                    out.flush();
+                    err.flush();
+                    return input.readInt();
+                }
+
+                byte[] data = new byte[input.readInt()];
+                input.readFully(data);
+                (type == Daemon.STDERR ? err : out).write(data);
+            }
+        } catch (EOFException exception) {
+            err.println("Error: Daemon closed connection");
+            return 5;
+        } catch (IOException exception) {
+            err.println("Error: Daemon request failed: " + exception.getMessage());
+            return 5;
+        }
+    }
+}
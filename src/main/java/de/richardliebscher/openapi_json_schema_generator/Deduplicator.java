@@ -0,0 +1,246 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import lombok.RequiredArgsConstructor;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Moves inline schemas which occur more than once into shared definitions.
+ *
+ * <p>Schemas are compared structurally by a hash over their compact JSON with sorted map keys. Repeated inline schemas
+ * of at least {@link #minSize} bytes are replaced by references to a new definition named after the hash, so names
+ * only depend on the content. Inline schemas equal to an existing definition are replaced by references to it.
+ * Repeated schemas inside repeated schemas are only counted once, they are only moved when they are still repeated
+ * after moving the outer schema.
+ */
+@RequiredArgsConstructor
+public class Deduplicator {
+    private static final String NAME_PREFIX = "Shared_";
+    private static final int NAME_HASH_LENGTH = 12;
+
+    /**
+     * Minimum size of the compact JSON of a schema to move it into a definition.
+     */
+    private final int minSize;
+
+    private final ObjectWriter writer = OutputFormat.COMPACT_JSON.getObjectMapper()
+            .writer()
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    /**
+     * Deduplicate definitions of a schema created by {@link Converter#bundle(Map, String)} in place.
+     */
+    public void deduplicate(JsonSchema root) {
+        if (root.$defs != null) {
+            new Run(root.$defs, "#/$defs/").deduplicate();
+        } else if (root.definitions != null) {
+            new Run(root.definitions, "#/definitions/").deduplicate();
+        }
+    }
+
+    private static final class Shape {
+        private final String hash;
+        private final int size;
+        /**
+         * Stands in for subschemas of this shape when hashing the parent schema.
+         */
+        private final JsonSchema placeholder = new JsonSchema();
+        /**
+         * Number of inline occurrences.
+         */
+        private int occurrences;
+        /**
+         * Number of inline occurrences outside of other moved schemas.
+         */
+        private int remainingOccurrences;
+        /**
+         * Name of existing definition with this shape.
+         */
+        private String definitionName;
+        /**
+         * Name of created definition.
+         */
+        private String sharedName;
+
+        private Shape(String hash, int size) {
+            this.hash = hash;
+            this.size = size;
+            placeholder.$ref = hash;
+        }
+    }
+
+    private final class Run {
+        private final Map<String, JsonSchema> definitions;
+        private final String referencePrefix;
+        private final Map<JsonSchema, Shape> shapesBySchema = new IdentityHashMap<>();
+        private final Map<String, Shape> shapesByHash = new HashMap<>();
+        private final MessageDigest digest = Hashes.sha256();
+        private final int placeholderSize;
+
+        private Run(Map<String, JsonSchema> definitions, String referencePrefix) {
+            this.definitions = definitions;
+            this.referencePrefix = referencePrefix;
+            String hash = Hashes.toHex(new byte[digest.getDigestLength()]);
+            placeholderSize = serialize(new Shape(hash, 0).placeholder).length;
+        }
+
+        private void deduplicate() {
+            List<Map.Entry<String, JsonSchema>> roots = new ArrayList<>(definitions.entrySet());
+            for (Map.Entry<String, JsonSchema> root : roots) {
+                Shape shape = hash(root.getValue());
+                if (shape != null && shape.definitionName == null) {
+                    shape.definitionName = root.getKey();
+                }
+            }
+            for (Map.Entry<String, JsonSchema> root : roots) {
+                forEachChild(root.getValue(), this::countRemaining);
+            }
+            for (Map.Entry<String, JsonSchema> root : roots) {
+                mapChildren(root.getValue(), this::replace);
+            }
+        }
+
+        /**
+         * Compute shapes of a schema and its subschemas and count inline occurrences of subschemas.
+         */
+        private Shape hash(JsonSchema schema) {
+            if (schema == null) {
+                return null;
+            }
+
+            // serialize without subschemas, which are represented by their hashes
+            Deque<JsonSchema> children = new ArrayDeque<>();
+            int[] childrenSize = {0};
+            mapChildren(schema, child -> {
+                Shape shape = hash(child);
+                shape.occurrences++;
+                children.add(child);
+                childrenSize[0] += shape.size - placeholderSize;
+                return shape.placeholder;
+            });
+            byte[] json = serialize(schema);
+            mapChildren(schema, placeholder -> children.removeFirst());
+
+            String hash = Hashes.toHex(digest.digest(json));
+            Shape shape = shapesByHash.computeIfAbsent(hash, h -> new Shape(h, json.length + childrenSize[0]));
+            shapesBySchema.put(schema, shape);
+            return shape;
+        }
+
+        private void countRemaining(JsonSchema schema) {
+            Shape shape = shapesBySchema.get(schema);
+            if (shape.size >= minSize) {
+                if (shape.definitionName != null) {
+                    return; // subschemas are counted in the definition
+                }
+                if (shape.occurrences > 1 && ++shape.remainingOccurrences > 1) {
+                    return; // subschemas are counted in the first occurrence
+                }
+            }
+            forEachChild(schema, this::countRemaining);
+        }
+
+        private JsonSchema replace(JsonSchema schema) {
+            Shape shape = shapesBySchema.get(schema);
+            if (shape.size >= minSize) {
+                if (shape.definitionName != null) {
+                    return reference(shape.definitionName);
+                }
+                if (shape.remainingOccurrences > 1) {
+                    if (shape.sharedName == null) {
+                        shape.sharedName = sharedName(shape.hash);
+                        definitions.put(shape.sharedName, schema);
+                        mapChildren(schema, this::replace);
+                    }
+                    return reference(shape.sharedName);
+                }
+            }
+            mapChildren(schema, this::replace);
+            return schema;
+        }
+
+        private JsonSchema reference(String name) {
+            JsonSchema reference = new JsonSchema();
+            reference.$ref = referencePrefix + name;
+            return reference;
+        }
+
+        private String sharedName(String hash) {
+            for (int length = NAME_HASH_LENGTH; ; length += 4) {
+                String name = NAME_PREFIX + hash.substring(0, Math.min(length, hash.length()));
+                if (!definitions.containsKey(name) || length >= hash.length()) {
+                    return name;
+                }
+            }
+        }
+
+        private byte[] serialize(JsonSchema schema) {
+            try {
+                return writer.writeValueAsBytes(schema);
+            } catch (JsonProcessingException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    private static void forEachChild(JsonSchema schema, Consumer<JsonSchema> consumer) {
+        mapChildren(schema, child -> {
+            consumer.accept(child);
+            return child;
+        });
+    }
+
+    /**
+     * Replace all direct subschemas of a schema, always in the same order. Definitions are not subschemas.
+     */
+    private static void mapChildren(JsonSchema schema, UnaryOperator<JsonSchema> mapper) {
+        schema.not = mapChild(schema.not, mapper);
+        schema.allOf = mapChildren(schema.allOf, mapper);
+        schema.anyOf = mapChildren(schema.anyOf, mapper);
+        schema.oneOf = mapChildren(schema.oneOf, mapper);
+        schema.if_ = mapChild(schema.if_, mapper);
+        schema.then = mapChild(schema.then, mapper);
+        schema.else_ = mapChild(schema.else_, mapper);
+        schema.properties = mapChildren(schema.properties, mapper);
+        if (schema.additionalProperties instanceof JsonSchema) {
+            schema.additionalProperties = mapper.apply((JsonSchema) schema.additionalProperties);
+        }
+        schema.propertyNames = mapChild(schema.propertyNames, mapper);
+        schema.patternProperties = mapChildren(schema.patternProperties, mapper);
+        schema.items = mapChild(schema.items, mapper);
+        schema.contains = mapChild(schema.contains, mapper);
+    }
+
+    private static JsonSchema mapChild(JsonSchema schema, UnaryOperator<JsonSchema> mapper) {
+        return schema != null ? mapper.apply(schema) : null;
+    }
+
+    private static List<JsonSchema> mapChildren(List<JsonSchema> schemas, UnaryOperator<JsonSchema> mapper) {
+        if (schemas != null) {
+            schemas.replaceAll(schema -> mapChild(schema, mapper));
+        }
+        return schemas;
+    }
+
+    private static Map<String, JsonSchema> mapChildren(
+            Map<String, JsonSchema> schemas, UnaryOperator<JsonSchema> mapper) {
+        if (schemas != null) {
+            schemas.replaceAll((name, schema) -> mapChild(schema, mapper));
+        }
+        return schemas;
+    }
+}
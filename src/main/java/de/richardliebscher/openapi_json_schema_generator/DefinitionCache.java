@@ -0,0 +1,282 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * On-disk cache of converted and serialized definitions.
+ *
+ * <p>Entries are keyed by a hash of the unparsed source of the component schema, its name, the converter options and
+ * the tool version. A conversion only depends on these, because references are mapped by name and not resolved. So
+ * unchanged component schemas do not even need to be parsed. Entries contain the compact JSON of the definition, the
+ * warnings of its conversion and the referenced component schemas.
+ *
+ * <p>The cache can be shared by several processes: entries are written to a temporary file and atomically moved into
+ * place, so readers never see partial entries. Entries which can not be read are treated as missing. Reading an entry
+ * updates its modification time and {@link #evict()} removes least recently used entries until the cache fits into
+ * its size limit.
+ */
+@RequiredArgsConstructor
+public class DefinitionCache {
+    private static final int FORMAT_VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Duration STALE_TEMP_FILE_AGE = Duration.ofHours(1);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path directory;
+    private final long maxSize;
+    /**
+     * Version of the tool, entries of other versions are not used.
+     */
+    private final String version;
+
+    private final AtomicBoolean storeFailureReported = new AtomicBoolean();
+
+    /**
+     * Cached definition.
+     */
+    @RequiredArgsConstructor
+    public static final class Entry {
+        public final List<Message> messages;
+        /**
+         * Component schemas referenced by the definition, see {@link Converter#referencedDefinitions(Schema)}.
+         */
+        public final List<String> references;
+        /**
+         * Compact JSON of the converted definition.
+         */
+        public final byte[] definition;
+    }
+
+    /**
+     * Compute the cache key of a component schema.
+     *
+     * @param openApiVersion value of {@code openapi} of the document, the parser interprets the same schema
+     *                       differently for OpenAPI 3.0 and 3.1
+     */
+    public String key(Converter converter, String openApiVersion, String name, JsonNode source) {
+        String options = FORMAT_VERSION + "\0" + version + "\0" + converter.getJsonSchemaDraft().id
+                + "\0" + converter.isIncludeReadOnly() + "\0" + converter.isIncludeWriteOnly() + "\0" + openApiVersion
+                + "\0" + name + "\0";
+        try {
+            return Hashes.sha256Hex(options.getBytes(StandardCharsets.UTF_8), OBJECT_MAPPER.writeValueAsBytes(source));
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public boolean contains(String key) {
+        return Files.isRegularFile(entryPath(key));
+    }
+
+    /**
+     * @return cached entry or {@code null} when missing or unreadable
+     */
+    public Entry load(String key) {
+        Path path = entryPath(key);
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(Files.readAllBytes(path));
+        } catch (IOException exception) {
+            return null;
+        }
+        if (node == null || node.path("version").asInt() != FORMAT_VERSION || !node.path("definition").isTextual()) {
+            return null;
+        }
+
+        List<Message> messages = new ArrayList<>();
+        for (JsonNode message : node.path("messages")) {
+            Message.Severity severity = toEnum(Message.Severity.class, message.path("severity").asText());
+            Message.Category category = toEnum(Message.Category.class, message.path("category").asText());
+            if (severity == null || category == null) {
+                return null;
+            }
+            messages.add(new Message(
+                    severity,
+                    category,
+                    toPath(message.get("path")),
+                    message.path("message").asText(),
+                    null));
+        }
+        List<String> references = new ArrayList<>();
+        node.path("references").forEach(reference -> references.add(reference.asText()));
+
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException ignored) {
+            // only affects eviction order
+        }
+        return new Entry(messages, references, node.get("definition").textValue().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Store entry. Failures are reported once as warning and otherwise ignored.
+     */
+    public void store(String key, Entry entry, Consumer<Message> warningsListener) {
+        ObjectNode node = OBJECT_MAPPER.createObjectNode();
+        node.put("version", FORMAT_VERSION);
+        ArrayNode messages = node.putArray("messages");
+        for (Message message : entry.messages) {
+            ObjectNode messageNode = messages.addObject();
+            messageNode.put("severity", message.severity.name());
+            messageNode.put("category", message.category.name());
+            if (message.path != null) {
+                ArrayNode path = messageNode.putArray("path");
+                message.path.names().forEach(path::add);
+            }
+            messageNode.put("message", message.message);
+        }
+        ArrayNode references = node.putArray("references");
+        entry.references.forEach(references::add);
+        node.put("definition", new String(entry.definition, StandardCharsets.UTF_8));
+
+        Path path = entryPath(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path tempFile = Files.createTempFile(path.getParent(), key, TEMP_SUFFIX);
+            try {
+                OBJECT_MAPPER.writeValue(tempFile.toFile(), node);
+                move(tempFile, path);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException exception) {
+            if (storeFailureReported.compareAndSet(false, true)) {
+                warningsListener.accept(
+                        Message.warning("Failed to write cache entry " + path + ": " + exception.getMessage())
+                                .withCategory(Message.Category.CACHE));
+            }
+        }
+    }
+
+    /**
+     * Remove least recently used entries until the cache fits into its size limit. Also removes temporary files left
+     * behind by killed processes.
+     */
+    public void evict() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        Instant staleTempFiles = Instant.now().minus(STALE_TEMP_FILE_AGE);
+        List<CachedFile> entries = new ArrayList<>();
+        long size = 0;
+        for (Path file : listFiles(directory)) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (NoSuchFileException exception) {
+                continue; // removed by another process
+            }
+            if (!attributes.isRegularFile()) {
+                continue;
+            }
+
+            String fileName = file.getFileName().toString();
+            if (fileName.endsWith(TEMP_SUFFIX)) {
+                if (attributes.lastModifiedTime().toInstant().isBefore(staleTempFiles)) {
+                    Files.deleteIfExists(file);
+                }
+            } else if (fileName.endsWith(ENTRY_SUFFIX)) {
+                entries.add(new CachedFile(file, attributes.lastModifiedTime(), attributes.size()));
+                size += attributes.size();
+            }
+        }
+
+        if (size <= maxSize) {
+            return;
+        }
+
+        entries.sort(Comparator.comparing(entry -> entry.lastModified));
+        for (CachedFile entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            Files.deleteIfExists(entry.path);
+            size -= entry.size;
+        }
+    }
+
+    /**
+     * @return files in the subdirectories of the cache directory
+     */
+    private static List<Path> listFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> subdirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path subdirectory : subdirectories) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(subdirectory)) {
+                    entries.forEach(files::add);
+                } catch (NoSuchFileException exception) {
+                    // removed by another process
+                }
+            }
+        }
+        return files;
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static <T extends Enum<T>> T toEnum(Class<T> type, String name) {
+        for (T value : type.getEnumConstants()) {
+            if (value.name().equals(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static JsonPath toPath(JsonNode names) {
+        if (names == null || !names.isArray() || names.isEmpty()) {
+            return null;
+        }
+
+        JsonPath path = new JsonPath(names.get(0).asText());
+        for (int i = 1; i < names.size(); i++) {
+            path = path.push(names.get(i).asText());
+        }
+        return path;
+    }
+
+    @RequiredArgsConstructor
+    private static final class CachedFile {
+        private final Path path;
+        private final FileTime lastModified;
+        private final long size;
+    }
+}
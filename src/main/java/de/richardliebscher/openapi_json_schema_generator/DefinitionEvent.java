@@ -0,0 +1,19 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the conversion of a single component schema.
+ */
+@Name("de.richardliebscher.openapi_json_schema_generator.Definition")
+@Label("Definition")
+@Category("OpenAPI JSON Schema Generator")
+@Description("Conversion of a component schema into a definition")
+final class DefinitionEvent extends Event {
+    @Label("Name")
+    String name;
+}
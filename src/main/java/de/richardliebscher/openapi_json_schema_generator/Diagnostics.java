@@ -0,0 +1,275 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Writes messages as text or JSON lines on a background thread, so producers do not wait for formatting and
+ * flushing.
+ *
+ * <p>Errors and infos are always written. Warnings can be written one by one, aggregated or dropped. Aggregated warnings with the
+ * same severity, category, source and text are written once on {@link #close()}, with their count and the first
+ * {@link #SAMPLE_PATHS} paths. Paths of dropped or aggregated messages are never turned into strings.
+ */
+public final class Diagnostics implements Consumer<Message>, AutoCloseable {
+    static final int SAMPLE_PATHS = 3;
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    public enum Format {
+        /**
+         * One line per message: {@code [SOURCE: ][PATH: ]MESSAGE}
+         */
+        text,
+        /**
+         * One JSON object per line
+         */
+        json
+    }
+
+    public enum Warnings {
+        all, summary, none
+    }
+
+    private final Format format;
+    private final Warnings warnings;
+    private final Writer writer;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<AggregateKey, Aggregate> aggregates = new LinkedHashMap<>();
+    private final Thread thread;
+    private boolean closed;
+
+    public Diagnostics(OutputStream outputStream, Format format, Warnings warnings) {
+        this.format = format;
+        this.warnings = warnings;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.thread = new Thread(this::writeQueued, "diagnostics");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void accept(Message message) {
+        if (message.severity != Message.Severity.WARNING || warnings == Warnings.all) {
+            enqueue(message);
+        } else if (warnings == Warnings.summary) {
+            synchronized (aggregates) {
+                aggregates.computeIfAbsent(new AggregateKey(message), key -> new Aggregate(message)).add(message);
+            }
+        }
+    }
+
+    /**
+     * Wait until all messages written so far are written out, e.g. before writing to the same stream directly.
+     * Aggregated warnings are only written on {@link #close()}.
+     */
+    public void flush() {
+        CountDownLatch flushed = new CountDownLatch(1);
+        enqueue(flushed);
+        try {
+            while (!flushed.await(100, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write aggregated warnings and wait until everything is written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        List<Aggregate> summary;
+        synchronized (aggregates) {
+            summary = new ArrayList<>(aggregates.values());
+            aggregates.clear();
+        }
+        summary.forEach(this::enqueue);
+        flush();
+        thread.interrupt();
+    }
+
+    private void enqueue(Object item) {
+        if (!thread.isAlive()) {
+            return; // failed to write, see writeQueued
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeQueued() {
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item instanceof CountDownLatch) {
+                    writer.flush();
+                    ((CountDownLatch) item).countDown();
+                    continue;
+                }
+
+                if (item instanceof Aggregate) {
+                    write((Aggregate) item);
+                } else {
+                    write((Message) item, null, 1);
+                }
+                if (queue.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (InterruptedException exception) {
+            // closed
+        } catch (IOException exception) {
+            // like PrintStream, ignore failures of the diagnostics stream itself. Release waiting producers.
+            for (Object item : queue) {
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                }
+            }
+            queue.clear();
+        }
+    }
+
+    private void write(Aggregate aggregate) throws IOException {
+        if (aggregate.count == 1) {
+            write(aggregate.message, null, 1);
+        } else {
+            write(aggregate.message, aggregate.samplePaths, aggregate.count);
+        }
+    }
+
+    private void write(Message message, List<JsonPath> samplePaths, long count) throws IOException {
+        if (format == Format.json) {
+            writeJson(message, samplePaths, count);
+        } else {
+            writeText(message, samplePaths, count);
+        }
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeText(Message message, List<JsonPath> samplePaths, long count) throws IOException {
+        if (message.source != null) {
+            writer.write(message.source);
+            writer.write(": ");
+        }
+        if (samplePaths == null) {
+            if (message.path != null) {
+                writer.write(message.path.toString());
+                writer.write(": ");
+            }
+            writer.write(message.message);
+        } else {
+            writer.write(message.message);
+            writer.write(" (" + count + " times");
+            if (!samplePaths.isEmpty()) {
+                writer.write(", e.g. at ");
+                writer.write(samplePaths.stream().map(JsonPath::toString).collect(Collectors.joining(", ")));
+            }
+            writer.write(")");
+        }
+    }
+
+    private void writeJson(Message message, List<JsonPath> samplePaths, long count) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("severity", message.severity.name().toLowerCase());
+            generator.writeStringField("category", message.category.name().toLowerCase());
+            if (message.source != null) {
+                generator.writeStringField("source", message.source);
+            }
+            if (samplePaths == null) {
+                if (message.path != null) {
+                    generator.writeStringField("path", message.path.toString());
+                }
+            } else {
+                generator.writeNumberField("count", count);
+                generator.writeArrayFieldStart("samplePaths");
+                for (JsonPath path : samplePaths) {
+                    generator.writeString(path.toString());
+                }
+                generator.writeEndArray();
+            }
+            generator.writeStringField("message", message.message);
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class AggregateKey {
+        private final Message.Severity severity;
+        private final Message.Category category;
+        private final String source;
+        private final String message;
+
+        private AggregateKey(Message message) {
+            this.severity = message.severity;
+            this.category = message.category;
+            this.source = message.source;
+            this.message = message.message;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof AggregateKey)) {
+                return false;
+            }
+            AggregateKey key = (AggregateKey) other;
+            return severity == key.severity && category == key.category && Objects.equals(source, key.source)
+                    && message.equals(key.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(severity, category, source, message);
+        }
+    }
+
+    private static final class Aggregate {
+        private final Message message;
+        private final List<JsonPath> samplePaths = new ArrayList<>(SAMPLE_PATHS);
+        private long count;
+
+        private Aggregate(Message message) {
+            this.message = message;
+        }
+
+        private void add(Message message) {
+            count++;
+            if (message.path != null && samplePaths.size() < SAMPLE_PATHS) {
+                samplePaths.add(message.path);
+            }
+        }
+    }
+}
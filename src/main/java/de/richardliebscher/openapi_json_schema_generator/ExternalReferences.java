@@ -0,0 +1,332 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves references of component schemas to schemas in other local files, e.g. {@code schemas/order.yaml} or
+ * {@code common.yaml#/Money}.
+ *
+ * <p>Every referenced schema is copied into {@code components.schemas} of the document and the references are
+ * rewritten to it, so the rest of the pipeline only sees references to component schemas. Referenced files are read
+ * in parallel and every file is only read once, however often it is referenced. References inside of referenced files
+ * are relative to these files and are resolved the same way.
+ *
+ * <p>The name of a copied schema is the last segment of the JSON pointer of the reference or the file name without
+ * extension. Names which are already used get a numeric suffix. Names are assigned in order of the relative paths of
+ * the files and the pointers, so they do not depend on the order the files were read in.
+ */
+@RequiredArgsConstructor
+final class ExternalReferences {
+    private static final String COMPONENTS_SCHEMAS_REF = "#/components/schemas/";
+    private static final String COMPONENTS_SCHEMAS_POINTER = "/components/schemas/";
+
+    /**
+     * Keywords with values which are no schemas, so {@code $ref} inside of them is no reference.
+     */
+    private static final Set<String> VALUE_KEYWORDS = Set.of("example", "examples", "default", "enum", "const");
+
+    /**
+     * Keywords with maps from names to schemas, so their keys are no keywords.
+     */
+    private static final Set<String> SCHEMA_MAP_KEYWORDS = Set.of(
+            "properties", "patternProperties", "dependentSchemas", "definitions", "$defs");
+
+    /**
+     * File of the document or {@code null} for standard input, which resolves references relative to
+     * {@link #workingDirectory}.
+     */
+    private final Path documentFile;
+    /**
+     * Absolute directory which resolves references of standard input.
+     */
+    private final Path workingDirectory;
+    private final FileReader fileReader;
+    private final int parallelism;
+
+    interface FileReader {
+        JsonNode read(Path file) throws IOException;
+    }
+
+    /**
+     * Copy all referenced schemas of other files into the component schemas of the document.
+     *
+     * @throws IOException when a referenced file or schema could not be read
+     */
+    void resolve(ObjectNode document) throws IOException {
+        JsonNode schemas = document.path("components").path("schemas");
+        if (!schemas.isObject()) {
+            return;
+        }
+
+        Path root = documentFile != null ? documentFile.toAbsolutePath().normalize() : null;
+        Map<Path, JsonNode> files = new HashMap<>();
+        if (root != null) {
+            files.put(root, document);
+        }
+
+        // discover referenced schemas, file by file
+        Set<Target> targets = new LinkedHashSet<>();
+        List<Target> pending = new ArrayList<>(scan(schemas, root, root));
+        while (!pending.isEmpty()) {
+            Set<Path> missing = new LinkedHashSet<>();
+            for (Target target : pending) {
+                if (!files.containsKey(target.file)) {
+                    missing.add(target.file);
+                }
+            }
+            files.putAll(read(missing));
+
+            List<Target> next = new ArrayList<>();
+            for (Target target : pending) {
+                if (!targets.add(target) || isComponentSchema(target, root)) {
+                    continue;
+                }
+                for (Target referenced : scan(List.of(schema(files, target)), target.file, root)) {
+                    if (!targets.contains(referenced)) {
+                        next.add(referenced);
+                    }
+                }
+            }
+            pending = next;
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        // assign names independent of the order of discovery
+        Path baseDirectory = root != null ? root.getParent() : workingDirectory;
+        List<Target> sorted = new ArrayList<>(targets);
+        sorted.sort(Comparator
+                .comparing((Target target) -> relativePath(baseDirectory, target.file))
+                .thenComparing(target -> target.pointer));
+        Set<String> names = new HashSet<>();
+        schemas.fieldNames().forEachRemaining(names::add);
+        Map<Target, String> references = new HashMap<>();
+        Map<String, Target> copies = new LinkedHashMap<>();
+        for (Target target : sorted) {
+            if (isComponentSchema(target, root)) {
+                references.put(target, "#" + target.pointer);
+            } else {
+                String name = uniqueName(preferredName(target), names);
+                references.put(target, COMPONENTS_SCHEMAS_REF + name);
+                copies.put(name, target);
+            }
+        }
+
+        ObjectNode components = (ObjectNode) schemas;
+        Map<String, JsonNode> copied = new LinkedHashMap<>();
+        for (Map.Entry<String, Target> copy : copies.entrySet()) {
+            JsonNode schema = schema(files, copy.getValue()).deepCopy();
+            rewrite(List.of(schema), copy.getValue().file, root, references);
+            copied.put(copy.getKey(), schema);
+        }
+        rewrite(components, root, root, references);
+        components.setAll(copied);
+    }
+
+    private List<Target> scan(Iterable<JsonNode> schemas, Path file, Path root) {
+        List<Target> targets = new ArrayList<>();
+        visit(schemas, file, root, (node, target) -> targets.add(target));
+        return targets;
+    }
+
+    private void rewrite(Iterable<JsonNode> schemas, Path file, Path root, Map<Target, String> references) {
+        visit(schemas, file, root, (node, target) -> node.put("$ref", references.get(target)));
+    }
+
+    /**
+     * @param schemas schemas to visit, e.g. the values of {@code components.schemas}
+     */
+    private void visit(Iterable<JsonNode> schemas, Path file, Path root, ReferenceVisitor visitor) {
+        List<JsonNode> pending = new ArrayList<>();
+        schemas.forEach(pending::add);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.remove(pending.size() - 1);
+            if (node.isArray()) {
+                node.forEach(pending::add);
+            } else if (node.isObject()) {
+                JsonNode $ref = node.get("$ref");
+                if ($ref != null && $ref.isTextual()) {
+                    Target target = toTarget($ref.textValue(), file, root);
+                    if (target != null) {
+                        visitor.visit((ObjectNode) node, target);
+                    }
+                }
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (SCHEMA_MAP_KEYWORDS.contains(field.getKey()) && field.getValue().isObject()) {
+                        // property names like "default" are no keywords
+                        field.getValue().forEach(pending::add);
+                    } else if (!VALUE_KEYWORDS.contains(field.getKey()) && !field.getKey().startsWith("x-")) {
+                        pending.add(field.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param file file containing the reference, {@code null} for standard input
+     * @return referenced schema or {@code null} when the reference is not resolved here, e.g. references to component
+     * schemas of the document or URLs
+     */
+    private Target toTarget(String $ref, Path file, Path root) {
+        int hash = $ref.indexOf('#');
+        String location = hash >= 0 ? $ref.substring(0, hash) : $ref;
+        String pointer = hash >= 0 ? $ref.substring(hash + 1) : "";
+
+        if (location.isEmpty()) {
+            boolean document = file == null || file.equals(root);
+            return document ? null : new Target(file, pointer);
+        }
+        if (location.contains(":/") || (!location.contains(".") && !location.contains("/"))) {
+            // URL or short reference to a component schema
+            return null;
+        }
+
+        try {
+            Path directory = file != null ? file.getParent() : workingDirectory;
+            return new Target(directory.resolve(location).normalize(), pointer);
+        } catch (InvalidPathException exception) {
+            return null;
+        }
+    }
+
+    private static boolean isComponentSchema(Target target, Path root) {
+        return target.file.equals(root)
+                && target.pointer.startsWith(COMPONENTS_SCHEMAS_POINTER)
+                && target.pointer.indexOf('/', COMPONENTS_SCHEMAS_POINTER.length()) < 0;
+    }
+
+    private static JsonNode schema(Map<Path, JsonNode> files, Target target) throws IOException {
+        JsonNode schema;
+        try {
+            schema = files.get(target.file).at(target.pointer);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Invalid reference " + target + ": " + exception.getMessage());
+        }
+        if (!schema.isObject()) {
+            throw new IOException("Referenced schema not found: " + target);
+        }
+        return schema;
+    }
+
+    private Map<Path, JsonNode> read(Set<Path> files) throws IOException {
+        Map<Path, JsonNode> read = new HashMap<>();
+        if (parallelism <= 1 || files.size() <= 1) {
+            for (Path file : files) {
+                read.put(file, readFile(file));
+            }
+            return read;
+        }
+
+        List<Callable<JsonNode>> tasks = new ArrayList<>();
+        files.forEach(file -> tasks.add(() -> readFile(file)));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Iterator<Path> names = files.iterator();
+            for (Future<JsonNode> future : pool.invokeAll(tasks)) {
+                read.put(names.next(), future.get());
+            }
+            return read;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading referenced files", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
+            throw new IllegalStateException("Reading referenced files failed unexpectedly", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private JsonNode readFile(Path file) throws IOException {
+        JsonNode node;
+        try {
+            node = fileReader.read(file);
+        } catch (IOException exception) {
+            throw new IOException("Failed to read referenced file " + file + ": " + exception.getMessage(), exception);
+        }
+        if (node == null) {
+            throw new IOException("Referenced file is empty: " + file);
+        }
+        return node;
+    }
+
+    private static String preferredName(Target target) {
+        if (!target.pointer.isEmpty()) {
+            String segment = target.pointer.substring(target.pointer.lastIndexOf('/') + 1);
+            if (!segment.isEmpty()) {
+                // a slash would make the reference to the copy a nested pointer
+                return segment.replace("~1", "_").replace("~0", "~");
+            }
+        }
+
+        String name = target.file.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    private static String uniqueName(String name, Set<String> names) {
+        String unique = name;
+        for (int i = 2; !names.add(unique); i++) {
+            unique = name + "_" + i;
+        }
+        return unique;
+    }
+
+    private static String relativePath(Path baseDirectory, Path file) {
+        try {
+            return baseDirectory.relativize(file).toString().replace('\\', '/');
+        } catch (IllegalArgumentException exception) {
+            // different roots
+            return file.toString().replace('\\', '/');
+        }
+    }
+
+    private interface ReferenceVisitor {
+        void visit(ObjectNode node, Target target);
+    }
+
+    /**
+     * Schema in a file, identified by a JSON pointer.
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Target {
+        private final Path file;
+        private final String pointer;
+
+        @Override
+        public String toString() {
+            return file + "#" + pointer;
+        }
+    }
+}
@@ -1,75 +1,220 @@
 package de.richardliebscher.openapi_json_schema_generator;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
-import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.parser.ObjectMapperFactory;
-import io.swagger.v3.parser.core.models.ParseOptions;
-import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.io.IOUtils;
+import lombok.With;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.function.Consumer;
 
 @RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class GenerateCommand {
     private final String input;
     private final String mainSchema;
     private final InputStream inputStream;
+    @With(AccessLevel.PRIVATE)
     private final OutputStream outputStream;
+    @With(AccessLevel.PRIVATE)
     private final Converter converter;
     private final Consumer<Message> warningsListener;
 
+    /**
+     * Write every definition as soon as it is converted instead of building the whole schema first.
+     */
+    @With
+    private boolean streaming = false;
+
+    /**
+     * Reuse unchanged definitions from this cache. Implies streaming.
+     */
+    @With
+    private DefinitionCache cache = null;
+
+    /**
+     * Collects phase timings and counters or {@code null}, see {@link Stats}.
+     */
+    @With
+    private Stats stats = null;
+
+    /**
+     * Moves repeated inline schemas into shared definitions or {@code null}. Not supported for streaming output.
+     */
+    @With
+    private Deduplicator deduplicator = null;
+
+    @With
+    private OutputFormat outputFormat = OutputFormat.JSON;
+
+    /**
+     * Read only the component schemas of local specifications, see {@link SpecReader#withSchemasOnly(boolean)}.
+     */
+    @With
+    private boolean schemasOnly = false;
+
+    /**
+     * Directory which resolves references of standard input, see {@link SpecReader#withWorkingDirectory(Path)}.
+     */
+    @With
+    private Path workingDirectory = null;
+
     public int run() {
-        ParseOptions parseOptions = new ParseOptions();
-        parseOptions.setResolveCombinators(false);
-        parseOptions.setFlatten(false);
-
-        SwaggerParseResult result;
-        if (input.equals("-")) {
-            try {
-                result = new OpenAPIParser()
-                        .readContents(IOUtils.toString(inputStream, StandardCharsets.UTF_8), null, parseOptions);
-            } catch (IOException exception) {
-                warningsListener.accept(
-                        Message.error("Failed to read OpenAPI spec"));
-                return 2;
-            }
-        } else {
-            result = new OpenAPIParser()
-                    .readLocation(input, null, parseOptions);
+        if (stats == null) {
+            return generate();
         }
 
-        if (result.getMessages() != null) {
-            result.getMessages().forEach(
-                    w -> warningsListener.accept(Message.warning(w)));
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        try {
+            return withOutputStream(countingOutputStream)
+                    .withConverter(converter.withStats(stats))
+                    .generate();
+        } finally {
+            stats.addOutputBytes(countingOutputStream.getByteCount());
         }
+    }
 
-        OpenAPI openAPI = result.getOpenAPI();
-        if (openAPI == null) {
+    private int generate() {
+        SpecReader specReader = new SpecReader(warningsListener)
+                .withSchemasOnly(schemasOnly)
+                .withParallelism(converter.getParallelism())
+                .withWorkingDirectory(workingDirectory);
+        if (cache != null) {
+            if (SpecReader.isLocal(input)) {
+                return writeCached(specReader);
+            }
             warningsListener.accept(
-                    Message.error("Failed to parse OpenAPI spec"));
+                    Message.warning("Cache is only used for local files and standard input")
+                            .withCategory(Message.Category.CACHE));
+        }
+
+        OpenAPI openAPI;
+        try (Stats.Phase ignored = startPhase(Stats.PARSE)) {
+            openAPI = specReader.read(input, inputStream);
+        }
+        if (openAPI == null) {
             return 2;
         }
 
-        JsonSchema jsonSchema = converter.convert(openAPI.getComponents(), mainSchema);
+        if (streaming || cache != null) {
+            return writeStreaming(openAPI.getComponents());
+        }
+
+        Object jsonSchema;
+        try (Stats.Phase ignored = startPhase(Stats.CONVERT)) {
+            if (deduplicator != null) {
+                // deduplication rewrites the schema tree in place
+                JsonSchema schema = converter.convert(openAPI.getComponents(), mainSchema);
+                deduplicator.deduplicate(schema);
+                jsonSchema = schema;
+            } else {
+                jsonSchema = converter.convertCompact(openAPI.getComponents(), mainSchema);
+            }
+        }
 
         // print
-        ObjectWriter objectWriter = ObjectMapperFactory.createJson()
-                .writerWithDefaultPrettyPrinter();
-        try {
+        ObjectWriter objectWriter = outputFormat.getWriter();
+        try (Stats.Phase ignored = startPhase(Stats.WRITE)) {
             objectWriter.writeValue(outputStream, jsonSchema);
         } catch (IOException e) {
             warningsListener.accept(
-                    Message.error("Failed to generate json: " + e.getMessage()));
+                    Message.error("Failed to generate json: " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
             return 3;
         }
 
         return 0;
     }
-}
\ No newline at end of file
+
+    private Stats.Phase startPhase(String name) {
+        return Stats.phase(stats, name);
+    }
+
+    private int writeStreaming(Components components) {
+        ObjectMapper objectMapper = outputFormat.getObjectMapper();
+        // conversions are timed separately by the converter
+        try (Stats.Phase ignored = startPhase(Stats.WRITE);
+             JsonGenerator generator = createGenerator(objectMapper)) {
+            new StreamingSchemaWriter(converter, createDefinitionWriter(objectMapper))
+                    .write(generator, components, mainSchema);
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to generate json: " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            return 3;
+        }
+
+        return 0;
+    }
+
+    private int writeCached(SpecReader specReader) {
+        JsonNode document;
+        try (Stats.Phase ignored = startPhase(Stats.PARSE)) {
+            document = specReader.readTree(input, inputStream);
+        }
+        if (document == null) {
+            return 2;
+        }
+        if (!SpecReader.isOpenApi3(document)) {
+            // converted by swagger-parser, so it has no source to cache
+            OpenAPI openAPI;
+            try (Stats.Phase ignored = startPhase(Stats.PARSE)) {
+                openAPI = specReader.parse(input, document);
+            }
+            return openAPI != null ? writeStreaming(openAPI.getComponents()) : 2;
+        }
+
+        // cached definitions are always compact JSON
+        ObjectMapper cacheObjectMapper = OutputFormat.COMPACT_JSON.getObjectMapper();
+        // parsing and conversions of missing definitions are timed separately
+        try (Stats.Phase ignored = startPhase(Stats.WRITE);
+             JsonGenerator generator = createGenerator(outputFormat.getObjectMapper())) {
+            boolean parsed = new CachedSchemaWriter(
+                    converter, createDefinitionWriter(cacheObjectMapper), cache, specReader, input)
+                    .write(generator, document, mainSchema);
+            if (!parsed) {
+                return 2;
+            }
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to generate json: " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            return 3;
+        }
+
+        try {
+            cache.evict();
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.warning("Failed to clean up cache: " + e.getMessage())
+                            .withCategory(Message.Category.CACHE));
+        }
+        return 0;
+    }
+
+    private JsonGenerator createGenerator(ObjectMapper objectMapper) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        if (outputFormat.isPretty()) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+        }
+        return generator;
+    }
+
+    private static ObjectWriter createDefinitionWriter(ObjectMapper objectMapper) {
+        return objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
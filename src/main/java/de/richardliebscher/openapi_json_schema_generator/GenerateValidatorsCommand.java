@@ -0,0 +1,85 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.validator.JavaValidatorGenerator;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes Java source code of a validator class per component schema, see {@link JavaValidatorGenerator}.
+ */
+@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class GenerateValidatorsCommand {
+    private final String input;
+    private final InputStream inputStream;
+    /**
+     * Source root, the classes are written to the directory of their package.
+     */
+    private final Path outputDirectory;
+    private final String packageName;
+    private final JsonSchemaDraft jsonSchemaDraft;
+    private final Converter converter;
+    private final Consumer<Message> warningsListener;
+
+    /**
+     * Directory which resolves references of standard input, see {@link SpecReader#withWorkingDirectory(Path)}.
+     */
+    @With
+    private Path workingDirectory = null;
+
+    public int run() {
+        OpenAPI openAPI = new SpecReader(warningsListener)
+                .withWorkingDirectory(workingDirectory)
+                .read(input, inputStream);
+        if (openAPI == null) {
+            return 2;
+        }
+
+        Components components = openAPI.getComponents();
+        JsonSchema jsonSchema = converter.bundle(converter.convertDefinitions(components), null);
+        Map<String, String> sources;
+        try {
+            sources = new JavaValidatorGenerator(packageName, jsonSchemaDraft).generate(jsonSchema);
+        } catch (IllegalArgumentException exception) {
+            warningsListener.accept(Message.error("Failed to generate validators: " + exception.getMessage()));
+            return 2;
+        }
+
+        Path packageDirectory = outputDirectory.resolve(packageName.replace('.', '/'));
+        try {
+            Files.createDirectories(packageDirectory);
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to create " + packageDirectory + ": " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            return 3;
+        }
+
+        int exitCode = 0;
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path output = packageDirectory.resolve(source.getKey() + ".java");
+            try {
+                Files.writeString(output, source.getValue(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                warningsListener.accept(
+                        Message.error("Failed to write " + output + ": " + e.getMessage())
+                                .withCategory(Message.Category.OUTPUT));
+                exitCode = 3;
+            }
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,57 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashes as lower case hex strings, used for cache keys, output manifests and shared definition names.
+ */
+final class Hashes {
+    private Hashes() {
+    }
+
+    /**
+     * @return new SHA-256 digest, which is available on every JVM
+     */
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * @return hash of the concatenated parts
+     */
+    static String sha256Hex(byte[]... parts) {
+        MessageDigest digest = sha256();
+        for (byte[] part : parts) {
+            digest.update(part);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return hash of the remaining content of the stream, which is not closed
+     */
+    static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
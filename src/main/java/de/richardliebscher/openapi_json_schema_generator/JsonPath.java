@@ -22,15 +22,22 @@ public class JsonPath {
         return new JsonPath(name, this);
     }
 
-    @Override
-    public String toString() {
-        List<String> paths = new ArrayList<>();
+    /**
+     * @return names of path from root
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
         JsonPath path = this;
         while (path != null) {
-            paths.add(path.name);
+            names.add(path.name);
             path = path.parent;
         }
-        Collections.reverse(paths);
-        return "#/" + String.join("/", paths);
+        Collections.reverse(names);
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "#/" + String.join("/", names());
     }
 }
@@ -20,6 +20,13 @@ public enum JsonSchemaDraft {
         this.id = id;
     }
 
+    /**
+     * Keyword of the object holding the definitions of a schema.
+     */
+    public String definitionsKeyword() {
+        return compareTo(v2019_09) >= 0 ? "$defs" : "definitions";
+    }
+
     public static List<String> names() {
         return Arrays.stream(JsonSchemaDraft.values())
                 .map(e -> e.name)
@@ -0,0 +1,165 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Generator for embedding into other applications, e.g. build tools or servers.
+ *
+ * <p>Instances are immutable and thread-safe, so one instance can serve concurrent requests of many threads. The
+ * Jackson mappers and writers and the parser options are shared by all requests, options and diagnostics belong to a
+ * single {@link Request}. Unlike the command line, failures are returned as {@link Result} and never exit the JVM.
+ */
+public final class JsonSchemaGenerator {
+
+    /**
+     * Generate the JSON schema of a specification.
+     *
+     * @param outputStream receives the schema in the format of the request, it is flushed but not closed
+     * @return exit code and diagnostics of this request
+     */
+    public Result generate(Request request, OutputStream outputStream) {
+        List<Message> messages = Collections.synchronizedList(new ArrayList<>());
+        Consumer<Message> warningsListener = messages::add;
+        Converter converter = new Converter(
+                request.includeReadOnly, request.includeWriteOnly, request.jsonSchemaDraft, warningsListener)
+                .withParallelism(request.parallelism);
+
+        int exitCode;
+        try {
+            exitCode = new GenerateCommand(
+                    request.input, request.mainSchema, request.inputStream,
+                    CloseShieldOutputStream.wrap(outputStream), converter, warningsListener)
+                    .withDeduplicator(request.deduplicateMinSize > 0
+                            ? new Deduplicator(request.deduplicateMinSize) : null)
+                    .withOutputFormat(request.outputFormat)
+                    .withSchemasOnly(request.schemasOnly)
+                    .run();
+            if (exitCode == 0) {
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            warningsListener.accept(
+                    Message.error("Failed to generate json: " + e.getMessage())
+                            .withCategory(Message.Category.OUTPUT));
+            exitCode = 3;
+        } catch (RuntimeException exception) {
+            warningsListener.accept(Message.error(String.valueOf(exception.getMessage())));
+            exitCode = 5;
+        }
+
+        synchronized (messages) {
+            return new Result(exitCode, List.copyOf(messages));
+        }
+    }
+
+    /**
+     * Specification and options of a single generation.
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Request {
+        /**
+         * File or URL of the specification, {@code -} when it is read from {@link #inputStream}.
+         */
+        private final String input;
+        private final InputStream inputStream;
+
+        /**
+         * Component schema used as root schema or {@code null}, see {@link Converter#convert}.
+         */
+        @With
+        private final String mainSchema;
+        @With
+        private final boolean includeReadOnly;
+        @With
+        private final boolean includeWriteOnly;
+        @With
+        private final JsonSchemaDraft jsonSchemaDraft;
+        @With
+        private final OutputFormat outputFormat;
+
+        /**
+         * Minimum size of the compact JSON of inline schemas moved into shared definitions, {@code 0} to keep them
+         * inline, see {@link Deduplicator}.
+         */
+        @With
+        private final int deduplicateMinSize;
+
+        /**
+         * Number of threads used to convert definitions of this request, see {@link Converter#withParallelism(int)}.
+         */
+        private final int parallelism;
+
+        /**
+         * Read only the component schemas of local specifications, see
+         * {@link SpecReader#withSchemasOnly(boolean)}.
+         */
+        @With
+        private final boolean schemasOnly;
+
+        /**
+         * @param parallelism number of threads used to convert definitions of this request, at least 1
+         * @throws IllegalArgumentException when {@code parallelism} is less than 1
+         */
+        public Request withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+            }
+            return this.parallelism == parallelism ? this : new Request(
+                    input, inputStream, mainSchema, includeReadOnly, includeWriteOnly, jsonSchemaDraft, outputFormat,
+                    deduplicateMinSize, parallelism, schemasOnly);
+        }
+
+        /**
+         * @param input file or URL of the specification
+         */
+        public static Request of(String input) {
+            return new Request(Objects.requireNonNull(input), null, null, true, true,
+                    JsonSchemaDraft.v2019_09, OutputFormat.JSON, 0, 1, false);
+        }
+
+        /**
+         * @param inputStream JSON or YAML of the specification, consumed by a single generation
+         */
+        public static Request of(InputStream inputStream) {
+            return new Request("-", Objects.requireNonNull(inputStream), null, true, true,
+                    JsonSchemaDraft.v2019_09, OutputFormat.JSON, 0, 1, false);
+        }
+    }
+
+    /**
+     * Outcome of a single generation.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Result {
+        /**
+         * Same as the exit code of the command line: 0 on success, 2 when the specification could not be read, 3
+         * when the schema could not be written and 5 for unexpected failures.
+         */
+        private final int exitCode;
+
+        /**
+         * Warnings and errors of this request in the order they were reported.
+         */
+        private final List<Message> messages;
+
+        public boolean isSuccessful() {
+            return exitCode == 0;
+        }
+    }
+}
@@ -2,29 +2,47 @@ package de.richardliebscher.openapi_json_schema_generator;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 
 @Command(
         name = "openapi-json-schema-generator",
         description = "Generate JSON schema from Open API specification",
         mixinStandardHelpOptions = true,
-        versionProvider = Main.VersionProvider.class
+        versionProvider = Main.VersionProvider.class,
+        subcommands = {Main.Validate.class, Main.GenerateValidators.class}
 )
-public class Main implements Runnable {
+public class Main implements Callable<Integer> {
 
     @Parameters(
             index = "0",
-            arity = "1",
+            arity = "0..1",
             paramLabel = "INPUT",
-            description = "Reference to OpenAPI specification in JSON or YAML format")
+            description = "Reference to OpenAPI specification in JSON or YAML format. " +
+                    "Can be a glob pattern in combination with --output-dir.")
     private String input;
 
     @Parameters(
@@ -53,6 +71,169 @@ public class Main implements Runnable {
             completionCandidates = JsonSchemaVersionCandidates.class)
     private JsonSchemaDraft jsonSchemaDraft;
 
+    @Option(
+            names = {"--output-format"},
+            paramLabel = "FORMAT",
+            description = "Format of the output: pretty printed 'json', 'compact-json' or the binary formats 'smile' " +
+                    "and 'cbor'. Default: ${DEFAULT-VALUE}",
+            defaultValue = "json",
+            completionCandidates = OutputFormatCandidates.class)
+    private OutputFormat outputFormat;
+
+    @Option(
+            names = {"-o", "--output"},
+            paramLabel = "FILE",
+            description = "Write the JSON schema to FILE instead of standard output. Later runs are skipped while " +
+                    "the input, its referenced files, the options and FILE are unchanged, see FILE.manifest.")
+    private Path outputFile;
+
+    @Option(
+            names = {"--force"},
+            description = "Write --output even if it is up to date.")
+    private boolean force = false;
+
+    @Option(
+            names = {"--stream"},
+            description = "Write every definition as soon as it is converted. " +
+                    "Reduces memory usage for large specifications.")
+    private boolean streaming = false;
+
+    @Option(
+            names = {"--schemas-only"},
+            description = "Read only components.schemas of local OpenAPI 3 specifications with a streaming parser. " +
+                    "Paths and other sections are skipped without being parsed or validated. Falls back to " +
+                    "reading the whole specification for YAML aliases, merge keys and references to other " +
+                    "sections of the specification.")
+    private boolean schemasOnly = false;
+
+    @Option(
+            names = {"--cache-dir"},
+            paramLabel = "DIR",
+            description = "Reuse definitions which did not change since the last run from DIR. Implies --stream.")
+    private Path cacheDirectory;
+
+    @Option(
+            names = {"--cache-size"},
+            paramLabel = "MB",
+            description = "Maximum size of --cache-dir in megabytes. Least recently used definitions are removed " +
+                    "first. Default: ${DEFAULT-VALUE}")
+    private long cacheSize = 256;
+
+    @Option(
+            names = {"--deduplicate"},
+            description = "Move inline schemas which occur more than once into shared definitions.")
+    private boolean deduplicate = false;
+
+    @Option(
+            names = {"--deduplicate-min-size"},
+            paramLabel = "BYTES",
+            description = "Minimum size of the compact JSON of inline schemas moved by --deduplicate. " +
+                    "Default: ${DEFAULT-VALUE}")
+    private int deduplicateMinSize = 100;
+
+    @Option(
+            names = {"--batch-file"},
+            paramLabel = "FILE",
+            description = "Convert all inputs listed in FILE. Each line consists of 'INPUT OUTPUT [MAIN_SCHEMA]'.")
+    private Path batchFile;
+
+    @Option(
+            names = {"--output-dir"},
+            paramLabel = "DIR",
+            description = "Convert all files matching INPUT and write results to DIR.")
+    private Path outputDirectory;
+
+    @Option(
+            names = {"--bundle-dir"},
+            paramLabel = "DIR",
+            description = "Write one standalone JSON schema per component schema to DIR.")
+    private Path bundleDirectory;
+
+    @Option(
+            names = {"--bundle"},
+            paramLabel = "SCHEMA",
+            description = "Component schema to write with --bundle-dir. Can be repeated. Default: all")
+    private List<String> bundles = new ArrayList<>();
+
+    @Option(
+            names = {"-j", "--jobs"},
+            description = "Number of threads to convert inputs or bundles in parallel, or the definitions of a " +
+                    "single input. Default: number of processors for inputs and bundles, 1 for definitions")
+    private Integer jobs;
+
+    @Option(
+            names = {"--daemon"},
+            description = "Run as daemon serving --client requests over a loopback socket until --stop-daemon.")
+    private boolean daemon = false;
+
+    @Option(
+            names = {"--client"},
+            description = "Let the running daemon do the work. Runs locally when no daemon is running.")
+    private boolean client = false;
+
+    @Option(
+            names = {"--stop-daemon"},
+            description = "Stop the running daemon.")
+    private boolean stopDaemon = false;
+
+    @Option(
+            names = {"--daemon-file"},
+            paramLabel = "FILE",
+            description = "Connection file of the daemon. Default: ~/.openapi-json-schema-generator/daemon.properties")
+    private Path daemonFile;
+
+    @Option(
+            names = {"--stats"},
+            arity = "0..1",
+            fallbackValue = "-",
+            paramLabel = "FILE",
+            description = "Write phase timings, allocations and counters as JSON to FILE or standard error.")
+    private String statsFile;
+
+    @Option(
+            names = {"--warnings"},
+            paramLabel = "MODE",
+            description = "How to report warnings: 'all' one by one, 'summary' aggregated with counts and sample " +
+                    "paths or 'none'. Errors are always reported. Default: ${DEFAULT-VALUE}")
+    private Diagnostics.Warnings warnings = Diagnostics.Warnings.all;
+
+    @Option(
+            names = {"--diagnostics-format"},
+            paramLabel = "FORMAT",
+            description = "Format of warnings and errors: 'text' or 'json' (one JSON object per line). " +
+                    "Default: ${DEFAULT-VALUE}")
+    private Diagnostics.Format diagnosticsFormat = Diagnostics.Format.text;
+
+    @Spec
+    private CommandSpec spec;
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    /**
+     * Directory relative paths are resolved against or {@code null} for the current directory.
+     */
+    private final Path workingDirectory;
+
+    private DefinitionCache definitionCache;
+    private OutputManifest outputManifest;
+    private Stats stats;
+    private Diagnostics diagnostics;
+
+    public Main() {
+        this(System.in, System.out, System.err, null);
+    }
+
+    /**
+     * Create command using other streams and working directory than the process, e.g. for a daemon request.
+     */
+    public Main(InputStream in, PrintStream out, PrintStream err, Path workingDirectory) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+        this.workingDirectory = workingDirectory;
+    }
+
     private static class JsonSchemaVersionCandidates implements Iterable<String> {
         @Override
         public Iterator<String> iterator() {
@@ -60,6 +241,13 @@ public class Main implements Runnable {
         }
     }
 
+    private static class OutputFormatCandidates implements Iterable<String> {
+        @Override
+        public Iterator<String> iterator() {
+            return OutputFormat.names().iterator();
+        }
+    }
+
     static class VersionProvider implements CommandLine.IVersionProvider {
 
         public static final String VERSION_PROPERTIES =
@@ -79,31 +267,485 @@ public class Main implements Runnable {
     }
 
     public static void main(String[] args) {
+        System.exit(execute(new Main(), args));
+    }
+
+    /**
+     * Execute command line.
+     *
+     * @return exit code
+     */
+    public static int execute(Main main, String[] args) {
         try {
-            System.exit(new CommandLine(new Main())
+            return new CommandLine(main)
                     .registerConverter(JsonSchemaDraft.class, JsonSchemaDraft::fromName)
-                    .execute(args));
+                    .registerConverter(OutputFormat.class, OutputFormat::fromName)
+                    .setOut(new PrintWriter(main.out, true, StandardCharsets.UTF_8))
+                    .setErr(new PrintWriter(main.err, true, StandardCharsets.UTF_8))
+                    .execute(args);
         } catch (RuntimeException exp) {
-            System.err.println("Error: " + exp.getMessage());
-            exp.printStackTrace();
-            System.exit(5);
+            main.err.println("Error: " + exp.getMessage());
+            exp.printStackTrace(main.err);
+            return 5;
         }
     }
 
     @Override
-    public void run() {
-        Consumer<Message> warningConsumer = w -> {
-            if (w.path != null) {
-                System.err.printf("%s: %s%n", w.path, w.message);
-            } else {
-                System.err.printf("%s%n", w.message);
-            }
-        };
-
-        Converter converter = new Converter(
-                !excludeReadOnly, !excludeWriteOnly, jsonSchemaDraft, warningConsumer);
-        GenerateCommand command = new GenerateCommand(
-                input, mainSchema, System.in, System.out, converter, warningConsumer);
-        System.exit(command.run());
+    public Integer call() {
+        if (daemon || stopDaemon) {
+            if (workingDirectory != null) {
+                throw new CommandLine.ParameterException(
+                        spec.commandLine(), "--daemon and --stop-daemon can not be forwarded to the daemon");
+            }
+            Path file = daemonFile != null ? daemonFile : Daemon.defaultFile();
+            return daemon ? new Daemon(file, err).run() : DaemonClient.stop(file, err);
+        }
+        if (client && workingDirectory == null) {
+            Path file = daemonFile != null ? daemonFile : Daemon.defaultFile();
+            List<String> args = new ArrayList<>(spec.commandLine().getParseResult().originalArgs());
+            Integer exitCode = new DaemonClient(file, in, out, err).run(args, "-".equals(input));
+            if (exitCode != null) {
+                return exitCode;
+            }
+            // no daemon running
+        }
+        resolvePaths();
+
+        // before anything loads the OpenAPI parser, which dominates the time of skipped runs
+        outputManifest = createOutputManifest();
+        if (outputManifest != null && !force && outputManifest.isUpToDate()) {
+            return 0;
+        }
+        if (outputManifest != null) {
+            try {
+                outputManifest.hashInputs();
+            } catch (IOException exception) {
+                // unreadable input, the run reports it and the manifest is deleted
+            }
+        }
+
+        stats = statsFile != null ? new Stats() : null;
+        int exitCode;
+        try (Diagnostics diagnostics = new Diagnostics(err, diagnosticsFormat, warnings)) {
+            this.diagnostics = diagnostics;
+            Consumer<Message> warningConsumer = stats != null ? stats.countMessages(diagnostics) : diagnostics;
+            exitCode = run(warningConsumer);
+            if (stats != null && !statsFile.equals("-")) {
+                exitCode = writeStats(exitCode, warningConsumer);
+            }
+        }
+
+        if (stats != null && statsFile.equals("-")) {
+            try {
+                stats.write(err);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            err.println();
+        }
+        return exitCode;
+    }
+
+    private int writeStats(int exitCode, Consumer<Message> warningConsumer) {
+        Path file = workingDirectory != null ? workingDirectory.resolve(statsFile) : Path.of(statsFile);
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            stats.write(outputStream);
+        } catch (IOException exception) {
+            warningConsumer.accept(Message.error("Failed to write " + file + ": " + exception.getMessage())
+                    .withCategory(Message.Category.OUTPUT));
+            return Math.max(exitCode, 3);
+        }
+        return exitCode;
+    }
+
+    private int run(Consumer<Message> warningConsumer) {
+        if (cacheDirectory != null) {
+            if (cacheSize < 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--cache-size must not be negative");
+            }
+            definitionCache = new DefinitionCache(
+                    cacheDirectory, cacheSize * 1024 * 1024, new VersionProvider().getVersion()[0]);
+        }
+
+        if (deduplicate) {
+            if (deduplicateMinSize < 1) {
+                throw new CommandLine.ParameterException(
+                        spec.commandLine(), "--deduplicate-min-size must be at least 1");
+            }
+            if (streaming || cacheDirectory != null || bundleDirectory != null) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "--deduplicate can not be combined with --stream, --cache-dir or --bundle-dir");
+            }
+        }
+
+        if (batchFile != null || outputDirectory != null) {
+            return runBatch(warningConsumer);
+        }
+        if (input == null) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Missing required parameter: 'INPUT'");
+        }
+
+        if (bundleDirectory != null) {
+            if (mainSchema != null) {
+                throw new CommandLine.ParameterException(
+                        spec.commandLine(), "MAIN_SCHEMA can not be combined with --bundle-dir, use --bundle");
+            }
+            BundleCommand command = new BundleCommand(
+                    input, bundles, in, bundleDirectory, checkJobs(),
+                    createConverter(warningConsumer).withParallelism(checkConversionJobs()), warningConsumer)
+                    .withOutputFormat(outputFormat)
+                    .withSchemasOnly(schemasOnly)
+                    .withWorkingDirectory(workingDirectory);
+            return command.run();
+        }
+        if (outputFile != null) {
+            return writeOutput(warningConsumer);
+        }
+        return createCommand(
+                input, mainSchema, out, createConverter(warningConsumer).withParallelism(checkConversionJobs()),
+                warningConsumer).run();
+    }
+
+    /**
+     * @return manifest of --output for local inputs, otherwise {@code null}
+     */
+    private OutputManifest createOutputManifest() {
+        if (outputFile == null) {
+            return null;
+        }
+        if (batchFile != null || outputDirectory != null || bundleDirectory != null) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(), "--output can not be combined with --batch-file, --output-dir or --bundle-dir");
+        }
+        if (input == null || input.equals("-") || input.contains(":/") || !Files.isRegularFile(Path.of(input))) {
+            return null;
+        }
+
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("main-schema", String.valueOf(mainSchema));
+        options.put("json-schema-version", jsonSchemaDraft.name);
+        options.put("exclude-read-only", String.valueOf(excludeReadOnly));
+        options.put("exclude-write-only", String.valueOf(excludeWriteOnly));
+        options.put("output-format", outputFormat.name);
+        options.put("deduplicate", deduplicate ? String.valueOf(deduplicateMinSize) : "false");
+        return new OutputManifest(Path.of(input), outputFile, new VersionProvider().getVersion()[0], options);
+    }
+
+    private int writeOutput(Consumer<Message> warningConsumer) {
+        int exitCode;
+        try {
+            Path parent = outputFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+                exitCode = createCommand(
+                        input, mainSchema, outputStream,
+                        createConverter(warningConsumer).withParallelism(checkConversionJobs()),
+                        warningConsumer).run();
+            }
+        } catch (IOException exception) {
+            warningConsumer.accept(Message.error("Failed to write " + outputFile + ": " + exception.getMessage())
+                    .withCategory(Message.Category.OUTPUT));
+            exitCode = 3;
+        }
+
+        try {
+            if (exitCode != 0) {
+                Files.deleteIfExists(outputFile);
+                if (outputManifest != null) {
+                    outputManifest.delete();
+                }
+            } else if (outputManifest != null) {
+                outputManifest.write();
+            }
+        } catch (IOException exception) {
+            // only costs a full run next time
+            warningConsumer.accept(Message.warning("Failed to update manifest of " + outputFile + ": " +
+                    exception.getMessage()).withCategory(Message.Category.OUTPUT));
+        }
+        return exitCode;
+    }
+
+    /**
+     * Resolve relative paths against the working directory of the request.
+     */
+    private void resolvePaths() {
+        if (workingDirectory == null) {
+            return;
+        }
+
+        if (input != null && !input.equals("-") && !input.contains(":/") && !new File(input).isAbsolute()) {
+            // can be a glob pattern, so avoid Path
+            input = new File(workingDirectory.toFile(), input).getPath();
+        }
+        batchFile = resolve(batchFile);
+        outputDirectory = resolve(outputDirectory);
+        bundleDirectory = resolve(bundleDirectory);
+        outputFile = resolve(outputFile);
+        cacheDirectory = resolve(cacheDirectory);
+    }
+
+    private Path resolve(Path path) {
+        return path != null ? workingDirectory.resolve(path) : null;
+    }
+
+    private int runBatch(Consumer<Message> warningConsumer) {
+        if (bundleDirectory != null) {
+            throw new CommandLine.ParameterException(
+                    spec.commandLine(), "--bundle-dir can not be combined with batch mode");
+        }
+
+        List<BatchCommand.Job> batchJobs = new ArrayList<>();
+        try {
+            if (batchFile != null) {
+                try {
+                    batchJobs.addAll(BatchCommand.readBatchFile(batchFile));
+                } catch (IllegalArgumentException exception) {
+                    throw new CommandLine.ParameterException(spec.commandLine(), exception.getMessage());
+                }
+            }
+            if (outputDirectory != null) {
+                if (input == null) {
+                    throw new CommandLine.ParameterException(
+                            spec.commandLine(), "--output-dir requires parameter 'INPUT'");
+                }
+                batchJobs.addAll(BatchCommand.expandGlob(input, outputDirectory, mainSchema, outputFormat.extension));
+            } else if (input != null) {
+                throw new CommandLine.ParameterException(
+                        spec.commandLine(), "INPUT can not be combined with --batch-file, use --output-dir");
+            }
+        } catch (IOException exception) {
+            warningConsumer.accept(Message.error("Failed to collect inputs: " + exception.getMessage()));
+            return 2;
+        }
+        String conflict = BatchCommand.findConflictingOutput(batchJobs);
+        if (conflict != null) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Conflicting outputs: " + conflict);
+        }
+
+        BatchCommand command = new BatchCommand(batchJobs, checkJobs(), this::createCommand, warningConsumer);
+        List<Integer> statuses = command.run();
+
+        int exitCode = 0;
+        for (int i = 0; i < batchJobs.size(); i++) {
+            int status = statuses.get(i);
+            diagnostics.accept(Message.info(status == 0 ? "OK" : "FAILED (" + status + ")")
+                    .withSource(batchJobs.get(i).toString()));
+            exitCode = Math.max(exitCode, status);
+        }
+        return exitCode;
+    }
+
+    /**
+     * @return threads for inputs or bundles, which are independent enough to pay off on every processor
+     */
+    private int checkJobs() {
+        return checkJobs(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return threads for the definitions of a single input. Sequential unless requested, the thread pool costs more
+     * than it saves for most specifications.
+     */
+    private int checkConversionJobs() {
+        return checkJobs(1);
+    }
+
+    private int checkJobs(int defaultJobs) {
+        if (jobs == null) {
+            return defaultJobs;
+        }
+        if (jobs < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--jobs must be at least 1");
+        }
+        return jobs;
+    }
+
+    private GenerateCommand createCommand(
+            String input, String mainSchema, OutputStream outputStream, Consumer<Message> warningConsumer) {
+        // inputs are already converted in parallel
+        return createCommand(input, mainSchema, outputStream, createConverter(warningConsumer), warningConsumer);
+    }
+
+    private GenerateCommand createCommand(
+            String input, String mainSchema, OutputStream outputStream, Converter converter,
+            Consumer<Message> warningConsumer) {
+        GenerateCommand command = new GenerateCommand(input, mainSchema, in, outputStream, converter, warningConsumer)
+                .withStreaming(streaming)
+                .withCache(definitionCache)
+                .withDeduplicator(deduplicate ? new Deduplicator(deduplicateMinSize) : null)
+                .withOutputFormat(outputFormat)
+                .withSchemasOnly(schemasOnly)
+                .withWorkingDirectory(workingDirectory);
+        return stats != null ? command.withStats(stats) : command;
+    }
+
+    private Converter createConverter(Consumer<Message> warningConsumer) {
+        return new Converter(!excludeReadOnly, !excludeWriteOnly, jsonSchemaDraft, warningConsumer).withStats(stats);
+    }
+
+    @Command(
+            name = "validate",
+            description = "Validate newline delimited JSON records against a schema of an Open API specification",
+            mixinStandardHelpOptions = true,
+            versionProvider = Main.VersionProvider.class
+    )
+    static class Validate implements Callable<Integer> {
+
+        @Parameters(
+                index = "0",
+                paramLabel = "INPUT",
+                description = "Reference to OpenAPI specification in JSON or YAML format.")
+        private String input;
+
+        @Parameters(
+                index = "1",
+                paramLabel = "MAIN_SCHEMA",
+                description = "Name of schema ('MySchema') or reference to schema ('#/components/schemas/MySchema') " +
+                        "the records have to match.")
+        private String mainSchema;
+
+        @Parameters(
+                index = "2",
+                arity = "0..1",
+                paramLabel = "DATA",
+                description = "File with one JSON record per line, can be gzip compressed. " +
+                        "Default: standard input")
+        private String data = "-";
+
+        @Option(
+                names = {"--exclude-read-only"},
+                description = "Exclude read only properties, e.g. to validate requests.")
+        private boolean excludeReadOnly = false;
+
+        @Option(
+                names = {"--exclude-write-only"},
+                description = "Exclude write only properties, e.g. to validate responses.")
+        private boolean excludeWriteOnly = false;
+
+        @Option(
+                names = {"--max-errors"},
+                paramLabel = "N",
+                description = "Report at most N errors, further errors are only counted. Default: ${DEFAULT-VALUE}")
+        private long maxErrors = 100;
+
+        @Option(
+                names = {"-j", "--jobs"},
+                description = "Number of threads to validate records in parallel. Default: number of processors")
+        private int jobs = Runtime.getRuntime().availableProcessors();
+
+        @ParentCommand
+        private Main main;
+
+        @Spec
+        private CommandSpec spec;
+
+        @Override
+        public Integer call() {
+            if (jobs < 1) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--jobs must be at least 1");
+            }
+            if (maxErrors < 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--max-errors must not be negative");
+            }
+            if (input.equals("-") && data.equals("-")) {
+                throw new CommandLine.ParameterException(
+                        spec.commandLine(), "INPUT and DATA can not both be read from standard input");
+            }
+            if (main.workingDirectory != null) {
+                if (!input.equals("-") && !input.contains(":/")) {
+                    input = main.workingDirectory.resolve(input).toString();
+                }
+                if (!data.equals("-")) {
+                    data = main.workingDirectory.resolve(data).toString();
+                }
+            }
+
+            ValidateCommand.Result result;
+            try (Diagnostics diagnostics = new Diagnostics(main.err, main.diagnosticsFormat, main.warnings)) {
+                // the schema is only used for validation, its draft does not matter
+                Converter converter = new Converter(
+                        !excludeReadOnly, !excludeWriteOnly, JsonSchemaDraft.v2019_09, diagnostics);
+                result = new ValidateCommand(input, mainSchema, main.in, data, main.out, converter, diagnostics)
+                        .withParallelism(jobs)
+                        .withMaxErrors(maxErrors)
+                        .withWorkingDirectory(main.workingDirectory)
+                        .run();
+            }
+            if (result.getExitCode() < 2) {
+                main.err.println(result);
+            }
+            return result.getExitCode();
+        }
+    }
+
+    @Command(
+            name = "generate-validators",
+            description = "Generate Java source code of a validator class per component schema",
+            mixinStandardHelpOptions = true,
+            versionProvider = Main.VersionProvider.class
+    )
+    static class GenerateValidators implements Callable<Integer> {
+
+        @Parameters(
+                index = "0",
+                paramLabel = "INPUT",
+                description = "Reference to OpenAPI specification in JSON or YAML format.")
+        private String input;
+
+        @Parameters(
+                index = "1",
+                paramLabel = "OUTPUT_DIR",
+                description = "Source root to write the classes to, in the directory of their package.")
+        private Path outputDirectory;
+
+        @Option(
+                names = {"--package"},
+                required = true,
+                paramLabel = "NAME",
+                description = "Package of the generated classes.")
+        private String packageName;
+
+        @Option(
+                names = {"--exclude-read-only"},
+                description = "Exclude read only properties, e.g. to validate requests.")
+        private boolean excludeReadOnly = false;
+
+        @Option(
+                names = {"--exclude-write-only"},
+                description = "Exclude write only properties, e.g. to validate responses.")
+        private boolean excludeWriteOnly = false;
+
+        @Option(
+                names = {"--json-schema-version"},
+                description = "Validate like this JSON Schema Draft, e.g. whether 1.0 is an integer. " +
+                        "Choices: ${COMPLETION-CANDIDATES}",
+                defaultValue = "2019-09",
+                showDefaultValue = CommandLine.Help.Visibility.ALWAYS,
+                completionCandidates = JsonSchemaVersionCandidates.class)
+        private JsonSchemaDraft jsonSchemaDraft;
+
+        @ParentCommand
+        private Main main;
+
+        @Override
+        public Integer call() {
+            if (main.workingDirectory != null) {
+                if (!input.equals("-") && !input.contains(":/")) {
+                    input = main.workingDirectory.resolve(input).toString();
+                }
+                outputDirectory = main.workingDirectory.resolve(outputDirectory);
+            }
+
+            try (Diagnostics diagnostics = new Diagnostics(main.err, main.diagnosticsFormat, main.warnings)) {
+                Converter converter = new Converter(
+                        !excludeReadOnly, !excludeWriteOnly, jsonSchemaDraft, diagnostics);
+                return new GenerateValidatorsCommand(
+                        input, main.in, outputDirectory, packageName, jsonSchemaDraft, converter, diagnostics)
+                        .withWorkingDirectory(main.workingDirectory)
+                        .run();
+            }
+        }
     }
 }
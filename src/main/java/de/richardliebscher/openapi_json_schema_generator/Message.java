@@ -5,35 +5,64 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public final class Message {
     public final Severity severity;
+    public final Category category;
     public final JsonPath path;
     public final String message;
+    public final String source;
+
+    /**
+     * Status which is always reported, e.g. the result of a batch job.
+     */
+    public static Message info(String message) {
+        return new Message(Severity.INFO, Category.GENERAL, null, message, null);
+    }
 
     public static Message warning(JsonPath path, String message) {
-        return new Message(Severity.WARNING, path, message);
+        return new Message(Severity.WARNING, Category.GENERAL, path, message, null);
     }
 
     public static Message warning(String message) {
-        return new Message(Severity.WARNING, null, message);
+        return new Message(Severity.WARNING, Category.GENERAL, null, message, null);
     }
 
     public static Message error(JsonPath path, String message) {
-        return new Message(Severity.ERROR, path, message);
+        return new Message(Severity.ERROR, Category.GENERAL, path, message, null);
     }
 
     public static Message error(String message) {
-        return new Message(Severity.ERROR, null, message);
+        return new Message(Severity.ERROR, Category.GENERAL, null, message, null);
+    }
+
+    /**
+     * Tag message with the input it originates from, e.g. in batch mode.
+     */
+    public Message withSource(String source) {
+        return new Message(severity, category, path, message, source);
+    }
+
+    public Message withCategory(Category category) {
+        return new Message(severity, category, path, message, source);
     }
 
     public enum Severity {
-        WARNING, ERROR
+        INFO, WARNING, ERROR
+    }
+
+    /**
+     * Part of the tool a message originates from, e.g. to count warnings by category.
+     */
+    public enum Category {
+        GENERAL, PARSER, CONVERTER, OUTPUT, CACHE
     }
 
     @Override
     public String toString() {
         return "Message{" +
                 "severity=" + severity +
+                ", category=" + category +
                 ", path=" + path +
                 ", message='" + message + '\'' +
+                ", source='" + source + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,121 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchemaSerializer;
+import io.swagger.v3.parser.ObjectMapperFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Format of generated schemas. All formats write the same {@link JsonSchema} model, the binary formats Smile and CBOR
+ * are smaller and faster to load.
+ */
+public enum OutputFormat {
+    JSON("json", ".json", null),
+    COMPACT_JSON("compact-json", ".json", null),
+    SMILE("smile", ".sml", SmileFactory::new),
+    CBOR("cbor", ".cbor", CBORFactory::new);
+
+    public final String name;
+    /**
+     * Extension of output files.
+     */
+    public final String extension;
+    private final Supplier<JsonFactory> factory;
+    /**
+     * Shared mapper, created on first use so checking options does not load Jackson and swagger-parser.
+     */
+    private volatile ObjectMapper objectMapper;
+    private volatile ObjectWriter writer;
+
+    OutputFormat(String name, String extension, Supplier<JsonFactory> factory) {
+        this.name = name;
+        this.extension = extension;
+        this.factory = factory;
+    }
+
+    /**
+     * @return mapper with the same configuration as the JSON mapper of swagger-parser, which writes
+     * {@link JsonSchema} with {@link JsonSchemaSerializer}
+     */
+    public ObjectMapper createObjectMapper() {
+        return createObjectMapper(false);
+    }
+
+    /**
+     * @param beanSerializer whether to write {@link JsonSchema} with the bean serializer of Jackson instead of
+     *                       {@link JsonSchemaSerializer}, the output is the same
+     * @return mapper with the same configuration as the JSON mapper of swagger-parser
+     */
+    public ObjectMapper createObjectMapper(boolean beanSerializer) {
+        ObjectMapper objectMapper = ObjectMapperFactory.createJson();
+        if (!beanSerializer) {
+            objectMapper.registerModule(new SimpleModule().addSerializer(JsonSchema.class, new JsonSchemaSerializer()));
+        }
+        return factory != null ? objectMapper.copyWith(factory.get()) : objectMapper;
+    }
+
+    /**
+     * @return writer for whole documents, pretty printing for {@link #JSON}
+     */
+    public ObjectWriter createWriter(ObjectMapper objectMapper) {
+        return isPretty() ? objectMapper.writerWithDefaultPrettyPrinter() : objectMapper.writer();
+    }
+
+    /**
+     * @return mapper of {@link #createObjectMapper()} shared by all users, must not be reconfigured
+     */
+    public ObjectMapper getObjectMapper() {
+        ObjectMapper result = objectMapper;
+        if (result == null) {
+            synchronized (this) {
+                result = objectMapper;
+                if (result == null) {
+                    result = createObjectMapper();
+                    writer = createWriter(result);
+                    objectMapper = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return writer of {@link #createWriter(ObjectMapper)} for the shared mapper, thread-safe
+     */
+    public ObjectWriter getWriter() {
+        getObjectMapper();
+        return writer;
+    }
+
+    public boolean isPretty() {
+        return this == JSON;
+    }
+
+    public static List<String> names() {
+        return Arrays.stream(OutputFormat.values())
+                .map(e -> e.name)
+                .collect(Collectors.toList());
+    }
+
+    public static OutputFormat fromName(String name) {
+        return Arrays.stream(OutputFormat.values())
+                .filter(e -> e.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> {
+                    throw new IllegalArgumentException(
+                            format("expected one of %s but was '%s'", OutputFormat.names(), name));
+                });
+    }
+}
@@ -0,0 +1,194 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records what an output was generated from, so runs with unchanged inputs and options can be skipped.
+ *
+ * <p>The manifest is written next to the output as {@code OUTPUT.manifest} and contains the tool version, the options
+ * and SHA-256 hashes of the input, of the local files it references and of the output itself. Checking it only uses
+ * classes of the JDK, so a skipped run does not load the OpenAPI parser.
+ *
+ * <p>Referenced files are found by scanning the input for {@code $ref} values. References which only appear in other
+ * forms are not tracked.
+ */
+class OutputManifest {
+    static final String SUFFIX = ".manifest";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final Pattern REFERENCE = Pattern.compile("[\"']?\\$ref[\"']?\\s*:\\s*[\"']?([^\"'#\\s,}]+)");
+    private static final String FILE_PREFIX = "file.";
+    private static final String OPTION_PREFIX = "option.";
+
+    private final Path input;
+    private final Path output;
+    private final Path manifest;
+    private final String version;
+    private final Map<String, String> options;
+    /**
+     * Hashes of the input and the files it references by absolute path, taken before the output is generated.
+     */
+    private Map<Path, String> inputHashes;
+
+    /**
+     * @param input local specification
+     * @param options options which influence the output, by name
+     */
+    OutputManifest(Path input, Path output, String version, Map<String, String> options) {
+        this.input = input;
+        this.output = output;
+        this.manifest = output.resolveSibling(output.getFileName() + SUFFIX);
+        this.version = version;
+        this.options = options;
+    }
+
+    /**
+     * @return whether the output was generated from the current input with the same version and options
+     */
+    boolean isUpToDate() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(manifest)) {
+            properties.load(inputStream);
+        } catch (NoSuchFileException exception) {
+            return false;
+        } catch (IOException | IllegalArgumentException exception) {
+            // unreadable manifests are rewritten
+            return false;
+        }
+
+        Properties expected = header();
+        for (String name : expected.stringPropertyNames()) {
+            if (!expected.getProperty(name).equals(properties.getProperty(name))) {
+                return false;
+            }
+        }
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(OPTION_PREFIX) && !expected.containsKey(name)) {
+                return false;
+            }
+        }
+
+        try {
+            if (!hash(output).equals(properties.getProperty("output"))) {
+                return false;
+            }
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(FILE_PREFIX)
+                        && !hash(Path.of(name.substring(FILE_PREFIX.length()))).equals(properties.getProperty(name))) {
+                    return false;
+                }
+            }
+        } catch (IOException exception) {
+            // deleted files
+            return false;
+        }
+        return properties.containsKey(FILE_PREFIX + input.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Hash the input and the files it references, before they are read for generating the output. Files changed
+     * during the run are then regenerated by the next run.
+     */
+    void hashInputs() throws IOException {
+        inputHashes = hashFiles();
+    }
+
+    /**
+     * Record the input hashed by {@link #hashInputs()} and the output, after the output was written successfully.
+     */
+    void write() throws IOException {
+        if (inputHashes == null) {
+            throw new IOException("inputs could not be hashed before the run");
+        }
+
+        Properties properties = header();
+        properties.setProperty("output", hash(output));
+        inputHashes.forEach((file, hash) -> properties.setProperty(FILE_PREFIX + file, hash));
+
+        Path temporary = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+            properties.store(outputStream, "Generated by openapi-json-schema-generator, do not edit");
+        }
+        try {
+            Files.move(temporary, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Remove the manifest, e.g. when the output could not be generated.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(manifest);
+    }
+
+    private Properties header() {
+        Properties properties = new Properties();
+        properties.setProperty("format", String.valueOf(FORMAT_VERSION));
+        properties.setProperty("version", version);
+        options.forEach((name, value) -> properties.setProperty(OPTION_PREFIX + name, value));
+        return properties;
+    }
+
+    /**
+     * @return hashes of the input and the local files it references directly or indirectly, by absolute path
+     */
+    private Map<Path, String> hashFiles() throws IOException {
+        Map<Path, String> files = new LinkedHashMap<>();
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.add(input.toAbsolutePath().normalize());
+        while (!pending.isEmpty()) {
+            Path file = pending.poll();
+            if (files.containsKey(file)) {
+                continue;
+            }
+
+            // hash the scanned content, so hashes and references belong to the same version of the file
+            byte[] bytes = Files.readAllBytes(file);
+            files.put(file, Hashes.sha256Hex(bytes));
+            if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0x1F && (bytes[1] & 0xFF) == 0x8B) {
+                // gzip compressed, references are not scanned
+                continue;
+            }
+            Matcher matcher = REFERENCE.matcher(new String(bytes, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                String reference = matcher.group(1);
+                if (reference.contains(":/")) {
+                    continue;
+                }
+                try {
+                    Path referenced = file.resolveSibling(reference).normalize();
+                    if (Files.isRegularFile(referenced)) {
+                        pending.add(referenced);
+                    }
+                } catch (InvalidPathException exception) {
+                    // not a file
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String hash(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return Hashes.sha256Hex(inputStream);
+        }
+    }
+}
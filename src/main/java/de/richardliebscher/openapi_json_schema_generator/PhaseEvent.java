@@ -0,0 +1,19 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a phase of a generation run, see {@link Stats}.
+ */
+@Name("de.richardliebscher.openapi_json_schema_generator.Phase")
+@Label("Phase")
+@Category("OpenAPI JSON Schema Generator")
+@Description("Phase of a generation run like parsing, converting or writing")
+final class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+}
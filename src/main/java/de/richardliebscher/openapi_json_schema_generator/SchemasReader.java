@@ -0,0 +1,151 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads only the parts of an OpenAPI 3 document which are needed to convert component schemas: {@code openapi},
+ * {@code info} and {@code components.schemas}.
+ *
+ * <p>The document is read with a streaming parser and all other sections, like {@code paths}, are skipped at the token
+ * level, so parse time and heap depend on the size of the component schemas only. Documents which need the whole
+ * document to be interpreted correctly are not supported: Swagger 2 documents, YAML aliases and merge keys and
+ * references to other sections of the document.
+ */
+final class SchemasReader {
+    private static final String SCHEMA_REFERENCE_PREFIX = "#/components/schemas/";
+
+    private SchemasReader() {
+    }
+
+    /**
+     * @param inputStream buffered and decompressed document
+     * @param json whether the document is JSON, otherwise it is YAML
+     * @return reduced document with empty {@code paths} or {@code null} when the document is not supported and has
+     * to be read as a whole
+     */
+    static ObjectNode read(InputStream inputStream, boolean json) throws IOException {
+        ObjectMapper objectMapper = OutputFormat.JSON.getObjectMapper();
+        JsonFactory factory = json ? objectMapper.getFactory() : YamlFactoryHolder.FACTORY;
+        try (JsonParser parser = new SupportedFeaturesParser(factory.createParser(inputStream))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            ObjectNode document = JsonNodeFactory.instance.objectNode();
+            ObjectNode components = null;
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                if (name.equals("openapi") || name.equals("info")) {
+                    document.set(name, objectMapper.readTree(parser));
+                } else if (name.equals("components") && token == JsonToken.START_OBJECT) {
+                    components = readComponents(parser, objectMapper);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (!document.has("openapi")) {
+                // Swagger 2, converted by swagger-parser
+                return null;
+            }
+            document.putObject("paths");
+            document.set("components", components != null ? components : JsonNodeFactory.instance.objectNode());
+            return document;
+        } catch (UnsupportedFeatureException exception) {
+            return null;
+        }
+    }
+
+    private static ObjectNode readComponents(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+        ObjectNode components = JsonNodeFactory.instance.objectNode();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (name.equals("schemas")) {
+                components.set(name, objectMapper.readTree(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Fails on features in read values which are not supported. Skipped sections are not checked.
+     */
+    private static final class SupportedFeaturesParser extends JsonParserDelegate {
+        private boolean reference = false;
+
+        SupportedFeaturesParser(JsonParser parser) {
+            super(parser);
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            JsonToken token = delegate.nextToken();
+            if (delegate instanceof YAMLParser && ((YAMLParser) delegate).isCurrentAlias()) {
+                throw new UnsupportedFeatureException("YAML alias");
+            }
+
+            if (reference) {
+                reference = false;
+                if (token != JsonToken.VALUE_STRING || isOtherSection(delegate.getText())) {
+                    throw new UnsupportedFeatureException("reference to another section");
+                }
+            } else if (token == JsonToken.FIELD_NAME) {
+                String name = delegate.getCurrentName();
+                if (name.equals("<<")) {
+                    throw new UnsupportedFeatureException("YAML merge key");
+                }
+                reference = name.equals("$ref");
+            }
+            return token;
+        }
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            JsonToken token = nextToken();
+            return token == JsonToken.FIELD_NAME ? nextToken() : token;
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+            if (delegate.currentToken() == JsonToken.START_OBJECT || delegate.currentToken() == JsonToken.START_ARRAY) {
+                delegate.skipChildren();
+            }
+            reference = false;
+            return this;
+        }
+    }
+
+    /**
+     * @return whether the reference points to a section of the document which is skipped, references to other files
+     * are resolved later, see {@link ExternalReferences}
+     */
+    private static boolean isOtherSection(String $ref) {
+        return $ref.startsWith("#") && !$ref.startsWith(SCHEMA_REFERENCE_PREFIX);
+    }
+
+    private static final class UnsupportedFeatureException extends IOException {
+        UnsupportedFeatureException(String feature) {
+            super("Unsupported " + feature);
+        }
+    }
+
+    private static final class YamlFactoryHolder {
+        private static final YAMLFactory FACTORY = new YAMLFactory();
+    }
+}
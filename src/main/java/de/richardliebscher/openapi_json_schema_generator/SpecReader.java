@@ -0,0 +1,442 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.converter.SwaggerConverter;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import io.swagger.v3.parser.util.DeserializationUtils;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an OpenAPI specification from a location or standard input.
+ *
+ * <p>Local files and standard input are parsed as a stream, without reading the whole specification into a string
+ * first. Local files are memory-mapped and gzip compressed input is decompressed on the fly. Other locations like
+ * URLs are read by swagger-parser.
+ *
+ * <p>References of component schemas to other local files are resolved before parsing, see
+ * {@link ExternalReferences}.
+ *
+ * <p>OpenAPI 3 specifications are read by the OpenAPI 3 parser directly, the Swagger 2 converter is only loaded for
+ * Swagger 2 specifications. This keeps the startup time down.
+ */
+@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SpecReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    /**
+     * Shared by all readers, the parsers only read the options.
+     */
+    private static final ParseOptions PARSE_OPTIONS = createParseOptions();
+
+    private final Consumer<Message> warningsListener;
+
+    /**
+     * Read only {@code components.schemas} of local OpenAPI 3 specifications, see {@link SchemasReader}. Other
+     * sections are neither parsed nor validated. Specifications which are not supported are read as a whole.
+     */
+    @With
+    private boolean schemasOnly = false;
+
+    /**
+     * Number of threads to read files referenced by local specifications, see {@link ExternalReferences}.
+     */
+    @With
+    private int parallelism = 1;
+
+    /**
+     * Directory which resolves references of standard input or {@code null} for the working directory of the
+     * process. The daemon passes the one of the client.
+     */
+    @With
+    private Path workingDirectory = null;
+
+    /**
+     * Parse OpenAPI specification.
+     *
+     * @param input location of specification or {@code -} for {@code inputStream}
+     * @return parsed specification or {@code null} when it could not be read. Reasons are reported to the warnings
+     * listener.
+     */
+    public OpenAPI read(String input, InputStream inputStream) {
+        if (!isLocal(input)) {
+            return readLocation(input);
+        }
+
+        JsonNode document = readTree(input, inputStream);
+        return document != null ? parse(input, document) : null;
+    }
+
+    /**
+     * @return whether the specification is read from a local file or standard input, so {@link #readTree} can be
+     * used
+     */
+    public static boolean isLocal(String input) {
+        return input.equals("-") || toLocalFile(input) != null;
+    }
+
+    /**
+     * Read the document of a local specification without interpreting it.
+     *
+     * @param input local file or {@code -} for {@code inputStream}
+     * @return document, which only contains the component schemas with {@link #schemasOnly}, or {@code null} when it
+     * could not be read. Reasons are reported to the warnings listener.
+     */
+    public JsonNode readTree(String input, InputStream inputStream) {
+        Path localFile = toLocalFile(input);
+        JsonNode node;
+        try {
+            if (schemasOnly) {
+                node = readSchemasTree(localFile, inputStream);
+            } else {
+                node = localFile != null ? read(localFile, SpecReader::readTree) : readTree(inputStream);
+            }
+        } catch (IOException | YAMLException exception) {
+            warningsListener.accept(
+                    Message.error("Failed to read OpenAPI spec: " + exception.getMessage())
+                            .withCategory(Message.Category.PARSER));
+            return null;
+        }
+        if (node == null || !node.isObject()) {
+            warningsListener.accept(
+                    Message.error("Failed to parse OpenAPI spec").withCategory(Message.Category.PARSER));
+            return null;
+        }
+
+        if (isOpenApi3(node)) {
+            try {
+                Path directory = (workingDirectory != null ? workingDirectory : Path.of("")).toAbsolutePath();
+                new ExternalReferences(localFile, directory, SpecReader::readReferencedFile, parallelism)
+                        .resolve((ObjectNode) node);
+            } catch (IOException exception) {
+                warningsListener.accept(
+                        Message.error("Failed to resolve references: " + exception.getMessage())
+                                .withCategory(Message.Category.PARSER));
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Parse document of a local specification.
+     *
+     * @return parsed specification or {@code null} when it could not be parsed
+     */
+    public OpenAPI parse(String input, JsonNode document) {
+        if (isOpenApi3(document)) {
+            String location = input.equals("-") ? null : input;
+            return report(new OpenAPIV3Parser().parseJsonNode(location, document, PARSE_OPTIONS));
+        } else {
+            // let swagger-parser convert other versions
+            return report(new SwaggerConverter().readContents(document.toString(), null, PARSE_OPTIONS));
+        }
+    }
+
+    /**
+     * Parse only some component schemas of an OpenAPI 3 document.
+     *
+     * <p>Parser messages are only reported for the selected schemas.
+     *
+     * @param names names of component schemas to parse
+     * @return parsed component schemas in order of the document or {@code null} when they could not be parsed
+     */
+    @SuppressWarnings("rawtypes")
+    public Map<String, Schema> parseSchemas(String input, JsonNode document, Collection<String> names) {
+        ObjectNode schemas = JsonNodeFactory.instance.objectNode();
+        document.path("components").path("schemas").fields().forEachRemaining(entry -> {
+            if (names.contains(entry.getKey())) {
+                schemas.set(entry.getKey(), entry.getValue());
+            }
+        });
+
+        ObjectNode reduced = JsonNodeFactory.instance.objectNode();
+        reduced.set("openapi", document.get("openapi"));
+        reduced.set("info", document.get("info"));
+        reduced.putObject("paths");
+        reduced.putObject("components").set("schemas", schemas);
+
+        OpenAPI openAPI = parse(input, reduced);
+        if (openAPI == null) {
+            return null;
+        }
+        return openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null
+                ? openAPI.getComponents().getSchemas()
+                : new LinkedHashMap<>();
+    }
+
+    public static boolean isOpenApi3(JsonNode document) {
+        return document.has("openapi");
+    }
+
+    private OpenAPI readLocation(String input) {
+        SwaggerParseResult result = new OpenAPIV3Parser().readLocation(input, null, PARSE_OPTIONS);
+        if (result.getOpenAPI() == null) {
+            SwaggerParseResult converted = new SwaggerConverter().readLocation(input, null, PARSE_OPTIONS);
+            if (converted.getOpenAPI() != null) {
+                result = converted;
+            }
+        }
+        return report(result);
+    }
+
+    private OpenAPI report(SwaggerParseResult result) {
+        if (result.getMessages() != null) {
+            result.getMessages().forEach(
+                    w -> warningsListener.accept(Message.warning(w).withCategory(Message.Category.PARSER)));
+        }
+
+        OpenAPI openAPI = result.getOpenAPI();
+        if (openAPI == null) {
+            warningsListener.accept(
+                    Message.error("Failed to parse OpenAPI spec").withCategory(Message.Category.PARSER));
+        }
+        return openAPI;
+    }
+
+    private static ParseOptions createParseOptions() {
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolveCombinators(false);
+        parseOptions.setFlatten(false);
+        return parseOptions;
+    }
+
+    private static Path toLocalFile(String input) {
+        if (input.equals("-") || input.contains(":/")) {
+            return null;
+        }
+
+        try {
+            Path path = Paths.get(input);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (InvalidPathException exception) {
+            return null;
+        }
+    }
+
+    private static JsonNode read(Path file, DocumentReader reader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    return reader.read(inputStream);
+                }
+            }
+            return reader.read(new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)));
+        }
+    }
+
+    private static JsonNode readReferencedFile(Path file) throws IOException {
+        try {
+            return read(file, SpecReader::readTree);
+        } catch (YAMLException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    private static JsonNode readSchemasTree(Path file, InputStream inputStream) throws IOException {
+        if (file != null) {
+            JsonNode document = read(file, SpecReader::readSchemas);
+            return document != null ? document : read(file, SpecReader::readTree);
+        }
+
+        // standard input can only be read once, keep it for reading it as a whole
+        byte[] bytes = inputStream.readAllBytes();
+        JsonNode document = readSchemas(new ByteArrayInputStream(bytes));
+        return document != null ? document : readTree(new ByteArrayInputStream(bytes));
+    }
+
+    private static JsonNode readSchemas(InputStream inputStream) throws IOException {
+        InputStream buffered = decompress(inputStream);
+        return SchemasReader.read(buffered, isJson(buffered));
+    }
+
+    private static JsonNode readTree(InputStream inputStream) throws IOException {
+        InputStream buffered = decompress(inputStream);
+        if (isJson(buffered)) {
+            return OutputFormat.JSON.getObjectMapper().readTree(buffered);
+        } else {
+            // same as swagger-parser, which supports anchors and merge keys unlike Jackson
+            Object yaml = DeserializationUtils
+                    .buildSnakeYaml(new SafeConstructor(DeserializationUtils.buildLoaderOptions()))
+                    .load(new UnicodeReader(buffered));
+            if (DeserializationUtils.getOptions().isValidateYamlInput()) {
+                new YamlLimits(DeserializationUtils.getOptions()).check(yaml, 0);
+            }
+            return Json.mapper().convertValue(yaml, JsonNode.class);
+        }
+    }
+
+    private static InputStream decompress(InputStream inputStream) throws IOException {
+        InputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        if (isGzip(buffered)) {
+            buffered = new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return buffered;
+    }
+
+    static boolean isGzip(InputStream inputStream) throws IOException {
+        inputStream.mark(2);
+        int magic = inputStream.read() | (inputStream.read() << 8);
+        inputStream.reset();
+        return magic == GZIP_MAGIC;
+    }
+
+    private static boolean isJson(InputStream inputStream) throws IOException {
+        inputStream.mark(BUFFER_SIZE);
+        try {
+            for (int i = 0; i < BUFFER_SIZE; i++) {
+                int c = inputStream.read();
+                if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    return c == '{';
+                }
+            }
+            return false;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Limits of swagger-parser for loaded YAML, configured by system properties, see
+     * {@link DeserializationUtils.Options}.
+     *
+     * <p>Aliases share the loaded nodes, but the conversion to a tree copies them for every alias, so a small document
+     * can expand to a huge tree. Depth and size of the expanded tree are computed once per loaded node and checked
+     * before the conversion. swagger-parser falls back to Jackson for such documents, which keeps aliases as strings,
+     * so they are rejected here.
+     */
+    private static final class YamlLimits {
+        private static final long[] IN_PROGRESS = new long[0];
+
+        private final int maxDepth;
+        private final long maxReferences;
+        /**
+         * Size and height of the expanded tree of every collection.
+         */
+        private final Map<Object, long[]> expanded = new IdentityHashMap<>();
+
+        YamlLimits(DeserializationUtils.Options options) {
+            maxDepth = options.getMaxYamlDepth();
+            maxReferences = options.getMaxYamlReferences();
+        }
+
+        /**
+         * @return size and height of the expanded tree of the node, counting only collections
+         */
+        long[] check(Object node, int depth) {
+            if (!(node instanceof Map) && !(node instanceof Collection)) {
+                return new long[] { 0, 0 };
+            }
+
+            long[] result = expanded.get(node);
+            if (result == IN_PROGRESS) {
+                throw new YAMLException("YAML contains a recursive alias");
+            }
+            if (result == null) {
+                expanded.put(node, IN_PROGRESS);
+                result = new long[] { 1, 1 };
+                if (node instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                        add(result, check(entry.getKey(), depth + 1));
+                        add(result, check(entry.getValue(), depth + 1));
+                    }
+                } else {
+                    for (Object item : (Collection<?>) node) {
+                        add(result, check(item, depth + 1));
+                    }
+                }
+                expanded.put(node, result);
+            }
+
+            if (depth + result[1] > maxDepth) {
+                throw new YAMLException("YAML exceeds max depth " + maxDepth
+                        + ", can be increased with system property 'maxYamlDepth'");
+            }
+            return result;
+        }
+
+        private void add(long[] result, long[] child) {
+            result[0] += child[0];
+            result[1] = Math.max(result[1], child[1] + 1);
+            if (result[0] > maxReferences) {
+                throw new YAMLException("YAML expands to more than " + maxReferences
+                        + " nodes, can be increased with system property 'maxYamlReferences'");
+            }
+        }
+    }
+
+    private interface DocumentReader {
+        JsonNode read(InputStream inputStream) throws IOException;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
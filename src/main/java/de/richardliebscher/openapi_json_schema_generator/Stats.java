@@ -0,0 +1,227 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Timings and counters of generation runs for {@code --stats}.
+ *
+ * <p>Phases measure wall time and allocated bytes of the thread they run on. Nested phases are excluded from the outer
+ * phase, e.g. converting definitions while streaming them out is not counted as writing. Every phase is also recorded
+ * as {@link PhaseEvent} for the flight recorder, which does not need stats, see {@link #phase(Stats, String)}.
+ * Allocations of threads converting definitions in parallel are added
+ * to the convert phase. All methods are thread-safe, so batch mode can share one instance.
+ */
+public final class Stats {
+    public static final String PARSE = "parse";
+    public static final String CONVERT = "convert";
+    public static final String WRITE = "write";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final long start = System.nanoTime();
+    private final Map<String, PhaseTotals> phases = new LinkedHashMap<>();
+    private final ThreadLocal<Phase> currentPhase = new ThreadLocal<>();
+    private final LongAdder definitions = new LongAdder();
+    private final LongAdder references = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final Map<Message.Category, LongAdder> warnings = new LinkedHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    public Stats() {
+        // same order in every summary
+        for (String phase : new String[]{PARSE, CONVERT, WRITE}) {
+            phases.put(phase, new PhaseTotals());
+        }
+        for (Message.Category category : Message.Category.values()) {
+            warnings.put(category, new LongAdder());
+        }
+    }
+
+    /**
+     * Start phase on the current thread for stats and the flight recorder, ends when closed.
+     *
+     * @param stats stats to add the phase to or {@code null} to only record the event
+     * @return phase or {@code null} when neither stats nor the flight recorder record it
+     */
+    public static Phase phase(Stats stats, String name) {
+        PhaseEvent event = enabledEvent(name);
+        return stats != null || event != null ? new Phase(stats, name, event) : null;
+    }
+
+    /**
+     * @return started event or {@code null} when the flight recorder does not record phases
+     */
+    private static PhaseEvent enabledEvent(String name) {
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.phase = name;
+        event.begin();
+        return event;
+    }
+
+    public void definitionConverted() {
+        definitions.increment();
+    }
+
+    public void referenceRewritten() {
+        references.increment();
+    }
+
+    public void addOutputBytes(long bytes) {
+        outputBytes.add(bytes);
+    }
+
+    /**
+     * Add bytes allocated by another thread for a phase.
+     */
+    public void addAllocatedBytes(String phase, long bytes) {
+        if (bytes > 0) {
+            synchronized (phases) {
+                phases.computeIfAbsent(phase, name -> new PhaseTotals()).allocatedBytes += bytes;
+            }
+        }
+    }
+
+    /**
+     * @return listener counting messages before passing them on
+     */
+    public Consumer<Message> countMessages(Consumer<Message> warningsListener) {
+        return message -> {
+            if (message.severity == Message.Severity.ERROR) {
+                errors.increment();
+            } else if (message.severity == Message.Severity.WARNING) {
+                warnings.get(message.category).increment();
+            }
+            warningsListener.accept(message);
+        };
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far or {@code -1} when not supported by the JVM
+     */
+    public static long allocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Write summary as JSON. Does not close the stream.
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("wallTimeMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        ObjectNode phasesNode = summary.putObject("phases");
+        synchronized (phases) {
+            phases.forEach((name, totals) -> {
+                ObjectNode phaseNode = phasesNode.putObject(name);
+                phaseNode.put("wallTimeMillis", TimeUnit.NANOSECONDS.toMillis(totals.wallTimeNanos));
+                if (allocatedBytes() >= 0) {
+                    phaseNode.put("allocatedBytes", totals.allocatedBytes);
+                } else {
+                    phaseNode.putNull("allocatedBytes");
+                }
+            });
+        }
+        summary.put("definitions", definitions.sum());
+        summary.put("references", references.sum());
+        ObjectNode warningsNode = summary.putObject("warnings");
+        warnings.forEach((category, count) -> warningsNode.put(category.name().toLowerCase(), count.sum()));
+        summary.put("errors", errors.sum());
+        summary.put("outputBytes", outputBytes.sum());
+
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(outputStream, summary);
+    }
+
+    private void add(String name, long wallTimeNanos, long allocatedBytes) {
+        synchronized (phases) {
+            PhaseTotals totals = phases.computeIfAbsent(name, key -> new PhaseTotals());
+            totals.wallTimeNanos += wallTimeNanos;
+            totals.allocatedBytes += allocatedBytes;
+        }
+    }
+
+    /**
+     * Running phase.
+     */
+    public static final class Phase implements AutoCloseable {
+        private final Stats stats;
+        private final String name;
+        private final Phase parent;
+        private final PhaseEvent event;
+        private long wallTimeNanos;
+        private long allocatedBytes;
+        private long resumed;
+        private long resumedAllocatedBytes;
+
+        private Phase(Stats stats, String name, PhaseEvent event) {
+            this.stats = stats;
+            this.name = name;
+            this.event = event;
+            if (stats == null) {
+                this.parent = null;
+                return;
+            }
+
+            this.parent = stats.currentPhase.get();
+            if (parent != null) {
+                parent.pause();
+            }
+            stats.currentPhase.set(this);
+            resume();
+        }
+
+        private void pause() {
+            wallTimeNanos += System.nanoTime() - resumed;
+            allocatedBytes += Math.max(0, allocatedBytes() - resumedAllocatedBytes);
+        }
+
+        private void resume() {
+            resumed = System.nanoTime();
+            resumedAllocatedBytes = allocatedBytes();
+        }
+
+        @Override
+        public void close() {
+            if (event != null && event.shouldCommit()) {
+                event.commit();
+            }
+            if (stats == null) {
+                return;
+            }
+
+            pause();
+            stats.add(name, wallTimeNanos, allocatedBytes);
+            if (parent != null) {
+                stats.currentPhase.set(parent);
+                parent.resume();
+            } else {
+                stats.currentPhase.remove();
+            }
+        }
+    }
+
+    private static final class PhaseTotals {
+        private long wallTimeNanos;
+        private long allocatedBytes;
+    }
+}
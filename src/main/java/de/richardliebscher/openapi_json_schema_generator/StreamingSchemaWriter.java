@@ -0,0 +1,60 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.Components;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the JSON schema of a specification while converting it.
+ *
+ * <p>Produces the same output as serializing the result of {@link Converter#convert(Components, String)}, but every
+ * definition is written as soon as it is converted and dropped afterwards. So memory usage depends on the largest
+ * definition and not on the whole specification.
+ */
+@RequiredArgsConstructor
+public class StreamingSchemaWriter {
+    private final Converter converter;
+    /**
+     * Writer for single definitions. Must not have a pretty printer configured, because it would replace the one of
+     * the generator in the middle of the document.
+     */
+    private final ObjectWriter definitionWriter;
+
+    public void write(JsonGenerator generator, Components components, String mainSchema) throws IOException {
+        // same property order as JsonSchema
+        JsonSchema root = converter.bundle(null, mainSchema);
+        generator.writeStartObject();
+        generator.writeStringField("$schema", root.$schema);
+
+        generator.writeFieldName(converter.getJsonSchemaDraft().definitionsKeyword());
+        generator.writeStartObject();
+        try {
+            converter.convertDefinitions(
+                    components,
+                    converter.definitionNames(components, mainSchema),
+                    (name, definition) -> writeDefinition(generator, name, definition));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        generator.writeEndObject();
+
+        if (root.$ref != null) {
+            generator.writeStringField("$ref", root.$ref);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeDefinition(JsonGenerator generator, String name, JsonSchema definition) {
+        try {
+            generator.writeFieldName(name);
+            definitionWriter.writeValue(generator, definition);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
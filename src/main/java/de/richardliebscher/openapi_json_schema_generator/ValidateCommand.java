@@ -0,0 +1,332 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.validator.JsonSchemaValidator;
+import de.richardliebscher.openapi_json_schema_generator.validator.ValidationError;
+import io.swagger.v3.oas.models.OpenAPI;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.With;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static io.swagger.v3.oas.models.Components.COMPONENTS_SCHEMAS_REF;
+
+/**
+ * Validates newline delimited JSON records against the JSON schema of a component schema, converted in memory.
+ *
+ * <p>Records are read in chunks of whole lines, which are validated in parallel. Errors are reported in the order of
+ * the records, and only a few chunks are read ahead, so memory usage does not depend on the size of the data.
+ */
+@RequiredArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ValidateCommand {
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final JsonFactory JSON_FACTORY = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .getFactory();
+
+    private final String input;
+    private final String mainSchema;
+    private final InputStream inputStream;
+    /**
+     * File with records or {@code -} for the input stream. Gzip compressed files are decompressed on the fly.
+     */
+    private final String data;
+    /**
+     * Receives one line per error.
+     */
+    private final PrintStream out;
+    private final Converter converter;
+    private final Consumer<Message> warningsListener;
+
+    @With
+    private int parallelism = 1;
+
+    /**
+     * Errors to report, further errors are only counted.
+     */
+    @With
+    private long maxErrors = 100;
+
+    /**
+     * Directory which resolves references of standard input, see {@link SpecReader#withWorkingDirectory(Path)}.
+     */
+    @With
+    private Path workingDirectory = null;
+
+    public Result run() {
+        OpenAPI openAPI = new SpecReader(warningsListener)
+                .withWorkingDirectory(workingDirectory)
+                .read(input, inputStream);
+        if (openAPI == null) {
+            return new Result(2);
+        }
+        String name = mainSchema.startsWith(COMPONENTS_SCHEMAS_REF)
+                ? mainSchema.substring(COMPONENTS_SCHEMAS_REF.length())
+                : mainSchema;
+        if (!openAPI.getComponents().getSchemas().containsKey(name)) {
+            warningsListener.accept(Message.error("Unknown component schema: " + name));
+            return new Result(2);
+        }
+
+        JsonSchema jsonSchema = converter.convert(openAPI.getComponents(), name);
+        JsonSchemaValidator validator;
+        try {
+            validator = JsonSchemaValidator.compile(jsonSchema);
+        } catch (IllegalArgumentException exception) {
+            warningsListener.accept(Message.error("Failed to compile schema: " + exception.getMessage()));
+            return new Result(2);
+        }
+
+        long start = System.nanoTime();
+        Result result = new Result(0);
+        try (InputStream dataStream = openData()) {
+            validate(validator, dataStream, result);
+        } catch (IOException exception) {
+            warningsListener.accept(Message.error("Failed to read " + data + ": " + exception.getMessage()));
+            return new Result(2);
+        }
+        out.flush();
+        result.nanos = System.nanoTime() - start;
+        result.exitCode = result.invalidRecords > 0 ? 1 : 0;
+        return result;
+    }
+
+    private InputStream openData() throws IOException {
+        InputStream stream = new BufferedInputStream(
+                data.equals("-") ? inputStream : Files.newInputStream(Path.of(data)), CHUNK_SIZE);
+        return SpecReader.isGzip(stream) ? new GZIPInputStream(stream, CHUNK_SIZE) : stream;
+    }
+
+    private void validate(JsonSchemaValidator validator, InputStream dataStream, Result result) throws IOException {
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        int window = parallelism * 4;
+        ChunkReader reader = new ChunkReader(dataStream);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+                Chunk chunk;
+                while (pending.size() < window && (chunk = reader.next()) != null) {
+                    Chunk submitted = chunk;
+                    pending.add(pool.submit(() -> submitted.validate(validator)));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                report(pending.remove().get(), result);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating records", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Validating records failed unexpectedly", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Write errors of the chunk and add its counts, chunks are reported in order on the calling thread.
+     */
+    private void report(Chunk chunk, Result result) {
+        for (Chunk.RecordError error : chunk.errors) {
+            if (result.reportedErrors == maxErrors) {
+                break;
+            }
+            out.printf("line %d: %s%n", result.lines + error.line, error.message);
+            result.reportedErrors++;
+        }
+        result.lines += chunk.lines;
+        result.records += chunk.records;
+        result.invalidRecords += chunk.invalidRecords;
+        result.errors += chunk.errorCount;
+    }
+
+    @Getter
+    public static final class Result {
+        /**
+         * {@code 0} when all records are valid, {@code 1} when some are invalid, {@code 2} when the specification or
+         * the data could not be read.
+         */
+        private int exitCode;
+        /**
+         * Non-blank lines.
+         */
+        private long records;
+        private long invalidRecords;
+        private long errors;
+        private long nanos;
+        @Getter(AccessLevel.NONE)
+        private long lines;
+        @Getter(AccessLevel.NONE)
+        private long reportedErrors;
+
+        private Result(int exitCode) {
+            this.exitCode = exitCode;
+        }
+
+        /**
+         * @return throughput and counts for humans
+         */
+        @Override
+        public String toString() {
+            double seconds = Math.max(nanos, 1) / 1e9;
+            return String.format("Validated %d records in %.2f s (%.0f records/s): %d invalid, %d errors",
+                    records, seconds, records / seconds, invalidRecords, errors);
+        }
+    }
+
+    /**
+     * Whole lines of the data.
+     */
+    private final class Chunk {
+        private final byte[] bytes;
+        private final int length;
+        private int lines;
+        private int records;
+        private int invalidRecords;
+        private int errorCount;
+        /**
+         * At most {@link #maxErrors}, to bound the memory of pending chunks.
+         */
+        private final List<RecordError> errors = new ArrayList<>();
+
+        private Chunk(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        private Chunk validate(JsonSchemaValidator validator) throws IOException {
+            int start = 0;
+            while (start < length) {
+                int end = start;
+                while (end < length && bytes[end] != '\n') {
+                    end++;
+                }
+                lines++;
+                validateLine(validator, start, end - start);
+                start = end + 1;
+            }
+            return this;
+        }
+
+        private void validateLine(JsonSchemaValidator validator, int offset, int length) throws IOException {
+            List<String> messages = new ArrayList<>(0);
+            try (JsonParser parser = JSON_FACTORY.createParser(bytes, offset, length)) {
+                if (parser.nextToken() == null) {
+                    return; // blank line
+                }
+                for (ValidationError error : validator.validate(parser)) {
+                    messages.add(error.toString());
+                }
+                if (parser.nextToken() != null) {
+                    messages.add("unexpected content after record");
+                }
+            } catch (JsonProcessingException exception) {
+                messages.add("invalid JSON: " + exception.getOriginalMessage());
+            }
+
+            records++;
+            if (!messages.isEmpty()) {
+                invalidRecords++;
+                errorCount += messages.size();
+                for (String message : messages) {
+                    if (errors.size() < maxErrors) {
+                        errors.add(new RecordError(lines, message));
+                    }
+                }
+            }
+        }
+
+        private final class RecordError {
+            /**
+             * 1-based line in the chunk.
+             */
+            private final int line;
+            private final String message;
+
+            private RecordError(int line, String message) {
+                this.line = line;
+                this.message = message;
+            }
+        }
+    }
+
+    /**
+     * Splits the data into chunks of about {@link #CHUNK_SIZE} bytes at line ends.
+     */
+    private final class ChunkReader {
+        private final InputStream inputStream;
+        private byte[] remainder = new byte[0];
+        private int remainderLength;
+        private boolean eof;
+
+        private ChunkReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private Chunk next() throws IOException {
+            if (eof && remainderLength == 0) {
+                return null;
+            }
+
+            byte[] buffer = Arrays.copyOf(remainder, Math.max(CHUNK_SIZE, remainderLength * 2));
+            int length = remainderLength;
+            int searched = 0;
+            while (true) {
+                while (!eof && length < buffer.length) {
+                    int read = inputStream.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        length += read;
+                    }
+                }
+
+                int end = lastLineEnd(buffer, searched, length);
+                if (end >= 0 || eof) {
+                    int chunkLength = end >= 0 ? end + 1 : length;
+                    remainderLength = length - chunkLength;
+                    remainder = Arrays.copyOfRange(buffer, chunkLength, chunkLength + remainderLength);
+                    return new Chunk(buffer, chunkLength);
+                }
+                // record larger than the buffer
+                searched = length;
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+
+        private int lastLineEnd(byte[] buffer, int from, int to) {
+            for (int i = to - 1; i >= from; i--) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
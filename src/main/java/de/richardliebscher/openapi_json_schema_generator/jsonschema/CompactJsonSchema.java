@@ -0,0 +1,319 @@
+package de.richardliebscher.openapi_json_schema_generator.jsonschema;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable compact form of a {@link JsonSchema}, which is serialized to exactly the same JSON.
+ *
+ * <p>A converted schema only sets a few of the keywords of {@link JsonSchema}, so most of its fields are {@code null}.
+ * This form stores a bit mask of the set keywords and their values in a dense array in the order of
+ * {@link JsonSchemaKeyword}. Types are encoded as 3 bits per type in an {@code int}, maps as alternating names and
+ * values and lists as arrays, so they need no wrapper objects. Values which are shared, like numeric bounds and JSON
+ * nodes, are not copied.
+ */
+@JsonSerialize(using = CompactJsonSchema.Serializer.class)
+public final class CompactJsonSchema {
+    private static final int TYPE_BITS = 3;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final JsonSchemaDataType[] TYPES = JsonSchemaDataType.values();
+
+    private final long keywords;
+    /**
+     * Types in order, each as its ordinal plus 1, the first one in the lowest bits.
+     */
+    private final int types;
+    private final Object[] values;
+
+    private CompactJsonSchema(long keywords, int types, Object[] values) {
+        this.keywords = keywords;
+        this.types = types;
+        this.values = values;
+    }
+
+    /**
+     * @return compact form of the schema and all its subschemas or {@code null} for {@code null}
+     */
+    public static CompactJsonSchema of(JsonSchema schema) {
+        if (schema == null) {
+            return null;
+        }
+        return new Builder().build(schema, null);
+    }
+
+    /**
+     * Compact form of a root schema created for already compact definitions, see {@code Converter#bundle}.
+     *
+     * @param root root schema with empty {@code $defs} or {@code definitions}
+     */
+    public static CompactJsonSchema bundle(JsonSchema root, Map<String, CompactJsonSchema> definitions) {
+        return new Builder().build(root, definitions);
+    }
+
+    private boolean has(JsonSchemaKeyword keyword) {
+        return (keywords & bit(keyword)) != 0;
+    }
+
+    private static long bit(JsonSchemaKeyword keyword) {
+        return 1L << keyword.ordinal();
+    }
+
+    private static int typeCount(int types) {
+        int count = 0;
+        for (int rest = types; rest != 0; rest >>>= TYPE_BITS) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compacts a schema and all its subschemas. Values of a schema are collected on a stack shared by all subschemas,
+     * so only the compact objects themselves are allocated. Unrolled for speed, in the order of
+     * {@link JsonSchemaKeyword}.
+     */
+    private static final class Builder {
+        private Object[] stack = new Object[JsonSchemaKeyword.VALUES.length];
+        private int top;
+
+        CompactJsonSchema build(JsonSchema schema, Map<String, CompactJsonSchema> definitions) {
+            int start = top;
+            long keywords = 0;
+            keywords |= add(JsonSchemaKeyword.$SCHEMA, schema.$schema);
+            keywords |= add(JsonSchemaKeyword.$ID, schema.$id);
+            keywords |= add(JsonSchemaKeyword.DEFINITIONS, definitions != null && schema.definitions != null
+                    ? toArray(definitions) : schemaMap(schema.definitions));
+            keywords |= add(JsonSchemaKeyword.$DEFS, definitions != null && schema.$defs != null
+                    ? toArray(definitions) : schemaMap(schema.$defs));
+            keywords |= add(JsonSchemaKeyword.$REF, schema.$ref);
+            keywords |= add(JsonSchemaKeyword.TITLE, schema.title);
+            keywords |= add(JsonSchemaKeyword.DESCRIPTION, schema.description);
+            keywords |= add(JsonSchemaKeyword.READ_ONLY, schema.readOnly);
+            keywords |= add(JsonSchemaKeyword.WRITE_ONLY, schema.writeOnly);
+            keywords |= add(JsonSchemaKeyword.DEPRECATED, schema.deprecated);
+            int types = types(schema.type);
+            if (schema.type != null) {
+                keywords |= bit(JsonSchemaKeyword.TYPE);
+            }
+            keywords |= add(JsonSchemaKeyword.ALL_OF, schemaList(schema.allOf));
+            keywords |= add(JsonSchemaKeyword.ANY_OF, schemaList(schema.anyOf));
+            keywords |= add(JsonSchemaKeyword.ONE_OF, schemaList(schema.oneOf));
+            keywords |= add(JsonSchemaKeyword.NOT, compact(schema.not));
+            keywords |= add(JsonSchemaKeyword.THEN, compact(schema.then));
+            keywords |= add(JsonSchemaKeyword.MIN_LENGTH, schema.minLength);
+            keywords |= add(JsonSchemaKeyword.MAX_LENGTH, schema.maxLength);
+            keywords |= add(JsonSchemaKeyword.PATTERN, schema.pattern);
+            keywords |= add(JsonSchemaKeyword.FORMAT, schema.format);
+            keywords |= add(JsonSchemaKeyword.CONTENT_MEDIA_TYPE, schema.contentMediaType);
+            keywords |= add(JsonSchemaKeyword.CONTENT_ENCODING, schema.contentEncoding);
+            keywords |= add(JsonSchemaKeyword.MULTIPLE_OF, schema.multipleOf);
+            keywords |= add(JsonSchemaKeyword.MINIMUM, schema.minimum);
+            keywords |= add(JsonSchemaKeyword.EXCLUSIVE_MINIMUM, schema.exclusiveMinimum);
+            keywords |= add(JsonSchemaKeyword.MAXIMUM, schema.maximum);
+            keywords |= add(JsonSchemaKeyword.EXCLUSIVE_MAXIMUM, schema.exclusiveMaximum);
+            keywords |= add(JsonSchemaKeyword.PROPERTIES, schemaMap(schema.properties));
+            keywords |= add(JsonSchemaKeyword.ADDITIONAL_PROPERTIES, schema.additionalProperties instanceof JsonSchema
+                    ? compact((JsonSchema) schema.additionalProperties) : schema.additionalProperties);
+            keywords |= add(JsonSchemaKeyword.REQUIRED, list(schema.required));
+            keywords |= add(JsonSchemaKeyword.PROPERTY_NAMES, compact(schema.propertyNames));
+            keywords |= add(JsonSchemaKeyword.MIN_PROPERTIES, schema.minProperties);
+            keywords |= add(JsonSchemaKeyword.MAX_PROPERTIES, schema.maxProperties);
+            keywords |= add(JsonSchemaKeyword.PATTERN_PROPERTIES, schemaMap(schema.patternProperties));
+            keywords |= add(JsonSchemaKeyword.ITEMS, compact(schema.items));
+            keywords |= add(JsonSchemaKeyword.CONTAINS, compact(schema.contains));
+            keywords |= add(JsonSchemaKeyword.MIN_ITEMS, schema.minItems);
+            keywords |= add(JsonSchemaKeyword.MAX_ITEMS, schema.maxItems);
+            keywords |= add(JsonSchemaKeyword.UNIQUE_ITEMS, schema.uniqueItems);
+            keywords |= add(JsonSchemaKeyword.DEFAULT, schema.default_);
+            keywords |= add(JsonSchemaKeyword.EXAMPLES, list(schema.examples));
+            keywords |= add(JsonSchemaKeyword.ENUM, list(schema.enum_));
+            keywords |= add(JsonSchemaKeyword.CONST, schema.const_);
+            keywords |= add(JsonSchemaKeyword.IF, compact(schema.if_));
+            keywords |= add(JsonSchemaKeyword.ELSE, compact(schema.else_));
+
+            Object[] values = Arrays.copyOfRange(stack, start, top);
+            Arrays.fill(stack, start, top, null);
+            top = start;
+            return new CompactJsonSchema(keywords, types, values);
+        }
+
+        private CompactJsonSchema compact(JsonSchema schema) {
+            return schema != null ? build(schema, null) : null;
+        }
+
+        private long add(JsonSchemaKeyword keyword, Object value) {
+            if (value == null) {
+                return 0;
+            }
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = value;
+            return bit(keyword);
+        }
+
+        private static int types(List<JsonSchemaDataType> types) {
+            if (types == null) {
+                return 0;
+            }
+            if (types.size() * TYPE_BITS > Integer.SIZE - 1) {
+                throw new IllegalArgumentException("Too many types: " + types);
+            }
+            int encoded = 0;
+            for (int i = types.size() - 1; i >= 0; i--) {
+                encoded = (encoded << TYPE_BITS) | (types.get(i).ordinal() + 1);
+            }
+            return encoded;
+        }
+
+        private static Object[] list(List<?> list) {
+            return list != null ? list.toArray() : null;
+        }
+
+        private Object[] schemaList(List<JsonSchema> schemas) {
+            if (schemas == null) {
+                return null;
+            }
+            Object[] result = new Object[schemas.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = compact(schemas.get(i));
+            }
+            return result;
+        }
+
+        private Object[] schemaMap(Map<String, JsonSchema> schemas) {
+            if (schemas == null) {
+                return null;
+            }
+            Object[] result = new Object[schemas.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, JsonSchema> entry : schemas.entrySet()) {
+                result[i++] = entry.getKey();
+                result[i++] = compact(entry.getValue());
+            }
+            return result;
+        }
+
+        private static Object[] toArray(Map<String, CompactJsonSchema> schemas) {
+            Object[] result = new Object[schemas.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, CompactJsonSchema> entry : schemas.entrySet()) {
+                result[i++] = entry.getKey();
+                result[i++] = entry.getValue();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Writes the same tokens as the bean serializer of {@link JsonSchema} with {@code NON_NULL} inclusion, also with
+     * {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS}.
+     */
+    static final class Serializer extends StdSerializer<CompactJsonSchema> {
+        Serializer() {
+            super(CompactJsonSchema.class);
+        }
+
+        @Override
+        public void serialize(CompactJsonSchema schema, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(schema);
+            int index = 0;
+            for (JsonSchemaKeyword keyword : JsonSchemaKeyword.VALUES) {
+                if (!schema.has(keyword)) {
+                    continue;
+                }
+
+                generator.writeFieldName(keyword.name);
+                if (keyword.kind == JsonSchemaKeyword.Kind.TYPES) {
+                    writeTypes(schema.types, generator);
+                    continue;
+                }
+
+                Object value = schema.values[index++];
+                switch (keyword.kind) {
+                    case STRING:
+                        generator.writeString((String) value);
+                        break;
+                    case LIST:
+                        Object[] items = (Object[]) value;
+                        generator.writeStartArray(items, items.length);
+                        for (Object item : items) {
+                            writeValue(item, generator, provider);
+                        }
+                        generator.writeEndArray();
+                        break;
+                    case SCHEMA_MAP:
+                        Object[] entries = (Object[]) value;
+                        if (provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)) {
+                            entries = sortByKey(entries);
+                        }
+                        generator.writeStartObject(entries);
+                        for (int i = 0; i < entries.length; i += 2) {
+                            // NON_NULL also applies to map values
+                            if (entries[i + 1] != null) {
+                                generator.writeFieldName((String) entries[i]);
+                                writeValue(entries[i + 1], generator, provider);
+                            }
+                        }
+                        generator.writeEndObject();
+                        break;
+                    default:
+                        writeValue(value, generator, provider);
+                        break;
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeValue(Object value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof CompactJsonSchema) {
+                serialize((CompactJsonSchema) value, generator, provider);
+            } else if (value instanceof String) {
+                generator.writeString((String) value);
+            } else if (value instanceof Integer) {
+                generator.writeNumber((Integer) value);
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else {
+                provider.defaultSerializeValue(value, generator);
+            }
+        }
+
+        private static Object[] sortByKey(Object[] entries) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (int i = 0; i < entries.length; i += 2) {
+                sorted.put((String) entries[i], entries[i + 1]);
+            }
+            Object[] result = new Object[entries.length];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                result[i++] = entry.getKey();
+                result[i++] = entry.getValue();
+            }
+            return result;
+        }
+
+        private static void writeTypes(int types, JsonGenerator generator) throws IOException {
+            generator.writeStartArray(null, typeCount(types));
+            for (int rest = types; rest != 0; rest >>>= TYPE_BITS) {
+                generator.writeString(TYPES[(rest & TYPE_MASK) - 1].value);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
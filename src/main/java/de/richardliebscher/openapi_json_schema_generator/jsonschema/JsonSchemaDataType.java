@@ -11,6 +11,8 @@ public enum JsonSchemaDataType {
     BOOLEAN("boolean"),
     NULL("null");
 
+    private static final JsonSchemaDataType[] VALUES = values();
+
     @JsonValue
     public final String value;
 
@@ -23,7 +25,7 @@ public enum JsonSchemaDataType {
             return null;
         }
 
-        for (JsonSchemaDataType v : JsonSchemaDataType.values()) {
+        for (JsonSchemaDataType v : VALUES) {
             if (v.value.equals(value)) {
                 return v;
             }
@@ -0,0 +1,81 @@
+package de.richardliebscher.openapi_json_schema_generator.jsonschema;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Keywords of {@link JsonSchema} in the order of the bean serializer: fields in declaration order, but the ones
+ * renamed with {@code @JsonProperty} last.
+ *
+ * <p>This is the only list of the names and the order. {@link JsonSchemaSerializer} and the builder of
+ * {@link CompactJsonSchema} handle the keywords unrolled for speed, in the same order. A field added to
+ * {@link JsonSchema} needs a keyword here and a line in both, the tests comparing them with the bean serializer fail
+ * otherwise.
+ */
+enum JsonSchemaKeyword {
+    $SCHEMA("$schema", Kind.STRING),
+    $ID("$id", Kind.STRING),
+    DEFINITIONS("definitions", Kind.SCHEMA_MAP),
+    $DEFS("$defs", Kind.SCHEMA_MAP),
+    $REF("$ref", Kind.STRING),
+    TITLE("title", Kind.STRING),
+    DESCRIPTION("description", Kind.STRING),
+    READ_ONLY("readOnly", Kind.VALUE),
+    WRITE_ONLY("writeOnly", Kind.VALUE),
+    DEPRECATED("deprecated", Kind.VALUE),
+    TYPE("type", Kind.TYPES),
+    ALL_OF("allOf", Kind.LIST),
+    ANY_OF("anyOf", Kind.LIST),
+    ONE_OF("oneOf", Kind.LIST),
+    NOT("not", Kind.VALUE),
+    THEN("then", Kind.VALUE),
+    MIN_LENGTH("minLength", Kind.VALUE),
+    MAX_LENGTH("maxLength", Kind.VALUE),
+    PATTERN("pattern", Kind.STRING),
+    FORMAT("format", Kind.STRING),
+    CONTENT_MEDIA_TYPE("contentMediaType", Kind.STRING),
+    CONTENT_ENCODING("contentEncoding", Kind.STRING),
+    MULTIPLE_OF("multipleOf", Kind.VALUE),
+    MINIMUM("minimum", Kind.VALUE),
+    EXCLUSIVE_MINIMUM("exclusiveMinimum", Kind.VALUE),
+    MAXIMUM("maximum", Kind.VALUE),
+    EXCLUSIVE_MAXIMUM("exclusiveMaximum", Kind.VALUE),
+    PROPERTIES("properties", Kind.SCHEMA_MAP),
+    ADDITIONAL_PROPERTIES("additionalProperties", Kind.VALUE),
+    REQUIRED("required", Kind.LIST),
+    PROPERTY_NAMES("propertyNames", Kind.VALUE),
+    MIN_PROPERTIES("minProperties", Kind.VALUE),
+    MAX_PROPERTIES("maxProperties", Kind.VALUE),
+    PATTERN_PROPERTIES("patternProperties", Kind.SCHEMA_MAP),
+    ITEMS("items", Kind.VALUE),
+    CONTAINS("contains", Kind.VALUE),
+    MIN_ITEMS("minItems", Kind.VALUE),
+    MAX_ITEMS("maxItems", Kind.VALUE),
+    UNIQUE_ITEMS("uniqueItems", Kind.VALUE),
+    DEFAULT("default", Kind.VALUE),
+    EXAMPLES("examples", Kind.LIST),
+    ENUM("enum", Kind.LIST),
+    CONST("const", Kind.VALUE),
+    IF("if", Kind.VALUE),
+    ELSE("else", Kind.VALUE);
+
+    static final JsonSchemaKeyword[] VALUES = values();
+
+    final SerializedString name;
+    final Kind kind;
+
+    JsonSchemaKeyword(String name, Kind kind) {
+        this.name = new SerializedString(name);
+        this.kind = kind;
+    }
+
+    enum Kind {
+        STRING,
+        /**
+         * Number, boolean, JSON node or schema.
+         */
+        VALUE,
+        LIST,
+        SCHEMA_MAP,
+        TYPES
+    }
+}
@@ -0,0 +1,255 @@
+package de.richardliebscher.openapi_json_schema_generator.jsonschema;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Writes a {@link JsonSchema} directly to the generator, without bean introspection.
+ *
+ * <p>The output is the same as the one of the bean serializer with {@code NON_NULL} inclusion: keywords in the order
+ * of {@link JsonSchemaKeyword} and {@code null} values of maps skipped. Map entries are sorted by key with
+ * {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS}, like the bean serializer does. Mappers without this
+ * serializer use the bean serializer, see {@code OutputFormat#createObjectMapper(boolean)}.
+ */
+public final class JsonSchemaSerializer extends StdSerializer<JsonSchema> {
+
+    public JsonSchemaSerializer() {
+        super(JsonSchema.class);
+    }
+
+    @Override
+    public void serialize(JsonSchema schema, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        // unrolled for speed, in the order of JsonSchemaKeyword
+        generator.writeStartObject(schema);
+        writeString(generator, JsonSchemaKeyword.$SCHEMA, schema.$schema);
+        writeString(generator, JsonSchemaKeyword.$ID, schema.$id);
+        writeSchemaMap(generator, provider, JsonSchemaKeyword.DEFINITIONS, schema.definitions);
+        writeSchemaMap(generator, provider, JsonSchemaKeyword.$DEFS, schema.$defs);
+        writeString(generator, JsonSchemaKeyword.$REF, schema.$ref);
+        writeString(generator, JsonSchemaKeyword.TITLE, schema.title);
+        writeString(generator, JsonSchemaKeyword.DESCRIPTION, schema.description);
+        writeBoolean(generator, JsonSchemaKeyword.READ_ONLY, schema.readOnly);
+        writeBoolean(generator, JsonSchemaKeyword.WRITE_ONLY, schema.writeOnly);
+        writeBoolean(generator, JsonSchemaKeyword.DEPRECATED, schema.deprecated);
+        writeTypes(generator, schema.type);
+        writeSchemaList(generator, provider, JsonSchemaKeyword.ALL_OF, schema.allOf);
+        writeSchemaList(generator, provider, JsonSchemaKeyword.ANY_OF, schema.anyOf);
+        writeSchemaList(generator, provider, JsonSchemaKeyword.ONE_OF, schema.oneOf);
+        writeSchema(generator, provider, JsonSchemaKeyword.NOT, schema.not);
+        writeSchema(generator, provider, JsonSchemaKeyword.THEN, schema.then);
+        writeInteger(generator, JsonSchemaKeyword.MIN_LENGTH, schema.minLength);
+        writeInteger(generator, JsonSchemaKeyword.MAX_LENGTH, schema.maxLength);
+        writeString(generator, JsonSchemaKeyword.PATTERN, schema.pattern);
+        writeString(generator, JsonSchemaKeyword.FORMAT, schema.format);
+        writeString(generator, JsonSchemaKeyword.CONTENT_MEDIA_TYPE, schema.contentMediaType);
+        writeString(generator, JsonSchemaKeyword.CONTENT_ENCODING, schema.contentEncoding);
+        writeNumber(generator, JsonSchemaKeyword.MULTIPLE_OF, schema.multipleOf);
+        writeNumber(generator, JsonSchemaKeyword.MINIMUM, schema.minimum);
+        writeNumber(generator, JsonSchemaKeyword.EXCLUSIVE_MINIMUM, schema.exclusiveMinimum);
+        writeNumber(generator, JsonSchemaKeyword.MAXIMUM, schema.maximum);
+        writeNumber(generator, JsonSchemaKeyword.EXCLUSIVE_MAXIMUM, schema.exclusiveMaximum);
+        writeSchemaMap(generator, provider, JsonSchemaKeyword.PROPERTIES, schema.properties);
+        writeAdditionalProperties(generator, provider, schema.additionalProperties);
+        writeStrings(generator, JsonSchemaKeyword.REQUIRED, schema.required);
+        writeSchema(generator, provider, JsonSchemaKeyword.PROPERTY_NAMES, schema.propertyNames);
+        writeInteger(generator, JsonSchemaKeyword.MIN_PROPERTIES, schema.minProperties);
+        writeInteger(generator, JsonSchemaKeyword.MAX_PROPERTIES, schema.maxProperties);
+        writeSchemaMap(generator, provider, JsonSchemaKeyword.PATTERN_PROPERTIES, schema.patternProperties);
+        writeSchema(generator, provider, JsonSchemaKeyword.ITEMS, schema.items);
+        writeSchema(generator, provider, JsonSchemaKeyword.CONTAINS, schema.contains);
+        writeInteger(generator, JsonSchemaKeyword.MIN_ITEMS, schema.minItems);
+        writeInteger(generator, JsonSchemaKeyword.MAX_ITEMS, schema.maxItems);
+        writeBoolean(generator, JsonSchemaKeyword.UNIQUE_ITEMS, schema.uniqueItems);
+        writeNode(generator, provider, JsonSchemaKeyword.DEFAULT, schema.default_);
+        writeNodes(generator, provider, JsonSchemaKeyword.EXAMPLES, schema.examples);
+        writeNodes(generator, provider, JsonSchemaKeyword.ENUM, schema.enum_);
+        writeNode(generator, provider, JsonSchemaKeyword.CONST, schema.const_);
+        writeSchema(generator, provider, JsonSchemaKeyword.IF, schema.if_);
+        writeSchema(generator, provider, JsonSchemaKeyword.ELSE, schema.else_);
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, JsonSchemaKeyword keyword, String value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(keyword.name);
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator generator, JsonSchemaKeyword keyword, Boolean value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(keyword.name);
+            generator.writeBoolean(value);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator generator, JsonSchemaKeyword keyword, Integer value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(keyword.name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, JsonSchemaKeyword keyword, BigDecimal value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(keyword.name);
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeNode(
+            JsonGenerator generator, SerializerProvider provider, JsonSchemaKeyword keyword, JsonNode value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(keyword.name);
+            value.serialize(generator, provider);
+        }
+    }
+
+    private void writeSchema(
+            JsonGenerator generator, SerializerProvider provider, JsonSchemaKeyword keyword, JsonSchema schema)
+            throws IOException {
+        if (schema != null) {
+            generator.writeFieldName(keyword.name);
+            serialize(schema, generator, provider);
+        }
+    }
+
+    private static void writeTypes(JsonGenerator generator, List<JsonSchemaDataType> types) throws IOException {
+        if (types == null) {
+            return;
+        }
+
+        generator.writeFieldName(JsonSchemaKeyword.TYPE.name);
+        int size = types.size();
+        generator.writeStartArray(types, size);
+        for (int i = 0; i < size; i++) {
+            JsonSchemaDataType type = types.get(i);
+            if (type != null) {
+                generator.writeString(type.value);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeStrings(JsonGenerator generator, JsonSchemaKeyword keyword, List<String> values)
+            throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        generator.writeFieldName(keyword.name);
+        int size = values.size();
+        generator.writeStartArray(values, size);
+        for (int i = 0; i < size; i++) {
+            String value = values.get(i);
+            if (value != null) {
+                generator.writeString(value);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNodes(
+            JsonGenerator generator, SerializerProvider provider, JsonSchemaKeyword keyword, List<JsonNode> values)
+            throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        generator.writeFieldName(keyword.name);
+        int size = values.size();
+        generator.writeStartArray(values, size);
+        for (int i = 0; i < size; i++) {
+            JsonNode value = values.get(i);
+            if (value != null) {
+                value.serialize(generator, provider);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeSchemaList(
+            JsonGenerator generator, SerializerProvider provider, JsonSchemaKeyword keyword, List<JsonSchema> schemas)
+            throws IOException {
+        if (schemas == null) {
+            return;
+        }
+
+        generator.writeFieldName(keyword.name);
+        int size = schemas.size();
+        generator.writeStartArray(schemas, size);
+        for (int i = 0; i < size; i++) {
+            JsonSchema schema = schemas.get(i);
+            if (schema != null) {
+                serialize(schema, generator, provider);
+            } else {
+                generator.writeNull();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeSchemaMap(
+            JsonGenerator generator, SerializerProvider provider, JsonSchemaKeyword keyword,
+            Map<String, JsonSchema> schemas) throws IOException {
+        if (schemas == null) {
+            return;
+        }
+
+        generator.writeFieldName(keyword.name);
+        generator.writeStartObject(schemas);
+        Map<String, JsonSchema> entries = schemas;
+        if (provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) && !(schemas instanceof SortedMap)) {
+            entries = new TreeMap<>(schemas);
+        }
+        for (Map.Entry<String, JsonSchema> entry : entries.entrySet()) {
+            // NON_NULL also applies to map values
+            if (entry.getValue() != null) {
+                generator.writeFieldName(entry.getKey());
+                serialize(entry.getValue(), generator, provider);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * {@code additionalProperties} is a boolean or a schema, anything else takes the general path.
+     */
+    private void writeAdditionalProperties(JsonGenerator generator, SerializerProvider provider, Object value)
+            throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        generator.writeFieldName(JsonSchemaKeyword.ADDITIONAL_PROPERTIES.name);
+        if (value instanceof JsonSchema) {
+            serialize((JsonSchema) value, generator, provider);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            provider.defaultSerializeValue(value, generator);
+        }
+    }
+}
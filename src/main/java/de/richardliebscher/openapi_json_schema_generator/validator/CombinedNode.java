@@ -0,0 +1,71 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+
+/**
+ * Schema applying several subschemas to the same value: combiners, conditions and {@code $ref} with sibling
+ * keywords. The value is buffered once and replayed for every subschema.
+ */
+@RequiredArgsConstructor
+final class CombinedNode extends Node {
+    /**
+     * Including the assertions of the schema itself and its {@code $ref}.
+     */
+    private final Node[] allOf;
+    private final Node[] anyOf;
+    private final Node[] oneOf;
+    private final Node not;
+    private final Node if_;
+    private final Node then;
+    private final Node else_;
+
+    @Override
+    void validate(JsonParser parser, Context context) throws IOException {
+        TokenBuffer buffer = context.buffer(parser);
+        for (Node node : allOf) {
+            node.validate(Context.replay(buffer), context);
+        }
+
+        if (anyOf != null) {
+            boolean matched = false;
+            for (Node node : anyOf) {
+                if (context.matches(node, Context.replay(buffer))) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                context.error("must match at least one schema of anyOf");
+            }
+        }
+
+        if (oneOf != null) {
+            int matches = 0;
+            for (Node node : oneOf) {
+                if (context.matches(node, Context.replay(buffer)) && ++matches > 1) {
+                    break;
+                }
+            }
+            if (matches != 1) {
+                context.error(matches == 0
+                        ? "must match exactly one schema of oneOf, but matches none"
+                        : "must match exactly one schema of oneOf, but matches several");
+            }
+        }
+
+        if (not != null && context.matches(not, Context.replay(buffer))) {
+            context.error("must not match the schema of not");
+        }
+
+        if (if_ != null) {
+            Node next = context.matches(if_, Context.replay(buffer)) ? then : else_;
+            if (next != null) {
+                next.validate(Context.replay(buffer), context);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@link JsonSchema} into {@link Node}s. Every referenced definition is compiled once and shared by all its
+ * references.
+ */
+final class Compiler {
+    private final JsonSchema root;
+    private final JsonSchemaDraft draft;
+    private final Map<String, ReferenceNode> references = new HashMap<>();
+    private final Deque<String> unlinked = new ArrayDeque<>();
+
+    Compiler(JsonSchema root, JsonSchemaDraft draft) {
+        this.root = root;
+        this.draft = draft;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the schema contains unresolvable references or unsupported patterns
+     */
+    Node compileRoot() {
+        Node node = compile(root);
+        while (!unlinked.isEmpty()) {
+            String reference = unlinked.poll();
+            // may add further references
+            references.get(reference).target = compile(resolve(reference));
+        }
+        return node;
+    }
+
+    Node compile(JsonSchema schema) {
+        if (schema.$ref != null && draft.compareTo(JsonSchemaDraft.v2019_09) < 0) {
+            // sibling keywords are ignored before 2019-09
+            return reference(schema.$ref);
+        }
+
+        List<Node> allOf = new ArrayList<>();
+        if (schema.$ref != null) {
+            allOf.add(reference(schema.$ref));
+        }
+        if (SchemaNode.hasAssertions(schema)) {
+            allOf.add(new SchemaNode(schema, draft, this));
+        }
+        if (schema.allOf != null) {
+            schema.allOf.forEach(subschema -> allOf.add(compile(subschema)));
+        }
+        boolean conditional = schema.if_ != null && (schema.then != null || schema.else_ != null);
+        if (schema.anyOf == null && schema.oneOf == null && schema.not == null && !conditional) {
+            if (allOf.isEmpty()) {
+                return Node.ANY;
+            }
+            if (allOf.size() == 1) {
+                return allOf.get(0);
+            }
+        }
+
+        return new CombinedNode(
+                allOf.toArray(new Node[0]),
+                compileAll(schema.anyOf),
+                compileAll(schema.oneOf),
+                schema.not != null ? compile(schema.not) : null,
+                conditional ? compile(schema.if_) : null,
+                conditional && schema.then != null ? compile(schema.then) : null,
+                conditional && schema.else_ != null ? compile(schema.else_) : null);
+    }
+
+    private Node[] compileAll(List<JsonSchema> schemas) {
+        if (schemas == null) {
+            return null;
+        }
+        Node[] nodes = new Node[schemas.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compile(schemas.get(i));
+        }
+        return nodes;
+    }
+
+    private Node reference(String reference) {
+        return references.computeIfAbsent(reference, key -> {
+            unlinked.add(key);
+            return new ReferenceNode();
+        });
+    }
+
+    private JsonSchema resolve(String reference) {
+        JsonSchema target = null;
+        if (reference.equals("#")) {
+            target = root;
+        } else if (reference.startsWith("#/$defs/") && root.$defs != null) {
+            target = root.$defs.get(unescape(reference.substring("#/$defs/".length())));
+        } else if (reference.startsWith("#/definitions/") && root.definitions != null) {
+            target = root.definitions.get(unescape(reference.substring("#/definitions/".length())));
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Unresolvable reference " + reference);
+        }
+        return target;
+    }
+
+    private static String unescape(String segment) {
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+}
@@ -0,0 +1,128 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * State of a single validation: errors found so far and the path of the current value in the instance.
+ */
+final class Context {
+    final ObjectMapper objectMapper;
+    /**
+     * {@code null} when only the validity is of interest, e.g. for branches of {@code anyOf}.
+     */
+    private final List<ValidationError> errors;
+    private int errorCount;
+
+    private String[] names = new String[8];
+    private int[] indexes = new int[8];
+    private int depth;
+
+    Context(ObjectMapper objectMapper, List<ValidationError> errors) {
+        this.objectMapper = objectMapper;
+        this.errors = errors;
+    }
+
+    /**
+     * @return context for a subschema whose errors are not reported themselves
+     */
+    Context branch() {
+        return new Context(objectMapper, null);
+    }
+
+    /**
+     * Validate the current value of the parser without reporting errors.
+     */
+    boolean matches(Node node, JsonParser parser) throws IOException {
+        Context branch = branch();
+        node.validate(parser, branch);
+        return branch.isValid();
+    }
+
+    boolean isValid() {
+        return errorCount == 0;
+    }
+
+    void error(String message) {
+        errorCount++;
+        if (errors != null) {
+            errors.add(new ValidationError(pointer(), message));
+        }
+    }
+
+    void push(String name) {
+        if (depth == names.length) {
+            grow();
+        }
+        names[depth++] = name;
+    }
+
+    void push(int index) {
+        if (depth == names.length) {
+            grow();
+        }
+        names[depth] = null;
+        indexes[depth++] = index;
+    }
+
+    void pop() {
+        depth--;
+    }
+
+    private void grow() {
+        names = Arrays.copyOf(names, depth * 2);
+        indexes = Arrays.copyOf(indexes, depth * 2);
+    }
+
+    private String pointer() {
+        StringBuilder pointer = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            pointer.append('/');
+            if (names[i] != null) {
+                pointer.append(names[i].replace("~", "~0").replace("/", "~1"));
+            } else {
+                pointer.append(indexes[i]);
+            }
+        }
+        return pointer.toString();
+    }
+
+    /**
+     * Copy the current value of the parser, so it can be validated against several subschemas.
+     */
+    TokenBuffer buffer(JsonParser parser) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        // multipleOf and bounds need exact decimals
+        buffer.forceUseOfBigDecimal(true);
+        buffer.copyCurrentStructure(parser);
+        return buffer;
+    }
+
+    /**
+     * @return parser positioned at the first token of the buffered value
+     */
+    static JsonParser replay(TokenBuffer buffer) throws IOException {
+        JsonParser parser = buffer.asParser();
+        parser.nextToken();
+        return parser;
+    }
+
+    /**
+     * Read the current value of the parser as tree. Only used where values have to be compared as a whole.
+     */
+    JsonNode readTree(JsonParser parser) throws IOException {
+        return objectMapper.readTree(parser);
+    }
+
+    static JsonParser traverse(JsonNode node) throws IOException {
+        JsonParser parser = node.traverse();
+        parser.nextToken();
+        return parser;
+    }
+}
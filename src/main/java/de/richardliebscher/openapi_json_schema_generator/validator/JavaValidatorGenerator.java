@@ -0,0 +1,995 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchemaDataType;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Generates Java source code of validators for the definitions of a generated {@link JsonSchema}.
+ *
+ * <p>Every definition becomes a class {@code <Name>Validator} with static methods validating the tokens of a
+ * {@link com.fasterxml.jackson.core.JsonParser}. Types, bounds and lengths are checked by direct comparisons with
+ * literals, properties and string enums by {@code switch} statements and references by calls of the referenced
+ * validator. The validators report the same errors in the same order as {@link JsonSchemaValidator}, they only depend
+ * on Jackson and the generated {@code ValidationContext}.
+ *
+ * <p>Supports the keywords emitted by {@link de.richardliebscher.openapi_json_schema_generator.Converter} and a few
+ * more, but not {@code patternProperties} and {@code contains}.
+ */
+public final class JavaValidatorGenerator {
+    /**
+     * Name of the generated support class.
+     */
+    public static final String CONTEXT_CLASS = "ValidationContext";
+
+    private static final String CONTEXT_TEMPLATE = "ValidationContext.java.template";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String packageName;
+    private final JsonSchemaDraft draft;
+
+    /**
+     * @param packageName package of the generated classes
+     * @param draft draft of the schemas, which defines e.g. whether {@code 1.0} is an integer
+     * @throws IllegalArgumentException when the package name is not a valid Java package name
+     */
+    public JavaValidatorGenerator(String packageName, JsonSchemaDraft draft) {
+        if (!SourceVersion.isName(packageName)) {
+            throw new IllegalArgumentException("Invalid package name " + packageName);
+        }
+        this.packageName = packageName;
+        this.draft = draft;
+    }
+
+    /**
+     * @param root generated schema with definitions
+     * @return source code by simple class name, in order of the definitions and including {@value #CONTEXT_CLASS}
+     * @throws IllegalArgumentException when the schema contains unresolvable references, unsupported keywords or
+     * unsupported patterns
+     */
+    public Map<String, String> generate(JsonSchema root) {
+        Map<String, JsonSchema> definitions = draft.compareTo(JsonSchemaDraft.v2019_09) >= 0
+                ? root.$defs
+                : root.definitions;
+        if (definitions == null) {
+            definitions = Map.of();
+        }
+
+        Map<String, String> classNames = new LinkedHashMap<>();
+        Set<String> usedNames = new HashSet<>(Set.of(CONTEXT_CLASS));
+        definitions.keySet().forEach(name -> classNames.put(name, unique(className(name), usedNames)));
+
+        Map<String, String> sources = new LinkedHashMap<>();
+        definitions.forEach((name, schema) -> {
+            String className = classNames.get(name);
+            sources.put(className, new ClassGenerator(className, classNames).generate(name, schema));
+        });
+        sources.put(CONTEXT_CLASS, contextSource());
+        return sources;
+    }
+
+    private String contextSource() {
+        try (InputStream inputStream = JavaValidatorGenerator.class.getResourceAsStream(CONTEXT_TEMPLATE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing resource " + CONTEXT_TEMPLATE);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).replace("${package}", packageName);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * @return upper camel case Java identifier for a definition name
+     */
+    static String className(String definitionName) {
+        StringBuilder className = new StringBuilder();
+        boolean upper = true;
+        for (int i = 0; i < definitionName.length(); ) {
+            int codePoint = definitionName.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isJavaIdentifierPart(codePoint) || codePoint == '$' || codePoint == '_') {
+                upper = true;
+            } else {
+                className.appendCodePoint(upper ? Character.toUpperCase(codePoint) : codePoint);
+                upper = false;
+            }
+        }
+        if (className.length() == 0 || !Character.isJavaIdentifierStart(className.codePointAt(0))) {
+            className.insert(0, '_');
+        }
+        return className.append("Validator").toString();
+    }
+
+    private static String unique(String name, Set<String> usedNames) {
+        String unique = name;
+        for (int i = 2; !usedNames.add(unique); i++) {
+            unique = name + i;
+        }
+        return unique;
+    }
+
+    /**
+     * @return Java string literal
+     */
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20 || ch > 0x7e) {
+                        literal.append(format("\\u%04x", (int) ch));
+                    } else {
+                        literal.append(ch);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static String longLiteral(long value) {
+        return value + "L";
+    }
+
+    /**
+     * Generates the class of a single definition.
+     */
+    private final class ClassGenerator {
+        private final String className;
+        private final Map<String, String> classNames;
+        private final List<String> fields = new ArrayList<>();
+        private final Set<String> usedFieldNames = new HashSet<>();
+        /**
+         * Names of constants by type and initializer.
+         */
+        private final Map<String, String> constants = new HashMap<>();
+        /**
+         * Generated methods in order of their start, a method is only complete after its subschemas.
+         */
+        private final List<String> methods = new ArrayList<>();
+        private final Set<String> usedMethodNames = new HashSet<>();
+
+        private ClassGenerator(String className, Map<String, String> classNames) {
+            this.className = className;
+            this.classNames = classNames;
+        }
+
+        private String generate(String definitionName, JsonSchema schema) {
+            usedMethodNames.add("isValid");
+            String method = compile(schema, "validate");
+            if (!usedMethodNames.contains("validate")) {
+                // definition is only a reference or allows every value
+                Code code = new Code(1);
+                code.line("static void validate(JsonParser p, %s c) throws IOException {", CONTEXT_CLASS).indent();
+                call(code, method, "p", "c");
+                code.dedent().line("}");
+                methods.add(0, code.toString());
+            }
+
+            Code code = new Code(0);
+            code.line("package %s;", packageName);
+            code.line();
+            code.line("import com.fasterxml.jackson.core.JsonParser;");
+            code.line("import com.fasterxml.jackson.core.JsonToken;");
+            code.line("import com.fasterxml.jackson.databind.JsonNode;");
+            code.line("import com.fasterxml.jackson.databind.node.TextNode;");
+            code.line("import com.fasterxml.jackson.databind.util.TokenBuffer;");
+            code.line();
+            code.line("import java.io.IOException;");
+            code.line("import java.math.BigDecimal;");
+            code.line("import java.util.HashSet;");
+            code.line("import java.util.List;");
+            code.line("import java.util.Set;");
+            code.line("import java.util.regex.Pattern;");
+            code.line();
+            code.line("/**");
+            code.line(" * Validates instances of definition {@code %s}. Generated by openapi-json-schema-generator.",
+                    definitionName.replace("*/", "*&#47;"));
+            code.line(" */");
+            code.line("public final class %s {", className).indent();
+            for (String field : fields) {
+                code.line(field);
+            }
+            if (!fields.isEmpty()) {
+                code.line();
+            }
+            code.line("private %s() {", className);
+            code.line("}");
+            code.line();
+            code.line("/**");
+            code.line(" * Validate the value at the current token of the parser, the first value for new parsers.");
+            code.line(" *");
+            code.line(" * @return errors, empty for valid instances");
+            code.line(" */");
+            code.line("public static List<String> validate(JsonParser parser) throws IOException {").indent();
+            code.line("%s.start(parser);", CONTEXT_CLASS);
+            code.line("%s context = new %<s();", CONTEXT_CLASS);
+            code.line("validate(parser, context);");
+            code.line("return context.getErrors();");
+            code.dedent().line("}");
+            code.line();
+            code.line("public static boolean isValid(JsonParser parser) throws IOException {").indent();
+            code.line("%s.start(parser);", CONTEXT_CLASS);
+            code.line("%s context = %<s.validityOnly();", CONTEXT_CLASS);
+            code.line("validate(parser, context);");
+            code.line("return context.isValid();");
+            code.dedent().line("}");
+            for (String generated : methods) {
+                code.line();
+                code.append(generated);
+            }
+            code.dedent().line("}");
+            return code.toString();
+        }
+
+        /**
+         * Mirrors {@link Compiler#compile(JsonSchema)}.
+         *
+         * @return name of the method validating the schema, {@code null} for schemas allowing every value
+         */
+        private String compile(JsonSchema schema, String name) {
+            if (schema.patternProperties != null) {
+                throw new IllegalArgumentException("Unsupported keyword patternProperties");
+            }
+            if (schema.contains != null) {
+                throw new IllegalArgumentException("Unsupported keyword contains");
+            }
+
+            if (schema.$ref != null && draft.compareTo(JsonSchemaDraft.v2019_09) < 0) {
+                // sibling keywords are ignored before 2019-09
+                return reference(schema.$ref);
+            }
+
+            boolean conditional = schema.if_ != null && (schema.then != null || schema.else_ != null);
+            boolean combined = schema.$ref != null || schema.allOf != null || schema.anyOf != null
+                    || schema.oneOf != null || schema.not != null || conditional;
+            List<String> allOf = new ArrayList<>();
+            if (schema.$ref != null) {
+                allOf.add(reference(schema.$ref));
+            }
+            if (SchemaNode.hasAssertions(schema)) {
+                allOf.add(assertions(schema, combined ? name + "Assertions" : name));
+            }
+            if (schema.allOf != null) {
+                for (int i = 0; i < schema.allOf.size(); i++) {
+                    allOf.add(compile(schema.allOf.get(i), name + "AllOf" + i));
+                }
+            }
+            if (schema.anyOf == null && schema.oneOf == null && schema.not == null && !conditional) {
+                allOf.removeIf(method -> method == null);
+                if (allOf.isEmpty()) {
+                    return null;
+                }
+                if (allOf.size() == 1) {
+                    return allOf.get(0);
+                }
+            }
+            return combined(schema, name, allOf, conditional);
+        }
+
+        private String reference(String reference) {
+            String definition = null;
+            if (reference.startsWith("#/$defs/")) {
+                definition = unescape(reference.substring("#/$defs/".length()));
+            } else if (reference.startsWith("#/definitions/")) {
+                definition = unescape(reference.substring("#/definitions/".length()));
+            }
+            String referenced = definition != null ? classNames.get(definition) : null;
+            if (referenced == null) {
+                throw new IllegalArgumentException("Unresolvable reference " + reference);
+            }
+            return referenced.equals(className) ? "validate" : referenced + ".validate";
+        }
+
+        /**
+         * Mirrors {@link CombinedNode}.
+         */
+        private String combined(JsonSchema schema, String name, List<String> allOf, boolean conditional) {
+            Code code = startMethod(name);
+            int index = methods.size();
+            methods.add(null);
+
+            code.line("TokenBuffer buffer = c.buffer(p);");
+            for (String method : allOf) {
+                call(code, method, replay(), "c");
+            }
+            if (schema.anyOf != null || schema.oneOf != null || schema.not != null || conditional) {
+                code.line("%s branch;", CONTEXT_CLASS);
+            }
+
+            if (schema.anyOf != null) {
+                code.line("boolean anyOfMatched = false;");
+                for (int i = 0; i < schema.anyOf.size(); i++) {
+                    String method = compile(schema.anyOf.get(i), name + "AnyOf" + i);
+                    if (i > 0) {
+                        code.line("if (!anyOfMatched) {").indent();
+                    }
+                    matches(code, method);
+                    code.line("anyOfMatched = branch.isValid();");
+                    if (i > 0) {
+                        code.dedent().line("}");
+                    }
+                }
+                code.line("if (!anyOfMatched) {").indent();
+                code.line("c.error(\"must match at least one schema of anyOf\");");
+                code.dedent().line("}");
+            }
+
+            if (schema.oneOf != null) {
+                code.line("int oneOfMatches = 0;");
+                for (int i = 0; i < schema.oneOf.size(); i++) {
+                    String method = compile(schema.oneOf.get(i), name + "OneOf" + i);
+                    if (i > 1) {
+                        code.line("if (oneOfMatches < 2) {").indent();
+                    }
+                    matches(code, method);
+                    code.line("if (branch.isValid()) {").indent();
+                    code.line("oneOfMatches++;");
+                    code.dedent().line("}");
+                    if (i > 1) {
+                        code.dedent().line("}");
+                    }
+                }
+                code.line("if (oneOfMatches == 0) {").indent();
+                code.line("c.error(\"must match exactly one schema of oneOf, but matches none\");");
+                code.dedent().line("} else if (oneOfMatches > 1) {").indent();
+                code.line("c.error(\"must match exactly one schema of oneOf, but matches several\");");
+                code.dedent().line("}");
+            }
+
+            if (schema.not != null) {
+                matches(code, compile(schema.not, name + "Not"));
+                code.line("if (branch.isValid()) {").indent();
+                code.line("c.error(\"must not match the schema of not\");");
+                code.dedent().line("}");
+            }
+
+            if (conditional) {
+                matches(code, compile(schema.if_, name + "If"));
+                String then = schema.then != null ? compile(schema.then, name + "Then") : null;
+                String else_ = schema.else_ != null ? compile(schema.else_, name + "Else") : null;
+                code.line("if (branch.isValid()) {").indent();
+                if (then != null) {
+                    call(code, then, replay(), "c");
+                }
+                code.dedent().line("} else {").indent();
+                if (else_ != null) {
+                    call(code, else_, replay(), "c");
+                }
+                code.dedent().line("}");
+            }
+
+            methods.set(index, code.dedent().line("}").toString());
+            return code.method;
+        }
+
+        private void matches(Code code, String method) {
+            code.line("branch = c.branch();");
+            call(code, method, replay(), "branch");
+        }
+
+        private String replay() {
+            return CONTEXT_CLASS + ".replay(buffer)";
+        }
+
+        /**
+         * Mirrors {@link SchemaNode}.
+         */
+        private String assertions(JsonSchema schema, String name) {
+            Code code = startMethod(name);
+            int index = methods.size();
+            methods.add(null);
+
+            int types = 0;
+            if (schema.type != null) {
+                for (JsonSchemaDataType type : schema.type) {
+                    types |= 1 << type.ordinal();
+                }
+            }
+            String typeNames = schema.type != null
+                    ? schema.type.stream().map(type -> type.value).collect(Collectors.joining(", "))
+                    : null;
+
+            code.line("JsonToken t = p.currentToken();");
+            checkValue(code, schema);
+
+            code.line("switch (t) {").indent();
+
+            code.line("case START_OBJECT:").indent();
+            checkType(code, types, typeNames, "object", JsonSchemaDataType.OBJECT);
+            if (!validateObject(code, schema, name)) {
+                code.line("p.skipChildren();");
+            }
+            code.line("break;").dedent();
+
+            code.line("case START_ARRAY:").indent();
+            checkType(code, types, typeNames, "array", JsonSchemaDataType.ARRAY);
+            if (!validateArray(code, schema, name)) {
+                code.line("p.skipChildren();");
+            }
+            code.line("break;").dedent();
+
+            code.line("case VALUE_STRING:").indent();
+            checkType(code, types, typeNames, "string", JsonSchemaDataType.STRING);
+            validateString(code, schema);
+            code.line("break;").dedent();
+
+            NumberAssertions numberAssertions = new NumberAssertions(schema);
+            code.line("case VALUE_NUMBER_INT:").indent();
+            checkType(code, types, typeNames, "integer", JsonSchemaDataType.INTEGER, JsonSchemaDataType.NUMBER);
+            if (numberAssertions.any) {
+                code.line("{").indent();
+                numberAssertions.validateInteger(code);
+                code.dedent().line("}");
+            }
+            code.line("break;").dedent();
+
+            code.line("case VALUE_NUMBER_FLOAT:").indent();
+            if (types != 0 && (types & (1 << JsonSchemaDataType.NUMBER.ordinal())) == 0) {
+                String error = format("c.error(%s);", literal(format("expected %s but found number", typeNames)));
+                if ((types & (1 << JsonSchemaDataType.INTEGER.ordinal())) == 0
+                        || draft.compareTo(JsonSchemaDraft.v6) < 0) {
+                    code.line(error);
+                } else {
+                    code.line("if (!%s.isIntegral(p.getDecimalValue())) {", CONTEXT_CLASS).indent();
+                    code.line(error);
+                    code.dedent().line("}");
+                }
+            }
+            if (numberAssertions.any) {
+                code.line("{").indent();
+                numberAssertions.validateDecimal(code);
+                code.dedent().line("}");
+            }
+            code.line("break;").dedent();
+
+            code.line("case VALUE_TRUE:");
+            code.line("case VALUE_FALSE:").indent();
+            checkType(code, types, typeNames, "boolean", JsonSchemaDataType.BOOLEAN);
+            code.line("break;").dedent();
+
+            code.line("case VALUE_NULL:").indent();
+            checkType(code, types, typeNames, "null", JsonSchemaDataType.NULL);
+            code.line("break;").dedent();
+
+            code.line("default:").indent();
+            code.line("throw new IllegalStateException(\"Unexpected token \" + t);").dedent();
+            code.dedent().line("}");
+
+            methods.set(index, code.dedent().line("}").toString());
+            return code.method;
+        }
+
+        private void checkValue(Code code, JsonSchema schema) {
+            if (schema.enum_ == null && schema.const_ == null) {
+                return;
+            }
+
+            List<JsonNode> enumValues = null;
+            if (schema.enum_ != null) {
+                enumValues = new ArrayList<>();
+                for (JsonNode value : schema.enum_) {
+                    enumValues.add(JsonValues.normalize(value != null ? value : NullNode.instance));
+                }
+            }
+            JsonNode constValue = schema.const_ != null ? JsonValues.normalize(schema.const_) : null;
+
+            if (constValue == null && enumValues.stream().allMatch(value -> value.isTextual() || value.isNull())) {
+                stringEnum(code, enumValues);
+                return;
+            }
+
+            boolean structuredValues = (enumValues != null && enumValues.stream().anyMatch(JsonNode::isContainerNode))
+                    || (constValue != null && constValue.isContainerNode());
+            code.line("JsonNode value;");
+            if (structuredValues) {
+                code.line("if (!t.isStructStart()) {").indent();
+                code.line("value = %s.scalar(p);", CONTEXT_CLASS);
+                code.dedent().line("} else {").indent();
+                code.line("JsonNode tree = c.readTree(p);");
+                code.line("value = %s.normalize(tree);", CONTEXT_CLASS);
+                code.line("p = %s.traverse(tree);", CONTEXT_CLASS);
+                code.dedent().line("}");
+            } else {
+                // only scalars allowed
+                code.line("value = t.isStructStart() ? null : %s.scalar(p);", CONTEXT_CLASS);
+            }
+            if (enumValues != null) {
+                String field = field("Set<JsonNode>", "ENUM", CONTEXT_CLASS + ".values(" + literal(json(enumValues))
+                        + ")");
+                code.line("if (value == null || !%s.contains(value)) {", field).indent();
+                code.line("c.error(\"must be one of the enum values\");");
+                code.dedent().line("}");
+            }
+            if (constValue != null) {
+                String field = field("JsonNode", "CONST", CONTEXT_CLASS + ".values(" + literal(json(List.of(constValue)))
+                        + ").iterator().next()");
+                code.line("if (!%s.equals(value)) {", field).indent();
+                code.line("c.error(\"must be equal to the const value\");");
+                code.dedent().line("}");
+            }
+        }
+
+        private void stringEnum(Code code, List<JsonNode> enumValues) {
+            Set<String> strings = new LinkedHashSet<>();
+            boolean nullable = false;
+            for (JsonNode value : enumValues) {
+                if (value.isNull()) {
+                    nullable = true;
+                } else {
+                    strings.add(value.textValue());
+                }
+            }
+
+            code.line("switch (t) {").indent();
+            if (!strings.isEmpty()) {
+                code.line("case VALUE_STRING:").indent();
+                code.line("switch (p.getText()) {").indent();
+                for (String string : strings) {
+                    code.line("case %s:", literal(string));
+                }
+                code.indent().line("break;").dedent();
+                code.line("default:").indent();
+                code.line("c.error(\"must be one of the enum values\");").dedent();
+                code.dedent().line("}");
+                code.line("break;").dedent();
+            }
+            if (nullable) {
+                code.line("case VALUE_NULL:").indent();
+                code.line("break;").dedent();
+            }
+            code.line("default:").indent();
+            code.line("c.error(\"must be one of the enum values\");").dedent();
+            code.dedent().line("}");
+        }
+
+        private void checkType(
+                Code code, int types, String typeNames, String actual, JsonSchemaDataType... allowedTypes) {
+            if (types == 0) {
+                return;
+            }
+            for (JsonSchemaDataType type : allowedTypes) {
+                if ((types & (1 << type.ordinal())) != 0) {
+                    return;
+                }
+            }
+            code.line("c.error(%s);", literal(format("expected %s but found %s", typeNames, actual)));
+        }
+
+        private void validateString(Code code, JsonSchema schema) {
+            int minLength = schema.minLength != null ? schema.minLength : 0;
+            int maxLength = schema.maxLength != null ? schema.maxLength : Integer.MAX_VALUE;
+            if (minLength == 0 && maxLength == Integer.MAX_VALUE && schema.pattern == null) {
+                return;
+            }
+
+            code.line("{").indent();
+            code.line("String s = p.getText();");
+            if (minLength > 0 || maxLength != Integer.MAX_VALUE) {
+                code.line("int length = s.codePointCount(0, s.length());");
+                if (minLength > 0) {
+                    code.line("if (length < %d) {", minLength).indent();
+                    code.line("c.error(%s);", literal(format("must have at least %d characters", minLength)));
+                    code.dedent().line("}");
+                }
+                if (maxLength != Integer.MAX_VALUE) {
+                    code.line("if (length > %d) {", maxLength).indent();
+                    code.line("c.error(%s);", literal(format("must have at most %d characters", maxLength)));
+                    code.dedent().line("}");
+                }
+            }
+            if (schema.pattern != null) {
+                try {
+                    Pattern.compile(schema.pattern);
+                } catch (PatternSyntaxException exception) {
+                    throw new IllegalArgumentException("Unsupported pattern " + schema.pattern, exception);
+                }
+                String field = field("Pattern", "PATTERN", "Pattern.compile(" + literal(schema.pattern) + ")");
+                code.line("if (!%s.matcher(s).find()) {", field).indent();
+                code.line("c.error(%s);", literal(format("must match pattern %s", schema.pattern)));
+                code.dedent().line("}");
+            }
+            code.dedent().line("}");
+        }
+
+        /**
+         * @return whether code was generated which reads the object
+         */
+        private boolean validateObject(Code code, JsonSchema schema, String name) {
+            boolean additionalPropertiesForbidden = Boolean.FALSE.equals(schema.additionalProperties);
+            String additionalProperties = schema.additionalProperties instanceof JsonSchema
+                    ? compile((JsonSchema) schema.additionalProperties, name + "AdditionalProperties")
+                    : null;
+            boolean additionalPropertiesSchema = schema.additionalProperties instanceof JsonSchema;
+            String propertyNames = schema.propertyNames != null
+                    ? compile(schema.propertyNames, name + "PropertyNames")
+                    : null;
+            List<String> required = schema.required != null
+                    ? new ArrayList<>(new LinkedHashSet<>(schema.required))
+                    : List.of();
+            int minProperties = schema.minProperties != null ? schema.minProperties : 0;
+            int maxProperties = schema.maxProperties != null ? schema.maxProperties : Integer.MAX_VALUE;
+            Map<String, JsonSchema> properties = schema.properties != null ? schema.properties : Map.of();
+            if (properties.isEmpty() && !additionalPropertiesForbidden && !additionalPropertiesSchema
+                    && schema.propertyNames == null && required.isEmpty() && minProperties == 0
+                    && maxProperties == Integer.MAX_VALUE) {
+                return false;
+            }
+
+            Map<String, String> propertyMethods = new LinkedHashMap<>();
+            properties.forEach((propertyName, property) ->
+                    propertyMethods.put(propertyName, compile(property, name + methodPart(propertyName))));
+            boolean count = minProperties != 0 || maxProperties != Integer.MAX_VALUE;
+
+            code.line("{").indent();
+            for (int i = 0; i < required.size(); i++) {
+                code.line("boolean required%d = false;", i);
+            }
+            if (count) {
+                code.line("int count = 0;");
+            }
+            code.line("while (p.nextToken() == JsonToken.FIELD_NAME) {").indent();
+            code.line("String name = p.getCurrentName();");
+            code.line("p.nextToken();");
+            if (count) {
+                code.line("count++;");
+            }
+            code.line("c.push(name);");
+            if (schema.propertyNames != null) {
+                call(code, propertyNames, CONTEXT_CLASS + ".traverse(TextNode.valueOf(name))", "c");
+            }
+
+            Set<String> names = new LinkedHashSet<>(propertyMethods.keySet());
+            names.addAll(required);
+            code.line("switch (name) {").indent();
+            for (String propertyName : names) {
+                code.line("case %s:", literal(propertyName)).indent();
+                int requiredIndex = required.indexOf(propertyName);
+                if (requiredIndex >= 0) {
+                    code.line("required%d = true;", requiredIndex);
+                }
+                if (propertyMethods.containsKey(propertyName)) {
+                    call(code, propertyMethods.get(propertyName), "p", "c");
+                } else {
+                    additionalProperty(code, additionalPropertiesForbidden, additionalProperties);
+                }
+                code.line("break;").dedent();
+            }
+            code.line("default:").indent();
+            additionalProperty(code, additionalPropertiesForbidden, additionalProperties);
+            code.dedent();
+            code.dedent().line("}");
+            code.line("c.pop();");
+            code.dedent().line("}");
+
+            for (int i = 0; i < required.size(); i++) {
+                code.line("if (!required%d) {", i).indent();
+                code.line("c.error(%s);", literal(format("missing required property %s", required.get(i))));
+                code.dedent().line("}");
+            }
+            if (minProperties != 0) {
+                code.line("if (count < %d) {", minProperties).indent();
+                code.line("c.error(%s);", literal(format("must have at least %d properties", minProperties)));
+                code.dedent().line("}");
+            }
+            if (maxProperties != Integer.MAX_VALUE) {
+                code.line("if (count > %d) {", maxProperties).indent();
+                code.line("c.error(%s);", literal(format("must have at most %d properties", maxProperties)));
+                code.dedent().line("}");
+            }
+            code.dedent().line("}");
+            return true;
+        }
+
+        private void additionalProperty(Code code, boolean forbidden, String method) {
+            if (forbidden) {
+                code.line("c.error(\"additional property not allowed\");");
+                code.line("p.skipChildren();");
+            } else {
+                call(code, method, "p", "c");
+            }
+        }
+
+        /**
+         * @return whether code was generated which reads the array
+         */
+        private boolean validateArray(Code code, JsonSchema schema, String name) {
+            String items = schema.items != null ? compile(schema.items, name + "Items") : null;
+            boolean uniqueItems = Boolean.TRUE.equals(schema.uniqueItems);
+            int minItems = schema.minItems != null ? schema.minItems : 0;
+            int maxItems = schema.maxItems != null ? schema.maxItems : Integer.MAX_VALUE;
+            if (schema.items == null && !uniqueItems && minItems == 0 && maxItems == Integer.MAX_VALUE) {
+                return false;
+            }
+
+            code.line("{").indent();
+            if (uniqueItems) {
+                code.line("Set<JsonNode> values = new HashSet<>();");
+            }
+            code.line("int count = 0;");
+            code.line("while (p.nextToken() != JsonToken.END_ARRAY) {").indent();
+            code.line("c.push(count);");
+            if (uniqueItems) {
+                code.line("JsonNode item = c.readTree(p);");
+                code.line("if (!values.add(%s.normalize(item))) {", CONTEXT_CLASS).indent();
+                code.line("c.error(\"duplicate item\");");
+                code.dedent().line("}");
+                if (items != null) {
+                    call(code, items, CONTEXT_CLASS + ".traverse(item)", "c");
+                }
+            } else {
+                call(code, items, "p", "c");
+            }
+            code.line("c.pop();");
+            code.line("count++;");
+            code.dedent().line("}");
+            if (minItems != 0) {
+                code.line("if (count < %d) {", minItems).indent();
+                code.line("c.error(%s);", literal(format("must have at least %d items", minItems)));
+                code.dedent().line("}");
+            }
+            if (maxItems != Integer.MAX_VALUE) {
+                code.line("if (count > %d) {", maxItems).indent();
+                code.line("c.error(%s);", literal(format("must have at most %d items", maxItems)));
+                code.dedent().line("}");
+            }
+            code.dedent().line("}");
+            return true;
+        }
+
+        /**
+         * Mirrors the number assertions of {@link SchemaNode}.
+         */
+        private final class NumberAssertions {
+            private final BigDecimal minimum;
+            private final BigDecimal exclusiveMinimum;
+            private final BigDecimal maximum;
+            private final BigDecimal exclusiveMaximum;
+            private final BigDecimal multipleOf;
+            private final boolean any;
+            private final LongBounds longBounds;
+            private final long longMultipleOf;
+
+            private NumberAssertions(JsonSchema schema) {
+                minimum = schema.minimum;
+                maximum = schema.maximum;
+                // draft 4 models only repeat the bound in exclusiveMinimum / exclusiveMaximum
+                exclusiveMinimum = draft.compareTo(JsonSchemaDraft.v6) >= 0 ? schema.exclusiveMinimum : null;
+                exclusiveMaximum = draft.compareTo(JsonSchemaDraft.v6) >= 0 ? schema.exclusiveMaximum : null;
+                multipleOf = schema.multipleOf;
+                any = minimum != null || maximum != null || exclusiveMinimum != null || exclusiveMaximum != null
+                        || multipleOf != null;
+                longBounds = LongBounds.of(minimum, exclusiveMinimum, maximum, exclusiveMaximum);
+                longMultipleOf = LongBounds.longMultipleOf(multipleOf);
+            }
+
+            private void validateInteger(Code code) {
+                if (longBounds == null) {
+                    validateDecimal(code);
+                    return;
+                }
+                // bounds of int64 can not be exceeded by a long
+                boolean lower = longBounds.lowerMessage != null && longBounds.lower != Long.MIN_VALUE;
+                boolean upper = longBounds.upperMessage != null && longBounds.upper != Long.MAX_VALUE;
+                if (!lower && !upper && multipleOf == null) {
+                    code.line("if (p.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {").indent();
+                    validateDecimal(code);
+                    code.dedent().line("}");
+                    return;
+                }
+
+                code.line("if (p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {").indent();
+                code.line("long v = p.getLongValue();");
+                if (lower) {
+                    code.line("if (v < %s) {", longLiteral(longBounds.lower)).indent();
+                    code.line("c.error(%s);", literal(longBounds.lowerMessage));
+                    code.dedent().line("}");
+                }
+                if (upper) {
+                    code.line("if (v > %s) {", longLiteral(longBounds.upper)).indent();
+                    code.line("c.error(%s);", literal(longBounds.upperMessage));
+                    code.dedent().line("}");
+                }
+                if (longMultipleOf != 0) {
+                    code.line("if (v %% %s != 0) {", longLiteral(longMultipleOf)).indent();
+                    code.line("c.error(%s);", literal(LongBounds.multipleOfMessage(multipleOf)));
+                    code.dedent().line("}");
+                } else {
+                    validateMultipleOf(code);
+                }
+                code.dedent().line("} else {").indent();
+                validateDecimal(code);
+                code.dedent().line("}");
+            }
+
+            private void validateDecimal(Code code) {
+                if (minimum != null || exclusiveMinimum != null || maximum != null || exclusiveMaximum != null) {
+                    code.line("BigDecimal v = p.getDecimalValue();");
+                }
+                if (minimum != null) {
+                    code.line("if (v.compareTo(%s) < 0) {", decimal("MINIMUM", minimum)).indent();
+                    code.line("c.error(%s);", literal(LongBounds.minimumMessage(minimum, false)));
+                    code.dedent().line("}");
+                }
+                if (exclusiveMinimum != null) {
+                    code.line("if (v.compareTo(%s) <= 0) {", decimal("EXCLUSIVE_MINIMUM", exclusiveMinimum))
+                            .indent();
+                    code.line("c.error(%s);", literal(LongBounds.minimumMessage(exclusiveMinimum, true)));
+                    code.dedent().line("}");
+                }
+                if (maximum != null) {
+                    code.line("if (v.compareTo(%s) > 0) {", decimal("MAXIMUM", maximum)).indent();
+                    code.line("c.error(%s);", literal(LongBounds.maximumMessage(maximum, false)));
+                    code.dedent().line("}");
+                }
+                if (exclusiveMaximum != null) {
+                    code.line("if (v.compareTo(%s) >= 0) {", decimal("EXCLUSIVE_MAXIMUM", exclusiveMaximum))
+                            .indent();
+                    code.line("c.error(%s);", literal(LongBounds.maximumMessage(exclusiveMaximum, true)));
+                    code.dedent().line("}");
+                }
+                validateMultipleOf(code);
+            }
+
+            private void validateMultipleOf(Code code) {
+                if (multipleOf != null) {
+                    code.line("if (p.getDecimalValue().remainder(%s).signum() != 0) {",
+                            decimal("MULTIPLE_OF", multipleOf)).indent();
+                    code.line("c.error(%s);", literal(LongBounds.multipleOfMessage(multipleOf)));
+                    code.dedent().line("}");
+                }
+            }
+
+            private String decimal(String name, BigDecimal value) {
+                return field("BigDecimal", name, "new BigDecimal(" + literal(value.toString()) + ")");
+            }
+        }
+
+        /**
+         * @param name name of the method, made unique
+         */
+        private Code startMethod(String name) {
+            String unique = unique(name, usedMethodNames);
+            Code code = new Code(1);
+            code.line("%sstatic void %s(JsonParser p, %s c) throws IOException {",
+                    unique.equals("validate") ? "" : "private ", unique, CONTEXT_CLASS).indent();
+            code.method = unique;
+            return code;
+        }
+
+        /**
+         * Call the method validating a value, {@code null} accepts every value.
+         */
+        private void call(Code code, String method, String parser, String context) {
+            if (method != null) {
+                code.line("%s(%s, %s);", method, parser, context);
+            } else if (parser.equals("p")) {
+                code.line("p.skipChildren();");
+            }
+        }
+
+        /**
+         * Add a constant, values are shared by constants of the same type and initializer.
+         *
+         * @return name of the constant
+         */
+        private String field(String type, String name, String initializer) {
+            return constants.computeIfAbsent(type + " " + initializer, key -> {
+                String unique = unique(name + "_" + fields.size(), usedFieldNames);
+                fields.add(format("private static final %s %s = %s;", type, unique, initializer));
+                return unique;
+            });
+        }
+
+    }
+
+    private static String methodPart(String propertyName) {
+        String className = className(propertyName);
+        return className.substring(0, className.length() - "Validator".length());
+    }
+
+    private static String unescape(String segment) {
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    private static String json(List<JsonNode> values) {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode(values.size());
+        array.addAll(values);
+        try {
+            return OBJECT_MAPPER.writeValueAsString(array);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Java source code with indentation.
+     */
+    private static final class Code {
+        private final StringBuilder code = new StringBuilder();
+        private int indentation;
+
+        private Code(int indentation) {
+            this.indentation = indentation;
+        }
+
+        /**
+         * Name of the generated method.
+         */
+        private String method;
+
+        Code line(String format, Object... args) {
+            if (!format.isEmpty()) {
+                code.append("    ".repeat(indentation)).append(args.length > 0 ? format(format, args) : format);
+            }
+            code.append('\n');
+            return this;
+        }
+
+        Code line() {
+            return line("");
+        }
+
+        Code append(String text) {
+            code.append(text);
+            return this;
+        }
+
+        Code indent() {
+            indentation++;
+            return this;
+        }
+
+        Code dedent() {
+            indentation--;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return code.toString();
+        }
+    }
+}
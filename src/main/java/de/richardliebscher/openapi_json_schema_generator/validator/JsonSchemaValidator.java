@@ -0,0 +1,97 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates instances against a generated {@link JsonSchema}.
+ *
+ * <p>The schema is compiled once: references are resolved, patterns compiled and enums collected in hash sets.
+ * Integer bounds like the ones of {@code int32} and {@code int64} are checked on primitive {@code long}s. Instances
+ * can be validated from a {@link JsonParser}, without reading them into a tree.
+ *
+ * <p>Supports the keywords of the generated schemas. Annotations like {@code format} and {@code readOnly} are not
+ * asserted. Patterns use Java regular expressions. Instances of this class are immutable and can be used from several
+ * threads.
+ */
+public final class JsonSchemaValidator {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final Node root;
+
+    private JsonSchemaValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile a schema for the draft given by its {@code $schema}, 2019-09 when missing.
+     *
+     * @param root generated schema, the instance is validated against its {@code $ref}
+     * @throws IllegalArgumentException when the schema contains unresolvable references or unsupported patterns
+     */
+    public static JsonSchemaValidator compile(JsonSchema root) {
+        JsonSchemaDraft draft = Arrays.stream(JsonSchemaDraft.values())
+                .filter(value -> value.id.equals(root.$schema))
+                .findFirst()
+                .orElse(JsonSchemaDraft.v2019_09);
+        return compile(root, draft);
+    }
+
+    /**
+     * @param root generated schema, the instance is validated against its {@code $ref}
+     * @throws IllegalArgumentException when the schema contains unresolvable references or unsupported patterns
+     */
+    public static JsonSchemaValidator compile(JsonSchema root, JsonSchemaDraft draft) {
+        return new JsonSchemaValidator(new Compiler(root, draft).compileRoot());
+    }
+
+    /**
+     * @return violations, empty for valid instances
+     */
+    public List<ValidationError> validate(JsonNode instance) {
+        try {
+            return validate(instance.traverse());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Validate the value at the current token of the parser, the first value for new parsers. The parser is left at
+     * the last token of the value, so following values of e.g. newline delimited JSON can be read from it.
+     *
+     * @return violations, empty for valid instances
+     */
+    public List<ValidationError> validate(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            throw new JsonParseException(parser, "No value to validate");
+        }
+        List<ValidationError> errors = new ArrayList<>();
+        root.validate(parser, new Context(OBJECT_MAPPER, errors));
+        return errors;
+    }
+
+    /**
+     * Like {@link #validate(JsonParser)}, but without collecting violations.
+     */
+    public boolean isValid(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            throw new JsonParseException(parser, "No value to validate");
+        }
+        Context context = new Context(OBJECT_MAPPER, null);
+        root.validate(parser, context);
+        return context.isValid();
+    }
+}
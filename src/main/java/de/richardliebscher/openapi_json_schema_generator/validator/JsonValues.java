@@ -0,0 +1,80 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Equality of JSON values as defined by JSON schema: numbers are equal by value, e.g. {@code 1} and {@code 1.0}.
+ *
+ * <p>Values are compared in normalized form, which can be used in hash sets.
+ */
+final class JsonValues {
+    private JsonValues() {
+    }
+
+    static JsonNode normalize(JsonNode value) {
+        switch (value.getNodeType()) {
+            case NUMBER:
+                return number(value.decimalValue());
+            case OBJECT: {
+                ObjectNode object = JsonNodeFactory.instance.objectNode();
+                Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    object.set(field.getKey(), normalize(field.getValue()));
+                }
+                return object;
+            }
+            case ARRAY: {
+                ArrayNode array = JsonNodeFactory.instance.arrayNode(value.size());
+                for (JsonNode element : value) {
+                    array.add(normalize(element));
+                }
+                return array;
+            }
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * @return normalized value of the current scalar token, {@code null} for the start of objects and arrays
+     */
+    static JsonNode scalar(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return TextNode.valueOf(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return number(parser.getDecimalValue());
+            case VALUE_TRUE:
+                return BooleanNode.TRUE;
+            case VALUE_FALSE:
+                return BooleanNode.FALSE;
+            case VALUE_NULL:
+                return NullNode.instance;
+            default:
+                return null;
+        }
+    }
+
+    static boolean isScalar(JsonNode value) {
+        return !value.isContainerNode();
+    }
+
+    private static JsonNode number(BigDecimal value) {
+        return DecimalNode.valueOf(value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros());
+    }
+}
@@ -0,0 +1,107 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static java.lang.String.format;
+
+/**
+ * Number bounds as inclusive bounds for integers, which can be checked on {@code long}s.
+ *
+ * <p>An integer {@code i} satisfies {@code i >= m} iff {@code i >= ceil(m)} and {@code i > m} iff
+ * {@code i >= floor(m) + 1}, accordingly for upper bounds.
+ */
+final class LongBounds {
+    private static final BigDecimal LONG_MINIMUM = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAXIMUM = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    long lower = Long.MIN_VALUE;
+    /**
+     * {@code null} without lower bound.
+     */
+    String lowerMessage;
+    long upper = Long.MAX_VALUE;
+    /**
+     * {@code null} without upper bound.
+     */
+    String upperMessage;
+
+    private LongBounds() {
+    }
+
+    /**
+     * @return {@code null} when a bound does not fit into a {@code long}
+     */
+    static LongBounds of(
+            BigDecimal minimum, BigDecimal exclusiveMinimum, BigDecimal maximum, BigDecimal exclusiveMaximum) {
+        LongBounds bounds = new LongBounds();
+        if (minimum != null && !bounds.lower(minimum.setScale(0, RoundingMode.CEILING),
+                minimumMessage(minimum, false))) {
+            return null;
+        }
+        if (exclusiveMinimum != null && !bounds.lower(
+                exclusiveMinimum.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE),
+                minimumMessage(exclusiveMinimum, true))) {
+            return null;
+        }
+        if (maximum != null && !bounds.upper(maximum.setScale(0, RoundingMode.FLOOR),
+                maximumMessage(maximum, false))) {
+            return null;
+        }
+        if (exclusiveMaximum != null && !bounds.upper(
+                exclusiveMaximum.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE),
+                maximumMessage(exclusiveMaximum, true))) {
+            return null;
+        }
+        return bounds;
+    }
+
+    private boolean lower(BigDecimal bound, String message) {
+        if (!fitsLong(bound)) {
+            return false;
+        }
+        if (lowerMessage == null || bound.longValueExact() > lower) {
+            lower = bound.longValueExact();
+            lowerMessage = message;
+        }
+        return true;
+    }
+
+    private boolean upper(BigDecimal bound, String message) {
+        if (!fitsLong(bound)) {
+            return false;
+        }
+        if (upperMessage == null || bound.longValueExact() < upper) {
+            upper = bound.longValueExact();
+            upperMessage = message;
+        }
+        return true;
+    }
+
+    static String minimumMessage(BigDecimal bound, boolean exclusive) {
+        return format("must be %s %s", exclusive ? "greater than" : "at least", bound.toPlainString());
+    }
+
+    static String maximumMessage(BigDecimal bound, boolean exclusive) {
+        return format("must be %s %s", exclusive ? "less than" : "at most", bound.toPlainString());
+    }
+
+    static String multipleOfMessage(BigDecimal multipleOf) {
+        return format("must be a multiple of %s", multipleOf.toPlainString());
+    }
+
+    /**
+     * @return {@code multipleOf} when it is an integer fitting into a {@code long}, otherwise {@code 0}
+     */
+    static long longMultipleOf(BigDecimal multipleOf) {
+        return multipleOf != null && isIntegral(multipleOf) && fitsLong(multipleOf) ? multipleOf.longValueExact() : 0;
+    }
+
+    static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    private static boolean fitsLong(BigDecimal value) {
+        return value.compareTo(LONG_MINIMUM) >= 0 && value.compareTo(LONG_MAXIMUM) <= 0;
+    }
+}
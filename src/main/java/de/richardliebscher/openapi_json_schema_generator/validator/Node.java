@@ -0,0 +1,37 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Compiled (sub)schema.
+ */
+abstract class Node {
+    static final Node ANY = new Node() {
+        @Override
+        void validate(JsonParser parser, Context context) throws IOException {
+            parser.skipChildren();
+        }
+    };
+
+    /**
+     * @return node rejecting every value
+     */
+    static Node invalid(String message) {
+        return new Node() {
+            @Override
+            void validate(JsonParser parser, Context context) throws IOException {
+                context.error(message);
+                parser.skipChildren();
+            }
+        };
+    }
+
+    /**
+     * Validate a single value and report violations to the context.
+     *
+     * @param parser positioned at the first token of the value, is left at its last token
+     */
+    abstract void validate(JsonParser parser, Context context) throws IOException;
+}
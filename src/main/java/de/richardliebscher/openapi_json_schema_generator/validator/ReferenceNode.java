@@ -0,0 +1,17 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * {@code $ref} to a definition. Linked after all definitions are compiled, so definitions can be recursive.
+ */
+final class ReferenceNode extends Node {
+    Node target;
+
+    @Override
+    void validate(JsonParser parser, Context context) throws IOException {
+        target.validate(parser, context);
+    }
+}
@@ -0,0 +1,453 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchemaDataType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Assertions of a single schema, without {@code $ref} and combiners.
+ *
+ * <p>Objects and arrays are validated while their tokens are read. Values are only buffered when several subschemas
+ * apply to them, and only read into trees when they have to be compared as a whole ({@code enum}, {@code const},
+ * {@code uniqueItems}).
+ */
+final class SchemaNode extends Node {
+    private static final int INTEGER_TYPES = bit(JsonSchemaDataType.INTEGER) | bit(JsonSchemaDataType.NUMBER);
+    private static final Node[] NO_NODES = new Node[0];
+
+    /**
+     * Allowed types as bits of {@link JsonSchemaDataType} ordinals, {@code 0} when all types are allowed.
+     */
+    private final int types;
+    private final String typeNames;
+    /**
+     * Since draft 6 numbers with zero fractional part are integers.
+     */
+    private final boolean integralFloats;
+
+    // enum / const in normalized form
+    private final Set<JsonNode> enumValues;
+    private final JsonNode constValue;
+    private final boolean structuredValues;
+
+    // string
+    private final int minLength;
+    private final int maxLength;
+    private final Pattern pattern;
+
+    // number
+    private final boolean numberAssertions;
+    private final BigDecimal minimum;
+    private final BigDecimal exclusiveMinimum;
+    private final BigDecimal maximum;
+    private final BigDecimal exclusiveMaximum;
+    private final BigDecimal multipleOf;
+    /**
+     * Bounds for integers, {@code null} when they do not fit into a {@code long}.
+     */
+    private final LongBounds longBounds;
+    /**
+     * {@code multipleOf} when it is an integer fitting into a {@code long}, otherwise {@code 0}.
+     */
+    private final long longMultipleOf;
+
+    // object
+    private final boolean objectAssertions;
+    private final Map<String, Node> properties;
+    private final Pattern[] propertyPatterns;
+    private final Node[] patternProperties;
+    private final Node additionalProperties;
+    private final Node propertyNames;
+    private final String[] required;
+    private final Map<String, Integer> requiredIndexes;
+    private final int minProperties;
+    private final int maxProperties;
+
+    // array
+    private final boolean arrayAssertions;
+    private final Node items;
+    private final Node contains;
+    private final boolean uniqueItems;
+    private final int minItems;
+    private final int maxItems;
+
+    SchemaNode(JsonSchema schema, JsonSchemaDraft draft, Compiler compiler) {
+        int types = 0;
+        if (schema.type != null) {
+            for (JsonSchemaDataType type : schema.type) {
+                types |= bit(type);
+            }
+        }
+        this.types = types;
+        typeNames = schema.type != null
+                ? schema.type.stream().map(type -> type.value).collect(Collectors.joining(", "))
+                : null;
+        integralFloats = draft.compareTo(JsonSchemaDraft.v6) >= 0;
+
+        if (schema.enum_ != null) {
+            enumValues = new HashSet<>();
+            for (JsonNode value : schema.enum_) {
+                enumValues.add(JsonValues.normalize(value != null ? value : NullNode.instance));
+            }
+        } else {
+            enumValues = null;
+        }
+        constValue = schema.const_ != null ? JsonValues.normalize(schema.const_) : null;
+        structuredValues = (enumValues != null && enumValues.stream().anyMatch(JsonNode::isContainerNode))
+                || (constValue != null && constValue.isContainerNode());
+
+        minLength = schema.minLength != null ? schema.minLength : 0;
+        maxLength = schema.maxLength != null ? schema.maxLength : Integer.MAX_VALUE;
+        pattern = schema.pattern != null ? compilePattern(schema.pattern) : null;
+
+        minimum = schema.minimum;
+        maximum = schema.maximum;
+        // draft 4 models only repeat the bound in exclusiveMinimum / exclusiveMaximum
+        exclusiveMinimum = draft.compareTo(JsonSchemaDraft.v6) >= 0 ? schema.exclusiveMinimum : null;
+        exclusiveMaximum = draft.compareTo(JsonSchemaDraft.v6) >= 0 ? schema.exclusiveMaximum : null;
+        multipleOf = schema.multipleOf;
+        numberAssertions = minimum != null || maximum != null || exclusiveMinimum != null || exclusiveMaximum != null
+                || multipleOf != null;
+        longBounds = LongBounds.of(minimum, exclusiveMinimum, maximum, exclusiveMaximum);
+        longMultipleOf = LongBounds.longMultipleOf(multipleOf);
+
+        properties = new HashMap<>();
+        if (schema.properties != null) {
+            schema.properties.forEach((name, property) -> properties.put(name, compiler.compile(property)));
+        }
+        if (schema.patternProperties != null) {
+            propertyPatterns = new Pattern[schema.patternProperties.size()];
+            patternProperties = new Node[schema.patternProperties.size()];
+            int i = 0;
+            for (Map.Entry<String, JsonSchema> entry : schema.patternProperties.entrySet()) {
+                propertyPatterns[i] = compilePattern(entry.getKey());
+                patternProperties[i] = compiler.compile(entry.getValue());
+                i++;
+            }
+        } else {
+            propertyPatterns = new Pattern[0];
+            patternProperties = NO_NODES;
+        }
+        if (Boolean.FALSE.equals(schema.additionalProperties)) {
+            additionalProperties = Node.invalid("additional property not allowed");
+        } else if (schema.additionalProperties instanceof JsonSchema) {
+            additionalProperties = compiler.compile((JsonSchema) schema.additionalProperties);
+        } else {
+            additionalProperties = null;
+        }
+        propertyNames = schema.propertyNames != null ? compiler.compile(schema.propertyNames) : null;
+        required = schema.required != null ? schema.required.toArray(new String[0]) : new String[0];
+        requiredIndexes = new HashMap<>();
+        for (int i = 0; i < required.length; i++) {
+            requiredIndexes.put(required[i], i);
+        }
+        minProperties = schema.minProperties != null ? schema.minProperties : 0;
+        maxProperties = schema.maxProperties != null ? schema.maxProperties : Integer.MAX_VALUE;
+        objectAssertions = !properties.isEmpty() || patternProperties.length != 0 || additionalProperties != null
+                || propertyNames != null || required.length != 0 || minProperties != 0
+                || maxProperties != Integer.MAX_VALUE;
+
+        items = schema.items != null ? compiler.compile(schema.items) : null;
+        contains = schema.contains != null ? compiler.compile(schema.contains) : null;
+        uniqueItems = Boolean.TRUE.equals(schema.uniqueItems);
+        minItems = schema.minItems != null ? schema.minItems : 0;
+        maxItems = schema.maxItems != null ? schema.maxItems : Integer.MAX_VALUE;
+        arrayAssertions = items != null || contains != null || uniqueItems || minItems != 0
+                || maxItems != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return whether the schema has assertions handled by this node
+     */
+    static boolean hasAssertions(JsonSchema schema) {
+        return schema.type != null || schema.enum_ != null || schema.const_ != null
+                || schema.minLength != null || schema.maxLength != null || schema.pattern != null
+                || schema.minimum != null || schema.maximum != null || schema.exclusiveMinimum != null
+                || schema.exclusiveMaximum != null || schema.multipleOf != null
+                || schema.properties != null || schema.patternProperties != null
+                || schema.additionalProperties != null || schema.propertyNames != null || schema.required != null
+                || schema.minProperties != null || schema.maxProperties != null
+                || schema.items != null || schema.contains != null || schema.uniqueItems != null
+                || schema.minItems != null || schema.maxItems != null;
+    }
+
+    @Override
+    void validate(JsonParser parser, Context context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (enumValues == null && constValue == null) {
+            validateValue(parser, token, context);
+        } else if (!token.isStructStart()) {
+            checkValue(JsonValues.scalar(parser), context);
+            validateValue(parser, token, context);
+        } else if (structuredValues) {
+            JsonNode value = context.readTree(parser);
+            checkValue(JsonValues.normalize(value), context);
+            validateValue(Context.traverse(value), token, context);
+        } else {
+            // only scalars allowed
+            checkValue(null, context);
+            validateValue(parser, token, context);
+        }
+    }
+
+    private void checkValue(JsonNode value, Context context) {
+        if (enumValues != null && (value == null || !enumValues.contains(value))) {
+            context.error("must be one of the enum values");
+        }
+        if (constValue != null && !constValue.equals(value)) {
+            context.error("must be equal to the const value");
+        }
+    }
+
+    private void validateValue(JsonParser parser, JsonToken token, Context context) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                checkType(bit(JsonSchemaDataType.OBJECT), "object", context);
+                if (objectAssertions) {
+                    validateObject(parser, context);
+                } else {
+                    parser.skipChildren();
+                }
+                break;
+            case START_ARRAY:
+                checkType(bit(JsonSchemaDataType.ARRAY), "array", context);
+                if (arrayAssertions) {
+                    validateArray(parser, context);
+                } else {
+                    parser.skipChildren();
+                }
+                break;
+            case VALUE_STRING:
+                checkType(bit(JsonSchemaDataType.STRING), "string", context);
+                validateString(parser.getText(), context);
+                break;
+            case VALUE_NUMBER_INT:
+                checkType(INTEGER_TYPES, "integer", context);
+                if (numberAssertions) {
+                    validateNumber(parser, context);
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                if (types != 0 && (types & bit(JsonSchemaDataType.NUMBER)) == 0) {
+                    if ((types & bit(JsonSchemaDataType.INTEGER)) == 0 || !integralFloats
+                            || !LongBounds.isIntegral(parser.getDecimalValue())) {
+                        typeError("number", context);
+                    }
+                }
+                if (numberAssertions) {
+                    validateNumber(parser, context);
+                }
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                checkType(bit(JsonSchemaDataType.BOOLEAN), "boolean", context);
+                break;
+            case VALUE_NULL:
+                checkType(bit(JsonSchemaDataType.NULL), "null", context);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected token " + token);
+        }
+    }
+
+    private void checkType(int bits, String actual, Context context) {
+        if (types != 0 && (types & bits) == 0) {
+            typeError(actual, context);
+        }
+    }
+
+    private void typeError(String actual, Context context) {
+        context.error(format("expected %s but found %s", typeNames, actual));
+    }
+
+    private void validateString(String value, Context context) {
+        if (minLength > 0 || maxLength != Integer.MAX_VALUE) {
+            int length = value.codePointCount(0, value.length());
+            if (length < minLength) {
+                context.error(format("must have at least %d characters", minLength));
+            }
+            if (length > maxLength) {
+                context.error(format("must have at most %d characters", maxLength));
+            }
+        }
+        if (pattern != null && !pattern.matcher(value).find()) {
+            context.error(format("must match pattern %s", pattern.pattern()));
+        }
+    }
+
+    private void validateNumber(JsonParser parser, Context context) throws IOException {
+        if (longBounds != null && parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+                && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            long value = parser.getLongValue();
+            if (value < longBounds.lower) {
+                context.error(longBounds.lowerMessage);
+            }
+            if (value > longBounds.upper) {
+                context.error(longBounds.upperMessage);
+            }
+            if (longMultipleOf != 0) {
+                if (value % longMultipleOf != 0) {
+                    context.error(LongBounds.multipleOfMessage(multipleOf));
+                }
+                return;
+            }
+        } else {
+            BigDecimal value = parser.getDecimalValue();
+            if (minimum != null && value.compareTo(minimum) < 0) {
+                context.error(LongBounds.minimumMessage(minimum, false));
+            }
+            if (exclusiveMinimum != null && value.compareTo(exclusiveMinimum) <= 0) {
+                context.error(LongBounds.minimumMessage(exclusiveMinimum, true));
+            }
+            if (maximum != null && value.compareTo(maximum) > 0) {
+                context.error(LongBounds.maximumMessage(maximum, false));
+            }
+            if (exclusiveMaximum != null && value.compareTo(exclusiveMaximum) >= 0) {
+                context.error(LongBounds.maximumMessage(exclusiveMaximum, true));
+            }
+        }
+        if (multipleOf != null && parser.getDecimalValue().remainder(multipleOf).signum() != 0) {
+            context.error(LongBounds.multipleOfMessage(multipleOf));
+        }
+    }
+
+    private void validateObject(JsonParser parser, Context context) throws IOException {
+        boolean[] present = required.length != 0 ? new boolean[required.length] : null;
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            count++;
+            if (present != null) {
+                Integer index = requiredIndexes.get(name);
+                if (index != null) {
+                    present[index] = true;
+                }
+            }
+
+            context.push(name);
+            if (propertyNames != null) {
+                propertyNames.validate(Context.traverse(TextNode.valueOf(name)), context);
+            }
+            validateProperty(name, parser, context);
+            context.pop();
+        }
+
+        if (present != null) {
+            for (int i = 0; i < required.length; i++) {
+                if (!present[i]) {
+                    context.error(format("missing required property %s", required[i]));
+                }
+            }
+        }
+        if (count < minProperties) {
+            context.error(format("must have at least %d properties", minProperties));
+        }
+        if (count > maxProperties) {
+            context.error(format("must have at most %d properties", maxProperties));
+        }
+    }
+
+    private void validateProperty(String name, JsonParser parser, Context context) throws IOException {
+        Node property = properties.get(name);
+        List<Node> matches = null;
+        for (int i = 0; i < propertyPatterns.length; i++) {
+            if (propertyPatterns[i].matcher(name).find()) {
+                if (matches == null) {
+                    matches = new ArrayList<>();
+                    if (property != null) {
+                        matches.add(property);
+                    }
+                }
+                matches.add(patternProperties[i]);
+            }
+        }
+
+        if (matches == null || matches.size() == 1) {
+            Node node = matches != null ? matches.get(0) : property != null ? property : additionalProperties;
+            if (node != null) {
+                node.validate(parser, context);
+            } else {
+                parser.skipChildren();
+            }
+        } else {
+            TokenBuffer buffer = context.buffer(parser);
+            for (Node node : matches) {
+                node.validate(Context.replay(buffer), context);
+            }
+        }
+    }
+
+    private void validateArray(JsonParser parser, Context context) throws IOException {
+        Set<JsonNode> values = uniqueItems ? new HashSet<>() : null;
+        boolean containsMatched = contains == null;
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            context.push(count);
+            if (values != null) {
+                JsonNode value = context.readTree(parser);
+                if (!values.add(JsonValues.normalize(value))) {
+                    context.error("duplicate item");
+                }
+                containsMatched = containsMatched || context.matches(contains, Context.traverse(value));
+                if (items != null) {
+                    items.validate(Context.traverse(value), context);
+                }
+            } else if (!containsMatched && items != null) {
+                TokenBuffer buffer = context.buffer(parser);
+                containsMatched = context.matches(contains, Context.replay(buffer));
+                items.validate(Context.replay(buffer), context);
+            } else if (!containsMatched) {
+                containsMatched = context.matches(contains, parser);
+            } else if (items != null) {
+                items.validate(parser, context);
+            } else {
+                parser.skipChildren();
+            }
+            context.pop();
+            count++;
+        }
+
+        if (!containsMatched) {
+            context.error("must contain a matching item");
+        }
+        if (count < minItems) {
+            context.error(format("must have at least %d items", minItems));
+        }
+        if (count > maxItems) {
+            context.error(format("must have at most %d items", maxItems));
+        }
+    }
+
+    private static Pattern compilePattern(String pattern) {
+        try {
+            return Pattern.compile(pattern);
+        } catch (PatternSyntaxException exception) {
+            throw new IllegalArgumentException("Unsupported pattern " + pattern, exception);
+        }
+    }
+
+    private static int bit(JsonSchemaDataType type) {
+        return 1 << type.ordinal();
+    }
+}
@@ -0,0 +1,22 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Violation of a schema by an instance.
+ */
+@RequiredArgsConstructor
+@EqualsAndHashCode
+public final class ValidationError {
+    /**
+     * JSON pointer of the invalid value in the instance, empty for the instance itself.
+     */
+    public final String path;
+    public final String message;
+
+    @Override
+    public String toString() {
+        return path.isEmpty() ? message : path + ": " + message;
+    }
+}
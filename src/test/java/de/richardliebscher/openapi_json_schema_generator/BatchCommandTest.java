@@ -0,0 +1,178 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Message> messages = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void checkBatchFile() throws IOException {
+        // ARRANGE
+        writeSpec("a.json", Json.object().add("A", Json.object().add("type", "string")));
+        writeSpec("b.json", Json.object().add("B", Json.object().add("type", "integer")));
+        Files.writeString(tempDir.resolve("batch.txt"), "# comment\na.json out/a.json A\n\nb.json out/b.json\n");
+
+        // ACT
+        List<BatchCommand.Job> jobs = BatchCommand.readBatchFile(tempDir.resolve("batch.txt"));
+        List<Integer> statuses = createCommand(jobs).run();
+
+        // ASSERT
+        assertEquals(List.of(0, 0), statuses);
+        assertEquals(Collections.emptyList(), messages);
+
+        JsonObject a = readOutput("out/a.json");
+        assertEquals("#/$defs/A", a.get("$ref").asString());
+        JsonObject b = readOutput("out/b.json");
+        assertNull(b.get("$ref"));
+        assertNotNull(b.get("$defs").asObject().get("B"));
+    }
+
+    @Test
+    void checkGlob() throws IOException {
+        // ARRANGE
+        Files.createDirectories(tempDir.resolve("specs/nested"));
+        writeSpec("specs/a.json", Json.object().add("A", Json.object().add("type", "string")));
+        writeSpec("specs/nested/b.json", Json.object().add("B", Json.object().add("type", "string")));
+        Files.writeString(tempDir.resolve("specs/ignored.txt"), "");
+
+        // ACT
+        List<BatchCommand.Job> jobs = BatchCommand.expandGlob(
+                tempDir.resolve("specs").toString() + "/**.json", tempDir.resolve("out"), null, ".json");
+        List<Integer> statuses = createCommand(jobs).run();
+
+        // ASSERT
+        assertEquals(List.of(0, 0), statuses);
+        assertTrue(Files.exists(tempDir.resolve("out/a.json")));
+        assertTrue(Files.exists(tempDir.resolve("out/nested/b.json")));
+    }
+
+    @Test
+    void checkConflictingOutputs() throws IOException {
+        // ARRANGE
+        Files.createDirectories(tempDir.resolve("specs"));
+        writeSpec("specs/api.json", Json.object().add("A", Json.object().add("type", "string")));
+        Files.writeString(tempDir.resolve("specs/api.yaml"), "openapi: 3.0.2\n");
+        writeSpec("specs/other.json", Json.object().add("B", Json.object().add("type", "string")));
+
+        // ACT
+        List<BatchCommand.Job> jobs = BatchCommand.expandGlob(
+                tempDir.resolve("specs").toString() + "/*", tempDir.resolve("out"), null, ".json");
+        String conflict = BatchCommand.findConflictingOutput(jobs);
+
+        // ASSERT
+        assertEquals(3, jobs.size());
+        assertNotNull(conflict);
+        assertTrue(conflict.contains("api.json") && conflict.contains("api.yaml"), conflict);
+        assertNull(BatchCommand.findConflictingOutput(jobs.subList(1, 3)));
+    }
+
+    @Test
+    void checkStatusAndWarningsPerInput() throws IOException {
+        // ARRANGE
+        writeSpec("good.json", Json.object().add("A", Json.object().add("type", "string")));
+        Files.writeString(tempDir.resolve("bad.json"), "{ not json");
+        List<BatchCommand.Job> jobs = List.of(
+                new BatchCommand.Job(tempDir.resolve("good.json").toString(), tempDir.resolve("good.out"), null),
+                new BatchCommand.Job(tempDir.resolve("bad.json").toString(), tempDir.resolve("bad.out"), null));
+
+        // ACT
+        List<Integer> statuses = createCommand(jobs).run();
+
+        // ASSERT
+        assertEquals(0, statuses.get(0));
+        assertNotEquals(0, statuses.get(1));
+        assertTrue(Files.exists(tempDir.resolve("good.out")));
+        assertFalse(Files.exists(tempDir.resolve("bad.out")));
+        assertFalse(messages.isEmpty());
+        assertTrue(messages.stream().allMatch(m -> m.source.equals(jobs.get(1).input)));
+    }
+
+    @Test
+    void checkMalformedBatchFile() throws IOException {
+        // ARRANGE
+        Files.writeString(tempDir.resolve("batch.txt"), "a.json\n");
+        var err = new ByteArrayOutputStream();
+
+        // ACT
+        int exitCode = Main.execute(createMain(err), new String[] { "--batch-file", "batch.txt" });
+
+        // ASSERT
+        assertEquals(2, exitCode);
+        String output = err.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("batch.txt:1: expected 'INPUT OUTPUT [MAIN_SCHEMA]'"), output);
+        assertFalse(output.contains("Exception"), output);
+    }
+
+    @Test
+    void checkStatusAsJson() throws IOException {
+        // ARRANGE
+        writeSpec("a.json", Json.object().add("A", Json.object().add("type", "string")));
+        Files.writeString(tempDir.resolve("batch.txt"), "a.json out/a.json\n");
+        var err = new ByteArrayOutputStream();
+
+        // ACT
+        int exitCode = Main.execute(
+                createMain(err), new String[] { "--batch-file", "batch.txt", "--diagnostics-format", "json" });
+
+        // ASSERT
+        assertEquals(0, exitCode);
+        JsonObject status = Json.parse(err.toString(StandardCharsets.UTF_8).strip()).asObject();
+        assertEquals("info", status.get("severity").asString());
+        assertEquals("OK", status.get("message").asString());
+        assertTrue(status.get("source").asString().endsWith("a.json"), status.toString());
+    }
+
+    private Main createMain(ByteArrayOutputStream err) {
+        return new Main(
+                InputStream.nullInputStream(),
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8),
+                tempDir);
+    }
+
+    private BatchCommand createCommand(List<BatchCommand.Job> jobs) {
+        return new BatchCommand(
+                jobs,
+                2,
+                (input, mainSchema, outputStream, listener) -> new GenerateCommand(
+                        input, mainSchema, InputStream.nullInputStream(), outputStream,
+                        new Converter(true, true, JsonSchemaDraft.v2019_09, listener), listener),
+                messages::add);
+    }
+
+    private void writeSpec(String name, JsonObject schemas) throws IOException {
+        JsonObject spec = Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", schemas));
+        Files.writeString(tempDir.resolve(name), spec.toString());
+    }
+
+    private JsonObject readOutput(String name) throws IOException {
+        return Json.parse(Files.readString(tempDir.resolve(name), StandardCharsets.UTF_8)).asObject();
+    }
+}
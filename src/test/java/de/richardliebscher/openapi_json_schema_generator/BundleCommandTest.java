@@ -0,0 +1,153 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BundleCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Message> messages = Collections.synchronizedList(new ArrayList<>());
+    private final Converter converter = new Converter(true, true, JsonSchemaDraft.v2019_09, messages::add);
+
+    @Test
+    void checkAllComponents() throws IOException {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("A", Json.object().add("$ref", "#/components/schemas/B"))
+                .add("B", Json.object().add("type", "string")));
+
+        // ACT
+        int code = run(input, List.of());
+
+        // ASSERT
+        assertEquals(0, code);
+        assertEquals(Collections.emptyList(), messages);
+
+        JsonObject a = readOutput("A.json");
+        assertEquals("#/$defs/A", a.get("$ref").asString());
+        assertEquals("#/$defs/B", a.get("$defs").asObject().get("A").asObject().get("$ref").asString());
+        JsonObject b = readOutput("B.json");
+        assertEquals("#/$defs/B", b.get("$ref").asString());
+    }
+
+    @Test
+    void checkSelectedComponents() throws IOException {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("A", Json.object().add("type", "string"))
+                .add("B", Json.object().add("type", "string")));
+
+        // ACT
+        int code = run(input, List.of("#/components/schemas/B"));
+
+        // ASSERT
+        assertEquals(0, code);
+        assertFalse(Files.exists(tempDir.resolve("A.json")));
+        assertEquals("#/$defs/B", readOutput("B.json").get("$ref").asString());
+    }
+
+    @Test
+    void checkOnlyReachableDefinitions() throws IOException {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("A", Json.object().add("$ref", "#/components/schemas/B"))
+                .add("B", Json.object().add("type", "string"))
+                .add("C", Json.object().add("type", "string")));
+
+        // ACT
+        int code = run(input, List.of("A", "C"));
+
+        // ASSERT
+        assertEquals(0, code);
+        assertEquals(List.of("A", "B"), readOutput("A.json").get("$defs").asObject().names());
+        assertEquals(List.of("C"), readOutput("C.json").get("$defs").asObject().names());
+    }
+
+    @Test
+    void checkUnknownComponent() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("A", Json.object().add("type", "string")));
+
+        // ACT
+        int code = run(input, List.of("Missing"));
+
+        // ASSERT
+        assertEquals(2, code);
+        assertEquals(1, messages.size());
+        assertEquals(Message.Severity.ERROR, messages.get(0).severity);
+    }
+
+    @Test
+    void checkDuplicateComponents() throws IOException {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("A", Json.object().add("type", "string")));
+
+        // ACT
+        int code = run(input, List.of("A", "#/components/schemas/A"));
+
+        // ASSERT
+        assertEquals(0, code);
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals("#/$defs/A", readOutput("A.json").get("$ref").asString());
+    }
+
+    @Test
+    void checkComponentOutsideOutputDirectory() throws IOException {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("../A", Json.object().add("type", "string"))
+                .add("B/C", Json.object().add("type", "string"))
+                .add("D", Json.object().add("type", "string")));
+        Path outputDirectory = tempDir.resolve("out");
+
+        // ACT
+        var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+        int code = new BundleCommand("-", List.of(), inputStream, outputDirectory, 2, converter, messages::add).run();
+
+        // ASSERT
+        assertEquals(2, code);
+        // the parser warns about the names too
+        Message error = messages.get(messages.size() - 1);
+        assertEquals(Message.Severity.ERROR, error.severity);
+        assertTrue(error.message.contains("../A, B/C"), error.message);
+        assertFalse(Files.exists(tempDir.resolve("A.json")));
+        assertFalse(Files.exists(outputDirectory));
+    }
+
+    private int run(JsonObject input, List<String> components) {
+        var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+        return new BundleCommand("-", components, inputStream, tempDir, 2, converter, messages::add).run();
+    }
+
+    private JsonObject openApiWithSchemas(JsonObject schemas) {
+        return Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", schemas));
+    }
+
+    private JsonObject readOutput(String name) throws IOException {
+        return Json.parse(Files.readString(tempDir.resolve(name), StandardCharsets.UTF_8)).asObject();
+    }
+}
@@ -0,0 +1,159 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.CompactJsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchemaDataType;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactJsonSchemaTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkAllKeywords() throws IOException {
+        // ARRANGE
+        JsonSchema schema = allKeywords();
+
+        JsonSchema booleanAdditionalProperties = object();
+        booleanAdditionalProperties.definitions = Map.of();
+        booleanAdditionalProperties.additionalProperties = false;
+
+        // ACT + ASSERT
+        assertSameOutput(schema, CompactJsonSchema.of(schema));
+        assertSameOutput(booleanAdditionalProperties, CompactJsonSchema.of(booleanAdditionalProperties));
+        assertSameOutput(new JsonSchema(), CompactJsonSchema.of(new JsonSchema()));
+    }
+
+    @Test
+    void checkAllKeywordsSetsEveryField() throws IllegalAccessException {
+        // ARRANGE
+        JsonSchema schema = allKeywords();
+
+        // ACT + ASSERT
+        // a new field of JsonSchema needs a value here, so the comparisons with the bean serializer cover it
+        for (Field field : JsonSchema.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                assertNotNull(field.get(schema), field.getName());
+            }
+        }
+    }
+
+    @Test
+    void checkSyntheticSpecification() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("synthetic.json");
+        new SyntheticSpec().withSchemas(200).write(input);
+        OpenAPI openAPI = new SpecReader(message -> { }).read(input.toString(), InputStream.nullInputStream());
+        for (JsonSchemaDraft draft : JsonSchemaDraft.values()) {
+            Converter converter = new Converter(true, true, draft, message -> { });
+
+            // ACT
+            JsonSchema expected = converter.convert(openAPI.getComponents(), null);
+            CompactJsonSchema actual = converter.convertCompact(openAPI.getComponents(), null);
+            JsonSchema expectedMain = converter.convert(openAPI.getComponents(), SyntheticSpec.name(0));
+            CompactJsonSchema actualMain = converter.convertCompact(openAPI.getComponents(), SyntheticSpec.name(0));
+
+            // ASSERT
+            assertSameOutput(expected, actual);
+            assertSameOutput(expectedMain, actualMain);
+        }
+    }
+
+    /**
+     * @return schema with every keyword set, including {@code null} map values and list items and empty lists
+     */
+    static JsonSchema allKeywords() {
+        JsonSchema schema = new JsonSchema();
+        schema.$schema = "https://json-schema.org/draft/2019-09/schema";
+        schema.$id = "urn:test";
+        schema.definitions = Map.of("C", object());
+        schema.$defs = new LinkedHashMap<>();
+        schema.$defs.put("A", object());
+        schema.$defs.put("B", null);
+        schema.$ref = "#/$defs/A";
+        schema.title = "Title";
+        schema.description = "Description";
+        schema.default_ = JsonNodeFactory.instance.objectNode().put("a", 1);
+        schema.examples = List.of(TextNode.valueOf("x"), IntNode.valueOf(1));
+        schema.enum_ = new ArrayList<>(Arrays.asList(TextNode.valueOf("x"), null));
+        schema.const_ = BooleanNode.TRUE;
+        schema.readOnly = true;
+        schema.writeOnly = false;
+        schema.deprecated = true;
+        schema.type = List.of(JsonSchemaDataType.NULL, JsonSchemaDataType.OBJECT, JsonSchemaDataType.STRING);
+        schema.allOf = List.of(object(), new JsonSchema());
+        schema.anyOf = List.of();
+        schema.oneOf = List.of(object());
+        schema.not = object();
+        schema.if_ = object();
+        schema.then = object();
+        schema.else_ = object();
+        schema.minLength = 1;
+        schema.maxLength = 10;
+        schema.pattern = "^a$";
+        schema.format = "uuid";
+        schema.contentMediaType = "text/plain";
+        schema.contentEncoding = "base64";
+        schema.multipleOf = new BigDecimal("0.01");
+        schema.minimum = BigDecimal.ZERO;
+        schema.exclusiveMinimum = new BigDecimal("-1");
+        schema.maximum = new BigDecimal("1E+3");
+        schema.exclusiveMaximum = new BigDecimal("1001");
+        schema.properties = new LinkedHashMap<>();
+        schema.properties.put("b", object());
+        schema.properties.put("a", new JsonSchema());
+        schema.additionalProperties = object();
+        schema.required = List.of("b", "a");
+        schema.propertyNames = object();
+        schema.minProperties = 0;
+        schema.maxProperties = 2;
+        schema.patternProperties = Map.of("^x-", object());
+        schema.items = object();
+        schema.contains = object();
+        schema.minItems = 1;
+        schema.maxItems = 3;
+        schema.uniqueItems = true;
+        return schema;
+    }
+
+    static JsonSchema object() {
+        JsonSchema schema = new JsonSchema();
+        schema.type = List.of(JsonSchemaDataType.OBJECT);
+        return schema;
+    }
+
+    private static void assertSameOutput(JsonSchema expected, CompactJsonSchema actual) throws IOException {
+        for (OutputFormat format : OutputFormat.values()) {
+            assertArrayEquals(
+                    format.getWriter().writeValueAsBytes(expected),
+                    format.getWriter().writeValueAsBytes(actual),
+                    format.name());
+            assertArrayEquals(
+                    format.getWriter().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(expected),
+                    format.getWriter().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(actual),
+                    format.name() + " sorted");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaemonTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path connectionFile;
+    private CompletableFuture<Integer> daemon;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void startDaemon() throws InterruptedException {
+        connectionFile = tempDir.resolve("daemon.properties");
+        PrintStream log = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+        daemon = CompletableFuture.supplyAsync(() -> new Daemon(connectionFile, log).run());
+        for (int i = 0; i < 100 && !Files.exists(connectionFile); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(Files.exists(connectionFile));
+    }
+
+    @AfterEach
+    void stopDaemon() throws Exception {
+        if (Files.exists(connectionFile)) {
+            DaemonClient.stop(connectionFile, new PrintStream(new ByteArrayOutputStream()));
+        }
+        assertEquals(0, daemon.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void checkGenerate() throws IOException {
+        // ARRANGE
+        writeSpec("spec.json", Json.object()
+                .add("A", Json.object().add("type", "string").add("xml", Json.object())));
+
+        // ACT
+        Integer exitCode = createClient(InputStream.nullInputStream())
+                .run(List.of(tempDir.resolve("spec.json").toString(), "A"), false);
+
+        // ASSERT
+        assertEquals(0, exitCode);
+        JsonObject output = Json.parse(out.toString(StandardCharsets.UTF_8)).asObject();
+        assertEquals("#/$defs/A", output.get("$ref").asString());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("'xml' property ignored"));
+    }
+
+    @Test
+    void checkStandardInput() {
+        // ARRANGE
+        JsonObject spec = openApiWithSchemas(Json.object().add("A", Json.object().add("type", "string")));
+        var in = new ByteArrayInputStream(spec.toString().getBytes(StandardCharsets.UTF_8));
+
+        // ACT
+        Integer exitCode = createClient(in).run(List.of("-"), true);
+
+        // ASSERT
+        assertEquals(0, exitCode);
+        assertNotNull(Json.parse(out.toString(StandardCharsets.UTF_8)).asObject().get("$defs"));
+    }
+
+    @Test
+    void checkExitCode() {
+        // ACT
+        Integer exitCode = createClient(InputStream.nullInputStream())
+                .run(List.of(tempDir.resolve("missing.json").toString()), false);
+
+        // ASSERT
+        assertEquals(2, exitCode);
+        assertFalse(err.toString(StandardCharsets.UTF_8).isEmpty());
+    }
+
+    @Test
+    void checkWrongToken() throws IOException {
+        // ACT
+        int response = sendRaw(new Daemon.Request("wrong", true, "", List.of()));
+
+        // ASSERT
+        assertEquals(-1, response);
+        assertFalse(daemon.isDone());
+    }
+
+    @Test
+    void checkRequestTooLarge() throws IOException {
+        // ARRANGE
+        String token = Daemon.getToken(Daemon.readConnectionFile(connectionFile));
+        List<String> args = Collections.nCopies(20, "a".repeat(60_000));
+
+        // ACT
+        int response = sendRaw(new Daemon.Request(token, false, "", args));
+
+        // ASSERT
+        assertEquals(-1, response);
+    }
+
+    @Test
+    void checkStop() throws Exception {
+        // ACT
+        int exitCode = DaemonClient.stop(connectionFile, new PrintStream(err));
+
+        // ASSERT
+        assertEquals(0, exitCode);
+        assertEquals(0, daemon.get(10, TimeUnit.SECONDS));
+        assertFalse(Files.exists(connectionFile));
+        assertNull(createClient(InputStream.nullInputStream()).run(List.of("-"), false));
+    }
+
+    @Test
+    void checkRelativePaths() throws IOException {
+        // ARRANGE
+        writeSpec("spec.json", Json.object().add("A", Json.object().add("type", "string")));
+        Main main = new Main(
+                InputStream.nullInputStream(),
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8),
+                tempDir);
+
+        // ACT
+        int exitCode = Main.execute(main, new String[] { "spec.json", "--output-dir", "out" });
+
+        // ASSERT
+        assertEquals(0, exitCode);
+        assertTrue(Files.exists(tempDir.resolve("out/spec.json")));
+    }
+
+    /**
+     * @return first byte of the response or -1 when the daemon closed the connection
+     */
+    private int sendRaw(Daemon.Request request) throws IOException {
+        int port = Daemon.getPort(Daemon.readConnectionFile(connectionFile));
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            try {
+                var output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                request.write(output);
+                Daemon.writeFrame(output, Daemon.STDIN, new byte[0], 0, 0);
+                output.flush();
+                return socket.getInputStream().read();
+            } catch (SocketException exception) {
+                return -1; // closed while sending
+            }
+        }
+    }
+
+    private DaemonClient createClient(InputStream in) {
+        return new DaemonClient(
+                connectionFile,
+                in,
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private void writeSpec(String name, JsonObject schemas) throws IOException {
+        Files.writeString(tempDir.resolve(name), openApiWithSchemas(schemas).toString());
+    }
+
+    private JsonObject openApiWithSchemas(JsonObject schemas) {
+        return Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", schemas));
+    }
+}
@@ -0,0 +1,187 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicatorTest {
+
+    private final List<Message> messages = new ArrayList<>();
+
+    @Test
+    void checkRepeatedInlineSchemaIsShared() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+
+        // ASSERT
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(3, definitions.size());
+        String shared = definitions.names().get(2);
+        assertTrue(shared.startsWith("Shared_"));
+        assertEquals("#/$defs/" + shared, property(definitions, "Order", "total").get("$ref").asString());
+        assertEquals("#/$defs/" + shared, property(definitions, "Invoice", "amount").get("$ref").asString());
+        assertEquals(2, definitions.get(shared).asObject().get("properties").asObject().size());
+    }
+
+    @Test
+    void checkNamesOnlyDependOnContent() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+        JsonObject otherInput = openApiWithSchemas(Json.object()
+                .add("Refund", objectWithProperty("value", money()))
+                .add("Payment", objectWithProperty("amount", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+        JsonObject otherDefinitions = generate(otherInput, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+
+        // ASSERT
+        assertEquals(definitions.names().get(2), otherDefinitions.names().get(3));
+    }
+
+    @Test
+    void checkPropertyOrderIsIgnored() {
+        // ARRANGE
+        // "Aa" and "BB" have the same hash code, so a hash map keeps them in insertion order
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("Aa", Json.object().add("type", "string"))
+                                .add("BB", Json.object().add("type", "number")))))
+                .add("Invoice", objectWithProperty("amount", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("BB", Json.object().add("type", "number"))
+                                .add("Aa", Json.object().add("type", "string"))))));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+
+        // ASSERT
+        assertEquals(3, definitions.size());
+        String shared = definitions.names().get(2);
+        assertEquals("#/$defs/" + shared, property(definitions, "Order", "total").get("$ref").asString());
+        assertEquals("#/$defs/" + shared, property(definitions, "Invoice", "amount").get("$ref").asString());
+    }
+
+    @Test
+    void checkInlineCopyOfDefinition() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Money", money())
+                .add("Order", objectWithProperty("total", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+
+        // ASSERT
+        assertEquals(List.of("Money", "Order"), definitions.names());
+        assertEquals("#/$defs/Money", property(definitions, "Order", "total").get("$ref").asString());
+    }
+
+    @Test
+    void checkNestedSchemaOnlyRepeatedInRepeatedSchema() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 1).get("$defs").asObject();
+
+        // ASSERT
+        // currency is repeated with money, but only occurs once in the shared definition
+        JsonObject shared = definitions.get(definitions.names().get(2)).asObject();
+        assertEquals("string", shared.get("properties").asObject().get("currency").asObject()
+                .get("type").asArray().get(0).asString());
+    }
+
+    @Test
+    void checkSmallSchemasStayInline() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v2019_09, 10_000).get("$defs").asObject();
+
+        // ASSERT
+        assertEquals(List.of("Order", "Invoice"), definitions.names());
+        assertNull(property(definitions, "Order", "total").get("$ref"));
+    }
+
+    @Test
+    void checkDefinitionsKeyword() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Order", objectWithProperty("total", money()))
+                .add("Invoice", objectWithProperty("amount", money())));
+
+        // ACT
+        JsonObject definitions = generate(input, JsonSchemaDraft.v7, 1).get("definitions").asObject();
+
+        // ASSERT
+        String shared = definitions.names().get(2);
+        assertEquals("#/definitions/" + shared, property(definitions, "Order", "total").get("$ref").asString());
+    }
+
+    private JsonObject generate(JsonObject input, JsonSchemaDraft draft, int minSize) {
+        var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+        var outputStream = new ByteArrayOutputStream();
+        var command = new GenerateCommand(
+                "-", null, inputStream, outputStream, new Converter(true, true, draft, messages::add), messages::add)
+                .withDeduplicator(new Deduplicator(minSize));
+
+        assertEquals(0, command.run());
+        return Json.parse(outputStream.toString(StandardCharsets.UTF_8)).asObject();
+    }
+
+    private static JsonObject property(JsonObject definitions, String definition, String property) {
+        return definitions.get(definition).asObject().get("properties").asObject().get(property).asObject();
+    }
+
+    private static JsonObject money() {
+        return Json.object()
+                .add("type", "object")
+                .add("required", Json.array("value", "currency"))
+                .add("properties", Json.object()
+                        .add("value", Json.object().add("type", "number"))
+                        .add("currency", Json.object().add("type", "string").add("pattern", "^[A-Z]{3}$")));
+    }
+
+    private static JsonObject objectWithProperty(String name, JsonObject schema) {
+        return Json.object()
+                .add("type", "object")
+                .add("properties", Json.object().add(name, schema));
+    }
+
+    private static JsonObject openApiWithSchemas(JsonObject schemas) {
+        return Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", schemas));
+    }
+}
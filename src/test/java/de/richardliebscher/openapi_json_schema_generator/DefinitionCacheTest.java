@@ -0,0 +1,96 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefinitionCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final Converter converter = new Converter(true, true, JsonSchemaDraft.v2019_09, message -> { });
+
+    @Test
+    void checkStoreAndLoad() {
+        // ARRANGE
+        DefinitionCache cache = new DefinitionCache(cacheDirectory, Long.MAX_VALUE, "1.0");
+        String key = cache.key(converter, "3.0.3", "A", stringSchema());
+        Message message = Message.warning(new JsonPath("components").push("schemas").push("A"), "warning");
+
+        // ACT
+        cache.store(key, new DefinitionCache.Entry(List.of(message), List.of("B"), bytes("{\"type\":\"string\"}")), m -> fail());
+        DefinitionCache.Entry entry = cache.load(key);
+
+        // ASSERT
+        assertNotNull(entry);
+        assertEquals("{\"type\":\"string\"}", new String(entry.definition, StandardCharsets.UTF_8));
+        assertEquals(List.of(message.toString()), List.of(entry.messages.get(0).toString()));
+        assertEquals(List.of("B"), entry.references);
+    }
+
+    @Test
+    void checkKeyDependsOnOptions() {
+        // ARRANGE
+        DefinitionCache cache = new DefinitionCache(cacheDirectory, Long.MAX_VALUE, "1.0");
+        String key = cache.key(converter, "3.0.3", "A", stringSchema());
+
+        // ACT & ASSERT
+        assertEquals(key, cache.key(converter, "3.0.3", "A", stringSchema()));
+        assertNotEquals(key, cache.key(converter, "3.0.3", "B", stringSchema()));
+        assertNotEquals(key, cache.key(converter, "3.0.3", "A", stringSchema().put("maxLength", 1)));
+        assertNotEquals(key, cache.key(
+                new Converter(false, true, JsonSchemaDraft.v2019_09, message -> { }), "3.0.3", "A", stringSchema()));
+        assertNotEquals(key, cache.key(
+                new Converter(true, true, JsonSchemaDraft.v7, message -> { }), "3.0.3", "A", stringSchema()));
+        assertNotEquals(key, cache.key(converter, "3.1.0", "A", stringSchema()));
+        assertNotEquals(key, new DefinitionCache(cacheDirectory, Long.MAX_VALUE, "1.1")
+                .key(converter, "3.0.3", "A", stringSchema()));
+    }
+
+    @Test
+    void checkEvictLeastRecentlyUsed() throws IOException, InterruptedException {
+        // ARRANGE
+        DefinitionCache cache = new DefinitionCache(cacheDirectory, Long.MAX_VALUE, "1.0");
+        String a = cache.key(converter, "3.0.3", "A", stringSchema());
+        String b = cache.key(converter, "3.0.3", "B", stringSchema());
+        String c = cache.key(converter, "3.0.3", "C", stringSchema());
+        cache.store(a, new DefinitionCache.Entry(List.of(), List.of(), bytes("{\"type\":\"string\"}")), m -> fail());
+        cache.store(b, new DefinitionCache.Entry(List.of(), List.of(), bytes("{\"type\":\"string\"}")), m -> fail());
+        Thread.sleep(20);
+        cache.store(c, new DefinitionCache.Entry(List.of(), List.of(), bytes("{\"type\":\"string\"}")), m -> fail());
+        Thread.sleep(20);
+        assertNotNull(cache.load(a));
+
+        long entrySize;
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            entrySize = files.filter(Files::isRegularFile).findFirst().orElseThrow().toFile().length();
+        }
+
+        // ACT
+        new DefinitionCache(cacheDirectory, 2 * entrySize, "1.0").evict();
+
+        // ASSERT
+        assertTrue(cache.contains(a));
+        assertFalse(cache.contains(b));
+        assertTrue(cache.contains(c));
+    }
+
+    private static ObjectNode stringSchema() {
+        return JsonNodeFactory.instance.objectNode().put("type", "string");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticsTest {
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    @Test
+    void checkAllWarnings() {
+        // ARRANGE
+        Diagnostics diagnostics = new Diagnostics(outputStream, Diagnostics.Format.text, Diagnostics.Warnings.all);
+
+        // ACT
+        diagnostics.accept(Message.warning(new JsonPath("a").push("b"), "ignored"));
+        diagnostics.accept(Message.error("failed").withSource("spec.yaml"));
+        diagnostics.close();
+
+        // ASSERT
+        assertEquals(List.of("#/a/b: ignored", "spec.yaml: failed"), lines());
+    }
+
+    @Test
+    void checkSummary() {
+        // ARRANGE
+        Diagnostics diagnostics = new Diagnostics(outputStream, Diagnostics.Format.text, Diagnostics.Warnings.summary);
+
+        // ACT
+        for (int i = 0; i < 5; i++) {
+            diagnostics.accept(Message.warning(i < 3 ? new JsonPath("s" + i) : unusedPath(), "'xml' property ignored"));
+        }
+        diagnostics.accept(Message.warning(new JsonPath("t"), "other"));
+        diagnostics.accept(Message.error("failed"));
+        diagnostics.close();
+
+        // ASSERT
+        assertEquals(List.of(
+                "failed",
+                "'xml' property ignored (5 times, e.g. at #/s0, #/s1, #/s2)",
+                "#/t: other"), lines());
+    }
+
+    @Test
+    void checkNoWarnings() {
+        // ARRANGE
+        Diagnostics diagnostics = new Diagnostics(outputStream, Diagnostics.Format.text, Diagnostics.Warnings.none);
+
+        // ACT
+        diagnostics.accept(Message.warning(unusedPath(), "ignored"));
+        diagnostics.accept(Message.error("failed"));
+        diagnostics.close();
+
+        // ASSERT
+        assertEquals(List.of("failed"), lines());
+    }
+
+    @Test
+    void checkJsonLines() {
+        // ARRANGE
+        Diagnostics diagnostics = new Diagnostics(outputStream, Diagnostics.Format.json, Diagnostics.Warnings.summary);
+
+        // ACT
+        diagnostics.accept(Message.warning(new JsonPath("a"), "ignored").withCategory(Message.Category.CONVERTER));
+        diagnostics.accept(Message.warning(new JsonPath("b"), "ignored").withCategory(Message.Category.CONVERTER));
+        diagnostics.accept(Message.error(new JsonPath("c"), "failed").withSource("spec.yaml"));
+        diagnostics.close();
+
+        // ASSERT
+        List<String> lines = lines();
+        assertEquals(2, lines.size());
+        assertEquals(Json.object()
+                .add("severity", "error")
+                .add("category", "general")
+                .add("source", "spec.yaml")
+                .add("path", "#/c")
+                .add("message", "failed"), Json.parse(lines.get(0)));
+        JsonObject summary = Json.parse(lines.get(1)).asObject();
+        assertEquals("converter", summary.get("category").asString());
+        assertEquals(2, summary.get("count").asInt());
+        assertEquals(Json.array("#/a", "#/b"), summary.get("samplePaths"));
+    }
+
+    @Test
+    void checkFlush() {
+        // ARRANGE
+        Diagnostics diagnostics = new Diagnostics(outputStream, Diagnostics.Format.text, Diagnostics.Warnings.all);
+
+        // ACT
+        diagnostics.accept(Message.warning("first"));
+        diagnostics.flush();
+
+        // ASSERT
+        assertEquals(List.of("first"), lines());
+        diagnostics.close();
+    }
+
+    private List<String> lines() {
+        return outputStream.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Path of a message which must not be written.
+     */
+    private static JsonPath unusedPath() {
+        return new JsonPath("unused") {
+            @Override
+            public String toString() {
+                throw new AssertionError("path of dropped or aggregated message turned into string");
+            }
+        };
+    }
+}
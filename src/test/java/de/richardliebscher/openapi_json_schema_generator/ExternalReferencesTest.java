@@ -0,0 +1,208 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalReferencesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkFileReferences() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.yaml");
+        Files.writeString(input, "openapi: 3.0.2\n" +
+                "info: {title: test, version: '1'}\n" +
+                "paths: {}\n" +
+                "components:\n" +
+                "  schemas:\n" +
+                "    Order: {$ref: 'schemas/order.yaml'}\n" +
+                "    Money: {$ref: './common.yaml#/Money'}\n" +
+                "    Tag: {type: string}\n");
+        Files.createDirectory(tempDir.resolve("schemas"));
+        Files.writeString(tempDir.resolve("schemas").resolve("order.yaml"), "type: object\n" +
+                "properties:\n" +
+                "  customer: {$ref: 'customer.yaml'}\n" +
+                "  total: {$ref: '../common.yaml#/Money'}\n" +
+                "  tag: {$ref: '../api.yaml#/components/schemas/Tag'}\n" +
+                "  example: {type: object, example: {$ref: 'not-a-reference.yaml'}}\n");
+        Files.writeString(tempDir.resolve("schemas").resolve("customer.yaml"), "type: string\n");
+        Files.writeString(tempDir.resolve("common.yaml"), "Money:\n" +
+                "  type: object\n" +
+                "  properties:\n" +
+                "    currency: {$ref: '#/Currency'}\n" +
+                "Currency:\n" +
+                "  type: string\n");
+
+        // ACT
+        var output = new ByteArrayOutputStream();
+        JsonSchemaGenerator.Result result = new JsonSchemaGenerator().generate(
+                JsonSchemaGenerator.Request.of(input.toString()).withOutputFormat(OutputFormat.COMPACT_JSON),
+                output);
+
+        // ASSERT
+        assertEquals(List.of(), result.getMessages());
+        JsonNode defs = OutputFormat.JSON.getObjectMapper().readTree(output.toByteArray()).get("$defs");
+        List<String> names = new ArrayList<>();
+        defs.fieldNames().forEachRemaining(names::add);
+        assertEquals(List.of("Order", "Money", "Tag", "Currency", "Money_2", "customer", "order"), names);
+        assertEquals("#/$defs/order", defs.at("/Order/$ref").textValue());
+        assertEquals("#/$defs/Money_2", defs.at("/Money/$ref").textValue());
+        assertEquals("#/$defs/Currency", defs.at("/Money_2/properties/currency/$ref").textValue());
+        assertEquals("#/$defs/customer", defs.at("/order/properties/customer/$ref").textValue());
+        assertEquals("#/$defs/Money_2", defs.at("/order/properties/total/$ref").textValue());
+        assertEquals("#/$defs/Tag", defs.at("/order/properties/tag/$ref").textValue());
+    }
+
+    @Test
+    void checkPropertiesNamedLikeValueKeywords() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.yaml");
+        Files.writeString(input, "openapi: 3.0.2\n" +
+                "info: {title: test, version: '1'}\n" +
+                "paths: {}\n" +
+                "components:\n" +
+                "  schemas:\n" +
+                "    Price:\n" +
+                "      type: object\n" +
+                "      default: {$ref: 'not-a-reference.yaml'}\n" +
+                "      properties:\n" +
+                "        default: {$ref: 'common.yaml#/Money'}\n" +
+                "        x-extra: {$ref: 'common.yaml#/Money'}\n");
+        Files.writeString(tempDir.resolve("common.yaml"), "Money: {type: number}\n");
+
+        // ACT
+        var output = new ByteArrayOutputStream();
+        JsonSchemaGenerator.Result result = new JsonSchemaGenerator().generate(
+                JsonSchemaGenerator.Request.of(input.toString()).withOutputFormat(OutputFormat.COMPACT_JSON),
+                output);
+
+        // ASSERT
+        assertEquals(0, result.getExitCode(), () -> String.valueOf(result.getMessages()));
+        JsonNode defs = OutputFormat.JSON.getObjectMapper().readTree(output.toByteArray()).get("$defs");
+        assertEquals("#/$defs/Money", defs.at("/Price/properties/default/$ref").textValue());
+        assertEquals("#/$defs/Money", defs.at("/Price/properties/x-extra/$ref").textValue());
+        assertEquals("not-a-reference.yaml", defs.at("/Price/default/$ref").textValue());
+        assertTrue(defs.has("Money"));
+    }
+
+    @Test
+    void checkStandardInputInWorkingDirectory() throws IOException {
+        // ARRANGE
+        String input = "openapi: 3.0.2\n" +
+                "info: {title: test, version: '1'}\n" +
+                "paths: {}\n" +
+                "components:\n" +
+                "  schemas:\n" +
+                "    Price: {$ref: 'common.yaml#/Money'}\n";
+        Files.writeString(tempDir.resolve("common.yaml"), "Money: {type: number}\n");
+        List<Message> messages = new ArrayList<>();
+
+        // ACT
+        JsonNode document = new SpecReader(messages::add)
+                .withWorkingDirectory(tempDir)
+                .readTree("-", new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT
+        assertEquals(List.of(), messages);
+        assertEquals("#/components/schemas/Money", document.at("/components/schemas/Price/$ref").textValue());
+        assertEquals("number", document.at("/components/schemas/Money/type").textValue());
+    }
+
+    @Test
+    void checkSlashInPointer() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.json");
+        Files.writeString(input, "{\"openapi\":\"3.0.2\",\"components\":{\"schemas\":{" +
+                "\"Price\":{\"$ref\":\"common.json#/types/money~1eur\"}}}}");
+        Files.writeString(tempDir.resolve("common.json"), "{\"types\":{\"money/eur\":{\"type\":\"number\"}}}");
+
+        // ACT
+        List<String> names = resolve(input, 1, new ConcurrentHashMap<>());
+
+        // ASSERT
+        assertEquals(List.of("Price", "money_eur"), names);
+    }
+
+    @Test
+    void checkEveryFileIsReadOnce() throws IOException {
+        // ARRANGE
+        int count = 50;
+        StringBuilder schemas = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            schemas.append(",\"Schema").append(i).append("\":{\"$ref\":\"schemas/schema").append(i).append(".json\"}");
+            Files.createDirectories(tempDir.resolve("schemas"));
+            Files.writeString(tempDir.resolve("schemas").resolve("schema" + i + ".json"),
+                    "{\"type\":\"object\",\"properties\":{" +
+                            "\"id\":{\"$ref\":\"../common.json#/Id\"}," +
+                            "\"next\":{\"$ref\":\"schema" + ((i + 1) % count) + ".json\"}}}");
+        }
+        Files.writeString(tempDir.resolve("common.json"), "{\"Id\":{\"type\":\"integer\"}}");
+        Path input = tempDir.resolve("api.json");
+        Files.writeString(input, "{\"openapi\":\"3.0.2\",\"components\":{\"schemas\":{" +
+                schemas.substring(1) + "}}}");
+
+        // ACT
+        List<String> sequential = resolve(input, 1, new ConcurrentHashMap<>());
+        Map<Path, AtomicInteger> reads = new ConcurrentHashMap<>();
+        List<String> parallel = resolve(input, 4, reads);
+
+        // ASSERT
+        assertEquals(sequential, parallel);
+        assertEquals(2 * count + 1, sequential.size());
+        assertEquals("Id", sequential.get(count));
+        assertEquals(count + 1, reads.size());
+        reads.forEach((file, read) -> assertEquals(1, read.get(), file.toString()));
+    }
+
+    @Test
+    void checkMissingFile() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.yaml");
+        Files.writeString(input, "openapi: 3.0.2\n" +
+                "info: {title: test, version: '1'}\n" +
+                "paths: {}\n" +
+                "components:\n" +
+                "  schemas:\n" +
+                "    Order: {$ref: 'schemas/missing.yaml'}\n");
+
+        // ACT
+        JsonSchemaGenerator.Result result = new JsonSchemaGenerator().generate(
+                JsonSchemaGenerator.Request.of(input.toString()), new ByteArrayOutputStream());
+
+        // ASSERT
+        assertEquals(2, result.getExitCode());
+        assertEquals(1, result.getMessages().size());
+        assertTrue(result.getMessages().get(0).message.contains("missing.yaml"), result.getMessages().get(0).message);
+    }
+
+    private static List<String> resolve(Path input, int parallelism, Map<Path, AtomicInteger> reads)
+            throws IOException {
+        ObjectNode document = (ObjectNode) OutputFormat.JSON.getObjectMapper().readTree(input.toFile());
+        new ExternalReferences(input, input.getParent(), file -> {
+            reads.computeIfAbsent(file, key -> new AtomicInteger()).incrementAndGet();
+            return OutputFormat.JSON.getObjectMapper().readTree(Files.readString(file, StandardCharsets.UTF_8));
+        }, parallelism).resolve(document);
+
+        List<String> names = new ArrayList<>();
+        document.at("/components/schemas").fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -3,17 +3,29 @@ package de.richardliebscher.openapi_json_schema_generator;
 import com.eclipsesource.json.Json;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 
@@ -60,6 +72,50 @@ class GenerateCommandTest {
         assertEquals(2, type.get("properties").asObject().size());
     }
 
+    @Test
+    void checkExcludedReadOnlyProperty() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Test", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("id", Json.object().add("type", "integer").add("readOnly", true))
+                                .add("name", Json.object().add("type", "string")))));
+        Converter converter = new Converter(false, true, JsonSchemaDraft.v2019_09, messageCollector);
+
+        // ACT
+        JsonValue jsonValue = convert(input, null, messageCollector, converter);
+
+        // ASSERT
+        assertNotNull(jsonValue);
+        assertNoMessages();
+
+        JsonObject properties = jsonValue.asObject().get("$defs").asObject().get("Test").asObject()
+                .get("properties").asObject();
+        assertEquals(List.of("name"), properties.names());
+    }
+
+    @Test
+    void checkWarningPath() {
+        // ARRANGE
+        JsonObject input = openApiWithSchemas(Json.object()
+                .add("Test", Json.object()
+                        .add("oneOf", Json.array()
+                                .add(Json.object().add("type", "string"))
+                                .add(Json.object()
+                                        .add("type", "object")
+                                        .add("properties", Json.object()
+                                                .add("id", Json.object().add("x-internal", true)))))));
+
+        // ACT
+        JsonValue jsonValue = convert(input);
+
+        // ASSERT
+        assertNotNull(jsonValue);
+        assertEquals(1, messageCollector.getMessages().size());
+        assertEquals("#/components/schemas/Test/1/id", messageCollector.getMessages().get(0).path.toString());
+    }
+
     @Nested
     class $schema {
         @Test
@@ -275,6 +331,62 @@ class GenerateCommandTest {
 
             assertEquals("#/$defs/String", jsonValue.asObject().get("$ref").asString());
         }
+
+        @Test
+        void checkOnlyReachableDefinitions() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("Main", Json.object()
+                            .add("type", "object")
+                            .add("properties", Json.object()
+                                    .add("items", Json.object()
+                                            .add("type", "array")
+                                            .add("items", Json.object().add("$ref", "#/components/schemas/Item")))
+                                    .add("map", Json.object()
+                                            .add("type", "object")
+                                            .add("additionalProperties", Json.object().add("$ref", "Value")))))
+                    .add("Item", Json.object()
+                            .add("allOf", Json.array().add(Json.object().add("$ref", "#/components/schemas/Base"))))
+                    .add("Base", Json.object().add("type", "object"))
+                    .add("Value", Json.object().add("type", "string"))
+                    .add("Unused", Json.object().add("$ref", "#/components/schemas/Base")));
+
+            // ACT
+            JsonValue jsonValue = convert(input, "Main", messageCollector, defaultConverter);
+
+            // ASSERT
+            assertNotNull(jsonValue);
+            assertNoMessages();
+
+            JsonObject definitions = jsonValue.asObject().get("$defs").asObject();
+            assertEquals(4, definitions.size());
+            assertNotNull(definitions.get("Main"));
+            assertNotNull(definitions.get("Item"));
+            assertNotNull(definitions.get("Base"));
+            assertNotNull(definitions.get("Value"));
+        }
+
+        @Test
+        void checkRecursiveReference() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("Node", Json.object()
+                            .add("type", "object")
+                            .add("properties", Json.object()
+                                    .add("next", Json.object().add("$ref", "#/components/schemas/Node"))))
+                    .add("Unused", Json.object().add("type", "string")));
+
+            // ACT
+            JsonValue jsonValue = convert(input, "Node", messageCollector, defaultConverter);
+
+            // ASSERT
+            assertNotNull(jsonValue);
+            assertNoMessages();
+
+            JsonObject definitions = jsonValue.asObject().get("$defs").asObject();
+            assertEquals(1, definitions.size());
+            assertNotNull(definitions.get("Node"));
+        }
     }
 
     @Nested
@@ -614,6 +726,368 @@ class GenerateCommandTest {
         assertEquals(2, type.get(composer).asArray().size());
     }
 
+    @Nested
+    class Streaming {
+        @ParameterizedTest
+        @ValueSource(strings = {"4", "6", "7", "2019-09"})
+        void checkSameOutputAsTree(String draft) {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("Object", Json.object()
+                            .add("type", "object")
+                            .add("required", Json.array("id"))
+                            .add("properties", Json.object()
+                                    .add("id", Json.object().add("type", "integer").add("format", "int64"))
+                                    .add("tags", Json.object()
+                                            .add("type", "array")
+                                            .add("items", Json.object().add("$ref", "#/components/schemas/Tag")))
+                                    .add("any", Json.object()))
+                            .add("additionalProperties", false)
+                            .add("example", Json.object().add("id", 1)))
+                    .add("Tag", Json.object()
+                            .add("type", "string")
+                            .add("enum", Json.array("a", "b"))
+                            .add("nullable", true))
+                    .add("Number", Json.object()
+                            .add("oneOf", Json.array()
+                                    .add(Json.object().add("type", "number").add("maximum", 4.5))
+                                    .add(Json.object().add("type", "integer").add("default", 3))))
+                    .add("Empty", Json.object()));
+            Converter converter = new Converter(true, true, JsonSchemaDraft.fromName(draft), messageCollector);
+
+            for (String mainSchema : new String[] { null, "Object" }) {
+                // ACT
+                String tree = generate(input, mainSchema, converter, false);
+                String streamed = generate(input, mainSchema, converter, true);
+
+                // ASSERT
+                assertEquals(tree, streamed);
+            }
+            assertNoMessages();
+        }
+
+        @Test
+        void checkNoDefinitions() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object());
+
+            // ACT
+            String tree = generate(input, null, defaultConverter, false);
+            String streamed = generate(input, null, defaultConverter, true);
+
+            // ASSERT
+            assertEquals(tree, streamed);
+            assertNoMessages();
+        }
+
+        private String generate(JsonObject input, String mainSchema, Converter converter, boolean streaming) {
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var command = new GenerateCommand("-", mainSchema, inputStream, outputStream, converter, messageCollector)
+                    .withStreaming(streaming);
+            assertEquals(0, command.run());
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Nested
+    class Parallel {
+        @ParameterizedTest
+        @ValueSource(booleans = {false, true})
+        void checkSameOutputAndMessagesAsSequential(boolean streaming) {
+            // ARRANGE
+            JsonObject schemas = Json.object();
+            for (int i = 0; i < 100; i++) {
+                schemas.add("Schema" + i, Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("next", Json.object().add("$ref", "#/components/schemas/Schema" + ((i + 1) % 100)))
+                                .add("value", Json.object()
+                                        .add("type", "string")
+                                        .add("xml", Json.object().add("name", "value" + i))))
+                        .add("xml", Json.object().add("name", "schema" + i)));
+            }
+            JsonObject input = openApiWithSchemas(schemas);
+
+            // ACT
+            MessageCollector sequentialMessages = new MessageCollector();
+            String sequential = generate(input, streaming, 1, sequentialMessages);
+            MessageCollector parallelMessages = new MessageCollector();
+            String parallel = generate(input, streaming, 4, parallelMessages);
+
+            // ASSERT
+            assertEquals(sequential, parallel);
+            assertEquals(200, sequentialMessages.getMessages().size());
+            assertEquals(
+                    sequentialMessages.getMessages().toString(),
+                    parallelMessages.getMessages().toString());
+        }
+
+        @Test
+        void checkInvalidReference() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("A", Json.object().add("type", "string"))
+                    .add("B", Json.object().add("$ref", "#/components/responses/B")));
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var command = new GenerateCommand(
+                    "-", null, inputStream, new ByteArrayOutputStream(),
+                    defaultConverter.withParallelism(2), messageCollector);
+
+            // ACT & ASSERT
+            assertThrows(IllegalArgumentException.class, command::run);
+        }
+
+        private String generate(JsonObject input, boolean streaming, int parallelism, MessageCollector messages) {
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var converter = new Converter(true, true, JsonSchemaDraft.v2019_09, messages)
+                    .withParallelism(parallelism);
+            var command = new GenerateCommand("-", null, inputStream, outputStream, converter, messages)
+                    .withStreaming(streaming);
+            assertEquals(0, command.run());
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Nested
+    class Cache {
+        @TempDir
+        Path cacheDirectory;
+
+        @Test
+        void checkSameOutputAndMessages() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("Object", Json.object()
+                            .add("type", "object")
+                            .add("properties", Json.object()
+                                    .add("number", Json.object().add("type", "number").add("maximum", 4.50))
+                                    .add("tag", Json.object().add("$ref", "#/components/schemas/Tag")))
+                            .add("xml", Json.object().add("name", "object")))
+                    .add("Tag", Json.object()
+                            .add("type", "string")
+                            .add("enum", Json.array("a", "\u00e4\n"))
+                            .add("nullable", true))
+                    .add("Empty", Json.object()));
+
+            for (String mainSchema : new String[] { null, "Object", "Tag" }) {
+                MessageCollector expectedMessages = new MessageCollector();
+                String expected = generate(input, mainSchema, null, expectedMessages);
+
+                for (int run = 0; run < 2; run++) {
+                    // ACT
+                    MessageCollector messages = new MessageCollector();
+                    String output = generate(input, mainSchema, createCache(), messages);
+
+                    // ASSERT
+                    assertEquals(expected, output);
+                    assertEquals(expectedMessages.getMessages().toString(), messages.getMessages().toString());
+                }
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"SMILE", "CBOR"})
+        void checkSameBinaryOutput(OutputFormat format) throws IOException {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("Object", Json.object()
+                            .add("type", "object")
+                            .add("minProperties", 1)
+                            .add("default", Json.object().add("minimum", 1))
+                            .add("properties", Json.object()
+                                    .add("integer", Json.object()
+                                            .add("type", "integer")
+                                            .add("minimum", 1)
+                                            .add("maximum", 10000000000L)
+                                            .add("multipleOf", 2)
+                                            .add("enum", Json.array(2, 4)))
+                                    .add("number", Json.object().add("type", "number").add("maximum", 4.50))
+                                    .add("minimum", Json.object().add("type", "string").add("maxLength", 3)))));
+            ObjectMapper objectMapper = format.getObjectMapper();
+            JsonNode expected = objectMapper.readTree(generate(input, format, null));
+
+            for (int run = 0; run < 2; run++) {
+                // ACT
+                JsonNode output = objectMapper.readTree(generate(input, format, createCache()));
+
+                // ASSERT
+                assertEquals(expected, output);
+                assertEquals(nodeTypes(expected), nodeTypes(output));
+            }
+        }
+
+        @Test
+        void checkChangedDefinition() {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("A", Json.object().add("type", "string"))
+                    .add("B", Json.object().add("type", "string")));
+            generate(input, null, createCache(), messageCollector);
+            JsonObject changed = openApiWithSchemas(Json.object()
+                    .add("A", Json.object().add("type", "string"))
+                    .add("B", Json.object().add("type", "integer")));
+
+            // ACT
+            String output = generate(changed, null, createCache(), messageCollector);
+
+            // ASSERT
+            assertEquals(generate(changed, null, null, messageCollector), output);
+            assertNoMessages();
+        }
+
+        private DefinitionCache createCache() {
+            return new DefinitionCache(cacheDirectory, Long.MAX_VALUE, "test");
+        }
+
+        private byte[] generate(JsonObject input, OutputFormat format, DefinitionCache cache) {
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var command = new GenerateCommand("-", null, inputStream, outputStream, defaultConverter, messageCollector)
+                    .withOutputFormat(format)
+                    .withCache(cache);
+            assertEquals(0, command.run());
+            return outputStream.toByteArray();
+        }
+
+        /**
+         * @return paths of all values with their node classes, e.g. {@code /a/0=IntNode}
+         */
+        private List<String> nodeTypes(JsonNode node) {
+            List<String> types = new ArrayList<>();
+            collectNodeTypes(node, "", types);
+            return types;
+        }
+
+        private void collectNodeTypes(JsonNode node, String path, List<String> types) {
+            types.add(path + "=" + node.getClass().getSimpleName());
+            if (node.isObject()) {
+                node.fields().forEachRemaining(
+                        field -> collectNodeTypes(field.getValue(), path + "/" + field.getKey(), types));
+            } else if (node.isArray()) {
+                for (int i = 0; i < node.size(); i++) {
+                    collectNodeTypes(node.get(i), path + "/" + i, types);
+                }
+            }
+        }
+
+        private String generate(
+                JsonObject input, String mainSchema, DefinitionCache cache, MessageCollector messages) {
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var converter = new Converter(true, true, JsonSchemaDraft.v2019_09, messages);
+            var command = new GenerateCommand("-", mainSchema, inputStream, outputStream, converter, messages)
+                    .withCache(cache);
+            assertEquals(0, command.run());
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Nested
+    class StatsSummary {
+        @ParameterizedTest
+        @ValueSource(booleans = {false, true})
+        void checkCounters(boolean streaming) throws IOException {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("A", Json.object()
+                            .add("type", "array")
+                            .add("items", Json.object().add("$ref", "#/components/schemas/B")))
+                    .add("B", Json.object().add("type", "string").add("xml", Json.object())));
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var stats = new Stats();
+            var messages = stats.countMessages(messageCollector);
+            var converter = new Converter(true, true, JsonSchemaDraft.v2019_09, messages);
+            var command = new GenerateCommand("-", null, inputStream, outputStream, converter, messages)
+                    .withStreaming(streaming)
+                    .withStats(stats);
+
+            // ACT
+            assertEquals(0, command.run());
+            var summaryStream = new ByteArrayOutputStream();
+            stats.write(summaryStream);
+
+            // ASSERT
+            JsonObject summary = Json.parse(summaryStream.toString(StandardCharsets.UTF_8)).asObject();
+            assertEquals(2, summary.get("definitions").asLong());
+            assertEquals(1, summary.get("references").asLong());
+            assertEquals(1, summary.get("warnings").asObject().get("converter").asLong());
+            assertEquals(0, summary.get("errors").asLong());
+            assertEquals(outputStream.size(), summary.get("outputBytes").asLong());
+            assertEquals(
+                    List.of("parse", "convert", "write"),
+                    summary.get("phases").asObject().names());
+        }
+
+        @Test
+        void checkPhaseEventsWithoutStats(@TempDir Path tempDir) throws IOException {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("A", Json.object().add("type", "string")));
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var command = new GenerateCommand(
+                    "-", null, inputStream, new ByteArrayOutputStream(), defaultConverter, messageCollector);
+            Path recordingFile = tempDir.resolve("generate.jfr");
+
+            // ACT
+            try (Recording recording = new Recording()) {
+                recording.enable(PhaseEvent.class).withoutThreshold();
+                recording.start();
+                assertEquals(0, command.run());
+                recording.stop();
+                recording.dump(recordingFile);
+            }
+
+            // ASSERT
+            Set<String> phases = new HashSet<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+                if (event.getEventType().getName().equals(PhaseEvent.class.getAnnotation(Name.class).value())) {
+                    phases.add(event.getString("phase"));
+                }
+            }
+            assertEquals(Set.of("parse", "convert", "write"), phases);
+        }
+    }
+
+    @Nested
+    class OutputFormats {
+        @ParameterizedTest
+        @CsvSource({"COMPACT_JSON, false", "SMILE, false", "SMILE, true", "CBOR, false", "CBOR, true"})
+        void checkSameModel(OutputFormat outputFormat, boolean streaming) throws IOException {
+            // ARRANGE
+            JsonObject input = openApiWithSchemas(Json.object()
+                    .add("A", Json.object()
+                            .add("type", "array")
+                            .add("items", Json.object().add("$ref", "#/components/schemas/B")))
+                    .add("B", Json.object().add("type", "integer").add("format", "int64").add("example", 42)));
+
+            // ACT
+            byte[] json = generate(input, OutputFormat.JSON, false);
+            byte[] output = generate(input, outputFormat, streaming);
+
+            // ASSERT
+            assertNoMessages();
+            // binary formats keep BigDecimal, so compare the JSON
+            ObjectMapper jsonMapper = OutputFormat.JSON.createObjectMapper();
+            JsonNode outputTree = outputFormat.createObjectMapper().readTree(output);
+            assertEquals(jsonMapper.readTree(json), jsonMapper.readTree(jsonMapper.writeValueAsBytes(outputTree)));
+            assertTrue(output.length < json.length);
+        }
+
+        private byte[] generate(JsonObject input, OutputFormat outputFormat, boolean streaming) {
+            var inputStream = new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8));
+            var outputStream = new ByteArrayOutputStream();
+            var command = new GenerateCommand("-", null, inputStream, outputStream, defaultConverter, messageCollector)
+                    .withStreaming(streaming)
+                    .withOutputFormat(outputFormat);
+
+            assertEquals(0, command.run());
+            return outputStream.toByteArray();
+        }
+    }
+
     private void assertNoMessages() {
         assertEquals(Collections.emptyList(), messageCollector.getMessages());
     }
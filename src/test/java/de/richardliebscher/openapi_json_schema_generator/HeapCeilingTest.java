@@ -0,0 +1,52 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Converts a fixed large specification with the heap limit of the {@code heapTest} task, so memory regressions fail
+ * with an {@link OutOfMemoryError}.
+ */
+@Tag("heap")
+class HeapCeilingTest {
+    private static final int SCHEMAS = 2000;
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkLargeSpecification(boolean streaming) throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("spec.json");
+        Path output = tempDir.resolve("schema.json");
+        new SyntheticSpec().withSchemas(SCHEMAS).write(input);
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        // ACT
+        int exitCode;
+        try (PrintStream out = new PrintStream(
+                new BufferedOutputStream(Files.newOutputStream(output)), false, StandardCharsets.UTF_8)) {
+            exitCode = Main.execute(
+                    new Main(InputStream.nullInputStream(), out, new PrintStream(err), null),
+                    streaming ? new String[]{"--stream", input.toString()} : new String[]{input.toString()});
+        }
+
+        // ASSERT
+        assertEquals(0, exitCode, err.toString(StandardCharsets.UTF_8));
+        assertTrue(Files.size(output) > Files.size(input) / 2);
+    }
+}
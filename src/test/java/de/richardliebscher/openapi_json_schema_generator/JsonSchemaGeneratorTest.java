@@ -0,0 +1,160 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaGeneratorTest {
+
+    private final JsonSchemaGenerator generator = new JsonSchemaGenerator();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkRequestOptions() {
+        // ARRANGE
+        String spec = Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", Json.object()
+                                .add("Order", Json.object()
+                                        .add("type", "object")
+                                        .add("properties", Json.object()
+                                                .add("id", Json.object()
+                                                        .add("type", "integer")
+                                                        .add("readOnly", true))
+                                                .add("note", Json.object()
+                                                        .add("type", "string"))))))
+                .toString();
+
+        // ACT
+        String all = generate(JsonSchemaGenerator.Request.of(stream(spec)).withMainSchema("Order"));
+        String excluded = generate(JsonSchemaGenerator.Request.of(stream(spec))
+                .withMainSchema("Order")
+                .withIncludeReadOnly(false)
+                .withJsonSchemaDraft(JsonSchemaDraft.v7)
+                .withOutputFormat(OutputFormat.COMPACT_JSON));
+
+        // ASSERT
+        assertTrue(all.contains("\"id\""), all);
+        assertTrue(all.contains("\n"), all);
+        assertFalse(excluded.contains("\"id\""), excluded);
+        assertTrue(excluded.contains("\"note\""), excluded);
+        assertTrue(excluded.contains("draft-07"), excluded);
+        assertFalse(excluded.contains("\n"), excluded);
+    }
+
+    @Test
+    void checkInvalidParallelism() {
+        // ARRANGE
+        JsonSchemaGenerator.Request request = JsonSchemaGenerator.Request.of("api.yaml");
+
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class, () -> request.withParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> request.withParallelism(-1));
+        assertEquals(4, request.withParallelism(4).getParallelism());
+    }
+
+    @Test
+    void checkDiagnosticsArePerRequest() {
+        // ARRANGE
+        var output = new ByteArrayOutputStream();
+
+        // ACT
+        JsonSchemaGenerator.Result failed = generator.generate(
+                JsonSchemaGenerator.Request.of(tempDir.resolve("missing.yaml").toString()), output);
+        JsonSchemaGenerator.Result succeeded = generator.generate(
+                JsonSchemaGenerator.Request.of(stream(Json.object()
+                        .add("openapi", "3.0.2")
+                        .add("info", Json.object()
+                                .add("version", "1")
+                                .add("title", "test"))
+                        .add("paths", Json.object())
+                        .add("components", Json.object()
+                                .add("schemas", Json.object()
+                                        .add("Tag", Json.object().add("type", "string"))))
+                        .toString())),
+                output);
+
+        // ASSERT
+        assertEquals(2, failed.getExitCode());
+        assertFalse(failed.isSuccessful());
+        assertTrue(failed.getMessages().stream().anyMatch(message -> message.severity == Message.Severity.ERROR));
+        assertEquals(0, succeeded.getExitCode());
+        assertEquals(List.of(), succeeded.getMessages());
+    }
+
+    @Test
+    void checkConcurrentRequests() throws Exception {
+        // ARRANGE
+        Path input = tempDir.resolve("synthetic.json");
+        new SyntheticSpec().withSchemas(200).write(input);
+        List<JsonSchemaGenerator.Request> requests = List.of(
+                JsonSchemaGenerator.Request.of(input.toString()),
+                JsonSchemaGenerator.Request.of(input.toString())
+                        .withMainSchema(SyntheticSpec.name(0))
+                        .withJsonSchemaDraft(JsonSchemaDraft.v4),
+                JsonSchemaGenerator.Request.of(input.toString())
+                        .withOutputFormat(OutputFormat.SMILE)
+                        .withDeduplicateMinSize(100));
+        List<byte[]> expected = new ArrayList<>();
+        for (JsonSchemaGenerator.Request request : requests) {
+            expected.add(generateBytes(request));
+        }
+
+        int threads = 4;
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads * requests.size(); i++) {
+            int index = i % requests.size();
+            tasks.add(() -> Arrays.equals(expected.get(index), generateBytes(requests.get(index))));
+        }
+
+        // ACT
+        List<Future<Boolean>> results;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            results = executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+
+        // ASSERT
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(), "output differs from single-threaded output");
+        }
+    }
+
+    private String generate(JsonSchemaGenerator.Request request) {
+        return new String(generateBytes(request), StandardCharsets.UTF_8);
+    }
+
+    private byte[] generateBytes(JsonSchemaGenerator.Request request) {
+        var output = new ByteArrayOutputStream();
+        JsonSchemaGenerator.Result result = generator.generate(request, output);
+        assertEquals(0, result.getExitCode(), () -> String.valueOf(result.getMessages()));
+        return output.toByteArray();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaSerializerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkAllKeywords() throws IOException {
+        // ARRANGE
+        JsonSchema schema = CompactJsonSchemaTest.allKeywords();
+
+        JsonSchema otherAdditionalProperties = CompactJsonSchemaTest.object();
+        otherAdditionalProperties.definitions = Map.of();
+        otherAdditionalProperties.additionalProperties = JsonNodeFactory.instance.objectNode().put("type", "string");
+
+        // ACT + ASSERT
+        assertSameOutput(schema);
+        assertSameOutput(otherAdditionalProperties);
+        assertSameOutput(new JsonSchema());
+    }
+
+    @Test
+    void checkSyntheticSpecification() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("synthetic.json");
+        new SyntheticSpec().withSchemas(200).write(input);
+        OpenAPI openAPI = new SpecReader(message -> { }).read(input.toString(), InputStream.nullInputStream());
+        for (JsonSchemaDraft draft : JsonSchemaDraft.values()) {
+            // ACT
+            JsonSchema schema = new Converter(true, true, draft, message -> { })
+                    .convert(openAPI.getComponents(), null);
+
+            // ASSERT
+            assertSameOutput(schema);
+        }
+    }
+
+    private static void assertSameOutput(JsonSchema schema) throws IOException {
+        for (OutputFormat format : OutputFormat.values()) {
+            assertArrayEquals(
+                    format.createWriter(format.createObjectMapper(true)).writeValueAsBytes(schema),
+                    format.getWriter().writeValueAsBytes(schema),
+                    format.name());
+            assertArrayEquals(
+                    format.createWriter(format.createObjectMapper(true))
+                            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                            .writeValueAsBytes(schema),
+                    format.getWriter().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(schema),
+                    format.name() + " sorted");
+        }
+    }
+}
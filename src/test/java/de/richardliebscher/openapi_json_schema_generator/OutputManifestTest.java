@@ -0,0 +1,137 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputManifestTest {
+
+    private static final Map<String, String> OPTIONS = Map.of("json-schema-version", "2019-09");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void checkUpToDateUntilReferencedFileChanges() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.yaml");
+        Files.writeString(input, "components:\n  schemas:\n    A:\n      $ref: 'common/types.yaml#/B'\n");
+        Path referenced = Files.createDirectory(tempDir.resolve("common")).resolve("types.yaml");
+        Files.writeString(referenced, "B:\n  type: string\n");
+        Path output = tempDir.resolve("schema.json");
+        Files.writeString(output, "{}");
+        OutputManifest manifest = new OutputManifest(input, output, "1.0", OPTIONS);
+
+        // ACT
+        boolean before = manifest.isUpToDate();
+        manifest.hashInputs();
+        manifest.write();
+        boolean written = manifest.isUpToDate();
+        Files.writeString(referenced, "B:\n  type: integer\n");
+        boolean changed = manifest.isUpToDate();
+
+        // ASSERT
+        assertFalse(before);
+        assertTrue(written);
+        assertFalse(changed);
+    }
+
+    @Test
+    void checkInputChangedDuringRun() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.yaml");
+        Files.writeString(input, "components: {}\n");
+        Path output = tempDir.resolve("schema.json");
+        OutputManifest manifest = new OutputManifest(input, output, "1.0", OPTIONS);
+
+        // ACT
+        manifest.hashInputs();
+        Files.writeString(input, "components: {schemas: {}}\n");
+        Files.writeString(output, "{}");
+        manifest.write();
+
+        // ASSERT
+        assertFalse(new OutputManifest(input, output, "1.0", OPTIONS).isUpToDate());
+    }
+
+    @Test
+    void checkOptionsVersionAndOutputAreCompared() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.json");
+        Files.writeString(input, "{}");
+        Path output = tempDir.resolve("schema.json");
+        Files.writeString(output, "{}");
+        OutputManifest manifest = new OutputManifest(input, output, "1.0", OPTIONS);
+        manifest.hashInputs();
+        manifest.write();
+
+        // ACT & ASSERT
+        assertTrue(new OutputManifest(input, output, "1.0", OPTIONS).isUpToDate());
+        assertFalse(new OutputManifest(input, output, "1.1", OPTIONS).isUpToDate());
+        assertFalse(new OutputManifest(input, output, "1.0", Map.of("json-schema-version", "7")).isUpToDate());
+        assertFalse(new OutputManifest(input, output, "1.0", Map.of()).isUpToDate());
+        Files.writeString(output, "{ }");
+        assertFalse(new OutputManifest(input, output, "1.0", OPTIONS).isUpToDate());
+    }
+
+    @Test
+    void checkUnchangedRunIsSkipped() throws IOException {
+        // ARRANGE
+        Path input = tempDir.resolve("api.json");
+        Files.writeString(input, Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", Json.object()
+                                .add("Order", Json.object()
+                                        .add("type", "object")
+                                        .add("properties", Json.object()
+                                                .add("note", Json.object()
+                                                        .add("type", "string")
+                                                        .add("readOnly", true))))))
+                .toString());
+        Path output = tempDir.resolve("out").resolve("schema.json");
+        FileTime old = FileTime.fromMillis(0);
+
+        // ACT
+        int first = run(input.toString(), "Order", "-o", output.toString());
+        String generated = Files.readString(output);
+        Files.setLastModifiedTime(output, old);
+        int second = run(input.toString(), "Order", "-o", output.toString());
+        FileTime skipped = Files.getLastModifiedTime(output);
+        int third = run(input.toString(), "Order", "-o", output.toString(), "--exclude-read-only");
+
+        // ASSERT
+        assertEquals(0, first);
+        assertTrue(generated.contains("\"note\""), generated);
+        assertTrue(Files.isRegularFile(tempDir.resolve("out").resolve("schema.json" + OutputManifest.SUFFIX)));
+        assertEquals(0, second);
+        assertEquals(old, skipped);
+        assertEquals(0, third);
+        assertFalse(Files.readString(output).contains("\"note\""));
+    }
+
+    private int run(String... args) {
+        var out = new ByteArrayOutputStream();
+        var err = new ByteArrayOutputStream();
+        int exitCode = Main.execute(
+                new Main(InputStream.nullInputStream(), new PrintStream(out, true), new PrintStream(err, true), null),
+                args);
+        assertEquals("", out.toString());
+        return exitCode;
+    }
+}
@@ -0,0 +1,195 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole command line pipeline on synthetic specifications of growing size and records wall time, peak heap,
+ * peak RSS and output size as JSON.
+ *
+ * <p>Every size runs in a new JVM, so the numbers of one size do not depend on the others. Peak heap is the sum of the
+ * peak usages of all heap memory pools, peak RSS is only recorded on Linux. Arguments are
+ * {@code name=value} pairs:
+ * <ul>
+ *     <li>{@code workDir}, {@code report}: directory for specifications and outputs, JSON report file</li>
+ *     <li>{@code sizes}: comma separated numbers of component schemas</li>
+ *     <li>{@code depth}, {@code fanOut}, {@code enumSize}, {@code refDensity}, {@code seed}: see
+ *     {@link SyntheticSpec}</li>
+ *     <li>{@code jvmArgs}, {@code args}: space separated arguments of the JVM and the command line, e.g.
+ *     {@code jvmArgs=-Xmx1g args=--stream}</li>
+ * </ul>
+ */
+public class ScalingHarness {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("workDir", "build/scaling");
+        options.put("report", "build/reports/scaling.json");
+        options.put("sizes", "1000,10000,100000");
+        options.put("jvmArgs", "");
+        options.put("args", "");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        SyntheticSpec defaults = new SyntheticSpec();
+        SyntheticSpec spec = defaults
+                .withDepth(Integer.parseInt(options.getOrDefault("depth", String.valueOf(defaults.depth))))
+                .withFanOut(Integer.parseInt(options.getOrDefault("fanOut", String.valueOf(defaults.fanOut))))
+                .withEnumSize(Integer.parseInt(options.getOrDefault("enumSize", String.valueOf(defaults.enumSize))))
+                .withRefDensity(Double.parseDouble(
+                        options.getOrDefault("refDensity", String.valueOf(defaults.refDensity))))
+                .withSeed(Long.parseLong(options.getOrDefault("seed", String.valueOf(defaults.seed))));
+        Path workDir = Paths.get(options.get("workDir"));
+        Path report = Paths.get(options.get("report"));
+        Files.createDirectories(workDir);
+
+        ArrayNode results = OBJECT_MAPPER.createArrayNode();
+        for (String size : options.get("sizes").split(",")) {
+            SyntheticSpec sizedSpec = spec.withSchemas(Integer.parseInt(size.trim()));
+            ObjectNode result = run(sizedSpec, workDir, split(options.get("jvmArgs")), split(options.get("args")));
+            System.out.println(result);
+            results.add(result);
+        }
+
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("javaVersion", System.getProperty("java.version"));
+        root.put("jvmArgs", options.get("jvmArgs"));
+        root.put("args", options.get("args"));
+        root.put("depth", spec.depth);
+        root.put("fanOut", spec.fanOut);
+        root.put("enumSize", spec.enumSize);
+        root.put("refDensity", spec.refDensity);
+        root.put("seed", spec.seed);
+        root.set("results", results);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), root);
+    }
+
+    private static ObjectNode run(SyntheticSpec spec, Path workDir, List<String> jvmArgs, List<String> args)
+            throws IOException, InterruptedException {
+        Path input = workDir.resolve("spec-" + spec.schemas + ".json");
+        Path output = workDir.resolve("schema-" + spec.schemas + ".json");
+        Path stats = workDir.resolve("stats-" + spec.schemas + ".json");
+        spec.write(input);
+        Files.deleteIfExists(stats);
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Run.class.getName());
+        command.add(stats.toString());
+        command.add(output.toString());
+        command.add(input.toString());
+        command.addAll(args);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        int exitCode = process.waitFor();
+        long wallTime = System.nanoTime() - start;
+
+        ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        result.put("schemas", spec.schemas);
+        result.put("inputBytes", Files.size(input));
+        result.put("exitCode", exitCode);
+        result.put("wallTimeMillis", TimeUnit.NANOSECONDS.toMillis(wallTime));
+        if (Files.exists(stats)) {
+            JsonNode runStats = OBJECT_MAPPER.readTree(stats.toFile());
+            result.set("peakHeapBytes", runStats.get("peakHeapBytes"));
+            result.set("peakRssBytes", runStats.get("peakRssBytes"));
+        }
+        result.put("outputBytes", Files.exists(output) ? Files.size(output) : 0);
+        return result;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    /**
+     * Runs the command line in the JVM of a single size: {@code STATS_FILE OUTPUT_FILE ARGS...}.
+     */
+    public static final class Run {
+        public static void main(String[] args) throws IOException {
+            Path stats = Paths.get(args[0]);
+            int exitCode;
+            try (PrintStream out = new PrintStream(
+                    new BufferedOutputStream(Files.newOutputStream(Paths.get(args[1])), 64 * 1024),
+                    false, StandardCharsets.UTF_8)) {
+                exitCode = Main.execute(
+                        new Main(InputStream.nullInputStream(), out, System.err, null),
+                        Arrays.copyOfRange(args, 2, args.length));
+            }
+
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peakHeap += pool.getPeakUsage().getUsed();
+                }
+            }
+            ObjectNode node = OBJECT_MAPPER.createObjectNode();
+            node.put("peakHeapBytes", peakHeap);
+            Long peakRss = peakRss();
+            if (peakRss != null) {
+                node.put("peakRssBytes", peakRss);
+            } else {
+                node.putNull("peakRssBytes");
+            }
+            OBJECT_MAPPER.writeValue(stats.toFile(), node);
+            System.exit(exitCode);
+        }
+
+        /**
+         * @return peak resident set size or {@code null} when not available on this platform
+         */
+        private static Long peakRss() {
+            Path status = Paths.get("/proc/self/status");
+            if (!Files.isReadable(status)) {
+                return null;
+            }
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmHWM:")) {
+                        // in kB
+                        return Long.parseLong(line.substring(6).trim().split("\\s+")[0]) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException exception) {
+                return null;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecReaderTest {
+
+    private static final String YAML = "openapi: 3.0.2\n" +
+            "info:\n" +
+            "  title: test\n" +
+            "  version: '1'\n" +
+            "paths: {}\n" +
+            "components:\n" +
+            "  schemas:\n" +
+            "    Id: &id\n" +
+            "      type: integer\n" +
+            "      format: int64\n" +
+            "    OtherId: *id\n";
+
+    private static final String JSON = "{\"openapi\": \"3.0.2\", \"info\": {\"title\": \"test\", \"version\": \"1\"}, " +
+            "\"paths\": {}, \"components\": {\"schemas\": {\"Id\": {\"type\": \"integer\"}}}}";
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Message> messages = new ArrayList<>();
+    private final SpecReader reader = new SpecReader(messages::add);
+
+    @Test
+    void checkYamlFileWithAlias() throws IOException {
+        // ARRANGE
+        Path file = tempDir.resolve("spec.yaml");
+        Files.writeString(file, YAML);
+
+        // ACT
+        OpenAPI openAPI = reader.read(file.toString(), InputStream.nullInputStream());
+
+        // ASSERT
+        assertNotNull(openAPI);
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals("int64", openAPI.getComponents().getSchemas().get("OtherId").getFormat());
+    }
+
+    @Test
+    void checkJsonFile() throws IOException {
+        // ARRANGE
+        Path file = tempDir.resolve("spec.json");
+        Files.writeString(file, JSON);
+
+        // ACT
+        OpenAPI openAPI = reader.read(file.toString(), InputStream.nullInputStream());
+
+        // ASSERT
+        assertNotNull(openAPI);
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals("integer", openAPI.getComponents().getSchemas().get("Id").getType());
+    }
+
+    @Test
+    void checkGzipFile() throws IOException {
+        // ARRANGE
+        Path file = tempDir.resolve("spec.yaml.gz");
+        Files.write(file, gzip(YAML));
+
+        // ACT
+        OpenAPI openAPI = reader.read(file.toString(), InputStream.nullInputStream());
+
+        // ASSERT
+        assertNotNull(openAPI);
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(2, openAPI.getComponents().getSchemas().size());
+    }
+
+    @Test
+    void checkGzipStdin() throws IOException {
+        // ACT
+        OpenAPI openAPI = reader.read("-", new ByteArrayInputStream(gzip(JSON)));
+
+        // ASSERT
+        assertNotNull(openAPI);
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(1, openAPI.getComponents().getSchemas().size());
+    }
+
+    @Test
+    void checkSwagger2() {
+        // ARRANGE
+        String swagger = "swagger: '2.0'\n" +
+                "info:\n" +
+                "  title: test\n" +
+                "  version: '1'\n" +
+                "paths: {}\n" +
+                "definitions:\n" +
+                "  Id:\n" +
+                "    type: integer\n";
+
+        // ACT
+        OpenAPI openAPI = reader.read("-", new ByteArrayInputStream(swagger.getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT
+        assertNotNull(openAPI);
+        assertEquals("integer", openAPI.getComponents().getSchemas().get("Id").getType());
+    }
+
+    @Test
+    void checkYamlAliasExpansionIsLimited() {
+        // ARRANGE
+        StringBuilder yaml = new StringBuilder("openapi: 3.0.2\ninfo: {title: test, version: '1'}\npaths: {}\n");
+        yaml.append("x-a0: &a0 [").append(String.join(", ", Collections.nCopies(10, "lol"))).append("]\n");
+        for (int i = 1; i < 9; i++) {
+            yaml.append("x-a").append(i).append(": &a").append(i).append(" [")
+                    .append(String.join(", ", Collections.nCopies(10, "*a" + (i - 1)))).append("]\n");
+        }
+
+        // ACT
+        OpenAPI openAPI = reader.read(
+                "-", new ByteArrayInputStream(yaml.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT
+        assertNull(openAPI);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).message.contains("maxYamlReferences"), messages.get(0).message);
+    }
+
+    @Test
+    void checkInvalidInput() {
+        // ACT
+        OpenAPI openAPI = reader.read("-", new ByteArrayInputStream("{ no json".getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT
+        assertNull(openAPI);
+        assertFalse(messages.isEmpty());
+        assertEquals(Message.Severity.ERROR, messages.get(messages.size() - 1).severity);
+    }
+
+    @Test
+    void checkSchemasOnlySkipsOtherSections() throws IOException {
+        // ARRANGE
+        Path file = tempDir.resolve("spec.yaml");
+        Files.writeString(file, "openapi: 3.0.2\n" +
+                "info:\n" +
+                "  title: test\n" +
+                "  version: '1'\n" +
+                "paths:\n" +
+                "  /orders:\n" +
+                "    get:\n" +
+                "      parameters: [{$ref: '#/components/parameters/Missing'}]\n" +
+                "      x-shared: &shared {a: 1}\n" +
+                "      x-alias: *shared\n" +
+                "components:\n" +
+                "  parameters:\n" +
+                "    Unused: {name: unused, in: query, schema: {type: string}}\n" +
+                "  schemas:\n" +
+                "    Id:\n" +
+                "      type: integer\n" +
+                "      format: int64\n" +
+                "    Order:\n" +
+                "      type: object\n" +
+                "      properties:\n" +
+                "        id: {$ref: '#/components/schemas/Id'}\n");
+
+        // ACT
+        JsonNode document = reader.withSchemasOnly(true).readTree(file.toString(), InputStream.nullInputStream());
+        OpenAPI openAPI = reader.withSchemasOnly(true).read(file.toString(), InputStream.nullInputStream());
+
+        // ASSERT
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(0, document.get("paths").size());
+        assertFalse(document.get("components").has("parameters"));
+        assertNull(openAPI.getPaths().get("/orders"));
+        assertEquals("int64", openAPI.getComponents().getSchemas().get("Id").getFormat());
+        assertEquals("#/components/schemas/Id",
+                ((Schema<?>) openAPI.getComponents().getSchemas().get("Order").getProperties().get("id")).get$ref());
+    }
+
+    @Test
+    void checkSchemasOnlyFallsBack() {
+        // ARRANGE
+        SpecReader schemasReader = reader.withSchemasOnly(true);
+        String swagger = "swagger: '2.0'\n" +
+                "info:\n" +
+                "  title: test\n" +
+                "  version: '1'\n" +
+                "paths: {}\n" +
+                "definitions:\n" +
+                "  Id:\n" +
+                "    type: integer\n";
+
+        // ACT
+        OpenAPI alias = schemasReader.read("-", new ByteArrayInputStream(YAML.getBytes(StandardCharsets.UTF_8)));
+        OpenAPI converted = schemasReader.read("-", new ByteArrayInputStream(swagger.getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT
+        assertEquals("int64", alias.getComponents().getSchemas().get("OtherId").getFormat());
+        assertEquals("integer", converted.getComponents().getSchemas().get("Id").getType());
+    }
+
+    @Test
+    void checkSchemasOnlyGeneratesSameSchema() throws IOException {
+        // ARRANGE
+        Path json = tempDir.resolve("synthetic.json");
+        new SyntheticSpec().withSchemas(100).write(json);
+        Path yaml = tempDir.resolve("synthetic.yaml");
+        new YAMLMapper().writeValue(yaml.toFile(), new YAMLMapper().readTree(json.toFile()));
+        JsonSchemaGenerator generator = new JsonSchemaGenerator();
+
+        for (Path file : List.of(json, yaml)) {
+            // ACT
+            var expected = new ByteArrayOutputStream();
+            generator.generate(JsonSchemaGenerator.Request.of(file.toString()), expected);
+            var actual = new ByteArrayOutputStream();
+            JsonSchemaGenerator.Result result = generator.generate(
+                    JsonSchemaGenerator.Request.of(file.toString()).withSchemasOnly(true), actual);
+
+            // ASSERT
+            assertEquals(0, result.getExitCode());
+            assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return outputStream.toByteArray();
+    }
+}
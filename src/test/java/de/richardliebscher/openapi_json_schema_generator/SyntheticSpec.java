@@ -0,0 +1,118 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.AllArgsConstructor;
+import lombok.With;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generator of synthetic OpenAPI specifications for scaling and memory tests.
+ *
+ * <p>Every component schema is an object with {@code fanOut} properties. Properties are references to random other
+ * component schemas with a probability of {@code refDensity}, otherwise inline objects nested up to {@code depth}
+ * levels, enumerations with {@code enumSize} values or primitive types. The specification is written as a stream and
+ * only depends on the parameters.
+ */
+@With
+@AllArgsConstructor
+public final class SyntheticSpec {
+    public final int schemas;
+    public final int depth;
+    public final int fanOut;
+    public final int enumSize;
+    public final double refDensity;
+    public final long seed;
+
+    public SyntheticSpec() {
+        this(1000, 3, 8, 10, 0.2, 1);
+    }
+
+    public void write(Path file) throws IOException {
+        Random random = new Random(seed);
+        try (JsonGenerator generator = new JsonFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("openapi", "3.0.3");
+            generator.writeObjectFieldStart("info");
+            generator.writeStringField("title", "Synthetic");
+            generator.writeStringField("version", "1");
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("paths");
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("components");
+            generator.writeObjectFieldStart("schemas");
+            for (int i = 0; i < schemas; i++) {
+                generator.writeFieldName(name(i));
+                writeObject(generator, random, i, depth);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    public static String name(int index) {
+        return "Schema" + index;
+    }
+
+    private void writeObject(JsonGenerator generator, Random random, int index, int depth) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "object");
+        generator.writeStringField("description", "Object of " + name(index) + " at depth " + depth);
+        generator.writeArrayFieldStart("required");
+        generator.writeString("property0");
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("properties");
+        for (int i = 0; i < fanOut; i++) {
+            generator.writeFieldName("property" + i);
+            if (schemas > 1 && random.nextDouble() < refDensity) {
+                int target = random.nextInt(schemas - 1);
+                generator.writeStartObject();
+                generator.writeStringField("$ref", "#/components/schemas/" + name(target < index ? target : target + 1));
+                generator.writeEndObject();
+                continue;
+            }
+            if (i % 4 == 0 && depth > 1) {
+                writeObject(generator, random, index, depth - 1);
+                continue;
+            }
+
+            generator.writeStartObject();
+            switch (i % 4) {
+                case 0:
+                    generator.writeStringField("type", "string");
+                    generator.writeNumberField("maxLength", 100);
+                    break;
+                case 1:
+                    generator.writeStringField("type", "string");
+                    if (enumSize > 0) {
+                        generator.writeArrayFieldStart("enum");
+                        for (int value = 0; value < enumSize; value++) {
+                            generator.writeString("VALUE_" + value);
+                        }
+                        generator.writeEndArray();
+                    }
+                    break;
+                case 2:
+                    generator.writeStringField("type", "integer");
+                    generator.writeStringField("format", "int64");
+                    generator.writeNumberField("minimum", 0);
+                    break;
+                default:
+                    generator.writeStringField("type", "array");
+                    generator.writeObjectFieldStart("items");
+                    generator.writeStringField("type", "string");
+                    generator.writeStringField("format", "date-time");
+                    generator.writeEndObject();
+                    break;
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}
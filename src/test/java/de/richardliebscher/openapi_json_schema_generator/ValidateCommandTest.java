@@ -0,0 +1,181 @@
+package de.richardliebscher.openapi_json_schema_generator;
+
+import com.eclipsesource.json.Json;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidateCommandTest {
+
+    private static final String SPEC = Json.object()
+            .add("openapi", "3.0.2")
+            .add("info", Json.object()
+                    .add("version", "1")
+                    .add("title", "test"))
+            .add("paths", Json.object())
+            .add("components", Json.object()
+                    .add("schemas", Json.object()
+                            .add("Order", Json.object()
+                                    .add("type", "object")
+                                    .add("required", Json.array("id"))
+                                    .add("properties", Json.object()
+                                            .add("id", Json.object().add("type", "integer").add("format", "int64"))
+                                            .add("note", Json.object().add("type", "string").add("readOnly", true))))))
+            .toString();
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Message> messages = new ArrayList<>();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void checkErrorsAreReportedInOrderAcrossChunks() throws IOException {
+        // ARRANGE
+        // several chunks of 1 MiB
+        StringBuilder data = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int line = 1; line <= 100_000; line++) {
+            if (line % 9_999 == 0) {
+                data.append("{\"id\": \"").append(line).append("\"}\n");
+                expected.add("line " + line + ": /id: expected integer but found string");
+            } else {
+                data.append("{\"id\": ").append(line).append(", \"note\": \"some text to fill the chunks\"}\n");
+            }
+        }
+
+        // ACT
+        ValidateCommand.Result result = validate(write(data.toString()), 4, 100);
+
+        // ASSERT
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(expected, outputLines());
+        assertEquals(1, result.getExitCode());
+        assertEquals(100_000, result.getRecords());
+        assertEquals(10, result.getInvalidRecords());
+        assertEquals(10, result.getErrors());
+    }
+
+    @Test
+    void checkBlankLinesAndInvalidJson() throws IOException {
+        // ARRANGE
+        String data = "{\"id\": 1}\n\n{\"id\": \n{\"id\": 2} {}\r\n{\"id\": 3}";
+
+        // ACT
+        ValidateCommand.Result result = validate(write(data), 1, 100);
+
+        // ASSERT
+        List<String> lines = outputLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("line 3: invalid JSON: "), lines.get(0));
+        assertEquals("line 4: unexpected content after record", lines.get(1));
+        assertEquals(4, result.getRecords());
+        assertEquals(2, result.getInvalidRecords());
+    }
+
+    @Test
+    void checkMaxErrors() throws IOException {
+        // ARRANGE
+        String data = "{}\n{}\n{}\n";
+
+        // ACT
+        ValidateCommand.Result result = validate(write(data), 1, 2);
+
+        // ASSERT
+        assertEquals(List.of("line 1: missing required property id", "line 2: missing required property id"),
+                outputLines());
+        assertEquals(3, result.getErrors());
+    }
+
+    @Test
+    void checkGzipCompressedDataWithValidRecords() throws IOException {
+        // ARRANGE
+        Path file = tempDir.resolve("data.ndjson.gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(file))) {
+            outputStream.write("{\"id\": 1}\n{\"id\": 2}\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // ACT
+        ValidateCommand.Result result = validate(file, 2, 100);
+
+        // ASSERT
+        assertEquals(List.of(), outputLines());
+        assertEquals(0, result.getExitCode());
+        assertEquals(2, result.getRecords());
+    }
+
+    @Test
+    void checkUnknownMainSchema() throws IOException {
+        // ARRANGE
+        Path spec = tempDir.resolve("spec.json");
+        Files.writeString(spec, SPEC);
+
+        // ACT
+        ValidateCommand.Result result = new ValidateCommand(
+                spec.toString(), "Missing", InputStream.nullInputStream(), "-", new PrintStream(output),
+                new Converter(true, true, JsonSchemaDraft.v2019_09, messages::add), messages::add)
+                .run();
+
+        // ASSERT
+        assertEquals(2, result.getExitCode());
+        assertEquals("Unknown component schema: Missing", messages.get(0).message);
+    }
+
+    @Test
+    void checkSubcommand() throws IOException {
+        // ARRANGE
+        Path spec = tempDir.resolve("spec.json");
+        Files.writeString(spec, SPEC);
+        var in = new ByteArrayInputStream("{\"id\": 1}\n{\"note\": \"a\"}\n".getBytes(StandardCharsets.UTF_8));
+        var err = new ByteArrayOutputStream();
+
+        // ACT
+        int exitCode = Main.execute(
+                new Main(in, new PrintStream(output, true), new PrintStream(err, true), null),
+                new String[] {"validate", "--exclude-read-only", spec.toString(), "#/components/schemas/Order"});
+
+        // ASSERT
+        assertEquals(1, exitCode);
+        assertEquals(List.of("line 2: missing required property id"), outputLines());
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("Validated 2 records in "),
+                err.toString(StandardCharsets.UTF_8));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("1 invalid, 1 errors"),
+                err.toString(StandardCharsets.UTF_8));
+    }
+
+    private Path write(String data) throws IOException {
+        Path file = tempDir.resolve("data.ndjson");
+        Files.writeString(file, data);
+        return file;
+    }
+
+    private ValidateCommand.Result validate(Path data, int parallelism, long maxErrors) {
+        var inputStream = new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8));
+        return new ValidateCommand(
+                "-", "Order", inputStream, data.toString(), new PrintStream(output),
+                new Converter(true, true, JsonSchemaDraft.v2019_09, messages::add), messages::add)
+                .withParallelism(parallelism)
+                .withMaxErrors(maxErrors)
+                .run();
+    }
+
+    private List<String> outputLines() {
+        String text = output.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+    }
+}
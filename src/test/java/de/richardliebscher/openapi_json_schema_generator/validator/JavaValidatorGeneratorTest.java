@@ -0,0 +1,349 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.eclipsesource.json.Json;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.Converter;
+import de.richardliebscher.openapi_json_schema_generator.GenerateValidatorsCommand;
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.Message;
+import de.richardliebscher.openapi_json_schema_generator.SpecReader;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles the generated validators in-process and checks that they report the same errors as
+ * {@link JsonSchemaValidator}.
+ */
+class JavaValidatorGeneratorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private static final String SPEC = Json.object()
+            .add("openapi", "3.0.2")
+            .add("info", Json.object()
+                    .add("version", "1")
+                    .add("title", "test"))
+            .add("paths", Json.object())
+            .add("components", Json.object()
+                    .add("schemas", Json.object()
+                            .add("Order", Json.object()
+                                    .add("type", "object")
+                                    .add("required", Json.array("id", "tag"))
+                                    .add("additionalProperties", false)
+                                    .add("properties", Json.object()
+                                            .add("id", Json.object().add("type", "integer").add("format", "int64"))
+                                            .add("name", Json.object()
+                                                    .add("type", "string")
+                                                    .add("nullable", true)
+                                                    .add("minLength", 1)
+                                                    .add("maxLength", 5))
+                                            .add("tag", Json.object().add("$ref", "#/components/schemas/Tag"))
+                                            .add("tags", Json.object()
+                                                    .add("type", "array")
+                                                    .add("items", Json.object()
+                                                            .add("$ref", "#/components/schemas/Tag"))
+                                                    .add("uniqueItems", true)
+                                                    .add("maxItems", 2))))
+                            .add("Tag", Json.object()
+                                    .add("type", "string")
+                                    .add("enum", Json.array("a", "b")))
+                            .add("NullableTag", Json.object()
+                                    .add("type", "string")
+                                    .add("nullable", true)
+                                    .add("enum", Json.array().add("a").add(Json.NULL)))
+                            .add("Numbers", Json.object()
+                                    .add("type", "object")
+                                    .add("properties", Json.object()
+                                            .add("int32", Json.object().add("type", "integer").add("format", "int32"))
+                                            .add("int64", Json.object().add("type", "integer").add("format", "int64"))
+                                            .add("float", Json.object().add("type", "number").add("format", "float"))
+                                            .add("double", Json.object().add("type", "number").add("format", "double"))
+                                            .add("bounded", Json.object()
+                                                    .add("type", "integer")
+                                                    .add("minimum", 1)
+                                                    .add("exclusiveMinimum", true)
+                                                    .add("maximum", 10)
+                                                    .add("exclusiveMaximum", true)
+                                                    .add("multipleOf", 3))
+                                            .add("decimal", Json.object()
+                                                    .add("type", "number")
+                                                    .add("minimum", 0.5)
+                                                    .add("multipleOf", 0.25))
+                                            .add("code", Json.object()
+                                                    .add("type", "string")
+                                                    .add("pattern", "^[A-Z]{2}$"))))
+                            .add("Circle", Json.object()
+                                    .add("type", "object")
+                                    .add("required", Json.array("radius"))
+                                    .add("properties", Json.object()
+                                            .add("radius", Json.object().add("type", "number"))))
+                            .add("Square", Json.object()
+                                    .add("type", "object")
+                                    .add("required", Json.array("side"))
+                                    .add("properties", Json.object()
+                                            .add("side", Json.object().add("type", "number"))))
+                            .add("Shape", Json.object()
+                                    .add("oneOf", Json.array()
+                                            .add(Json.object().add("$ref", "#/components/schemas/Circle"))
+                                            .add(Json.object().add("$ref", "#/components/schemas/Square"))))
+                            .add("AnyShape", Json.object()
+                                    .add("anyOf", Json.array()
+                                            .add(Json.object().add("$ref", "#/components/schemas/Circle"))
+                                            .add(Json.object().add("$ref", "#/components/schemas/Square")))
+                                    .add("not", Json.object().add("type", "object").add("required", Json.array("id"))))
+                            .add("NamedCircle", Json.object()
+                                    .add("allOf", Json.array()
+                                            .add(Json.object().add("$ref", "#/components/schemas/Circle"))
+                                            .add(Json.object()
+                                                    .add("type", "object")
+                                                    .add("required", Json.array("name")))))
+                            .add("Node", Json.object()
+                                    .add("type", "object")
+                                    .add("properties", Json.object()
+                                            .add("value", Json.object().add("type", "integer"))
+                                            .add("children", Json.object()
+                                                    .add("type", "array")
+                                                    .add("items", Json.object()
+                                                            .add("$ref", "#/components/schemas/Node")))))
+                            .add("my-schema", Json.object().add("type", "string"))))
+            .toString();
+
+    /**
+     * Compiling takes a while, so all drafts are compiled once.
+     */
+    private static final Map<JsonSchemaDraft, ClassLoader> CLASS_LOADERS = new EnumMap<>(JsonSchemaDraft.class);
+
+    @TempDir
+    static Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(JsonSchemaDraft.class)
+    void checkObject(JsonSchemaDraft draft) {
+        // ACT & ASSERT
+        assertErrors(draft, "Order", "{\"id\": 1, \"tag\": \"a\", \"name\": null, \"tags\": [\"a\", \"b\"]}");
+        assertErrors(draft, "Order", "{\"id\": \"1\", \"name\": \"\", \"tags\": [\"a\", \"a\", \"c\"], \"other\": {}}",
+                "/id: expected integer but found string",
+                "/name: must have at least 1 characters",
+                "/tags/1: duplicate item",
+                "/tags/2: must be one of the enum values",
+                "/tags: must have at most 2 items",
+                "/other: additional property not allowed",
+                "missing required property tag");
+        assertErrors(draft, "Order", "[]", "expected object but found array");
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonSchemaDraft.class)
+    void checkEnums(JsonSchemaDraft draft) {
+        // ACT & ASSERT
+        assertErrors(draft, "Tag", "\"b\"");
+        assertErrors(draft, "Tag", "\"c\"", "must be one of the enum values");
+        assertErrors(draft, "Tag", "null", "must be one of the enum values", "expected string but found null");
+        assertErrors(draft, "NullableTag", "null");
+        assertErrors(draft, "NullableTag", "{}", "must be one of the enum values",
+                "expected string, null but found object");
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonSchemaDraft.class)
+    void checkNumbers(JsonSchemaDraft draft) {
+        // ACT & ASSERT
+        assertErrors(draft, "Numbers", "{\"int32\": -2147483648, \"int64\": 9223372036854775807, \"float\": 1.5, " +
+                "\"double\": -1e300, \"bounded\": 6, \"decimal\": 0.75, \"code\": \"DE\"}");
+        assertErrors(draft, "Numbers", "{\"int32\": 2147483648, \"int64\": 9223372036854775808, \"decimal\": 0.3, " +
+                "\"code\": \"de\"}",
+                "/int32: must be at most 2147483647",
+                "/int64: must be at most 9223372036854775807",
+                "/decimal: must be at least 0.5",
+                "/decimal: must be a multiple of 0.25",
+                "/code: must match pattern ^[A-Z]{2}$");
+        // exclusive bounds and integral floats depend on the draft
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 1}");
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 9}");
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 10}");
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 7.0}");
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 6.0}");
+        assertSameErrors(draft, "Numbers", "{\"bounded\": 123456789012345678901234567890}");
+        assertErrors(draft, "Numbers", "{\"int32\": 1.5}", "/int32: expected integer but found number");
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonSchemaDraft.class)
+    void checkCombiners(JsonSchemaDraft draft) {
+        // ACT & ASSERT
+        assertErrors(draft, "Shape", "{\"radius\": 1}");
+        assertErrors(draft, "Shape", "{\"radius\": 1, \"side\": 1}",
+                "must match exactly one schema of oneOf, but matches several");
+        assertErrors(draft, "Shape", "{}", "must match exactly one schema of oneOf, but matches none");
+        assertErrors(draft, "AnyShape", "{\"side\": 1}");
+        assertErrors(draft, "AnyShape", "{\"side\": 1, \"id\": 1}", "must not match the schema of not");
+        assertErrors(draft, "AnyShape", "1", "must match at least one schema of anyOf");
+        assertErrors(draft, "NamedCircle", "{\"radius\": \"1\"}",
+                "/radius: expected number but found string", "missing required property name");
+    }
+
+    @ParameterizedTest
+    @EnumSource(JsonSchemaDraft.class)
+    void checkRecursiveReference(JsonSchemaDraft draft) {
+        // ACT & ASSERT
+        assertErrors(draft, "Node", "{\"value\": 1, \"children\": [{\"children\": [{\"value\": \"a\"}]}]}",
+                "/children/0/children/0/value: expected integer but found string");
+    }
+
+    @Test
+    void checkIsValidAndClassNames() throws Exception {
+        // ARRANGE
+        Class<?> validator = classLoader(JsonSchemaDraft.v2019_09)
+                .loadClass("com.example.validation.MySchemaValidator");
+
+        // ACT & ASSERT
+        assertTrue(isValid(validator, "\"a\""));
+        assertFalse(isValid(validator, "1"));
+    }
+
+    @Test
+    void checkUnsupportedKeyword() {
+        // ARRANGE
+        JsonSchema schema = new JsonSchema();
+        schema.contains = new JsonSchema();
+        JsonSchema root = new JsonSchema();
+        root.$defs = Map.of("Root", schema);
+
+        // ACT
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new JavaValidatorGenerator("com.example", JsonSchemaDraft.v2019_09).generate(root));
+
+        // ASSERT
+        assertEquals("Unsupported keyword contains", exception.getMessage());
+    }
+
+    @Test
+    void checkClassName() {
+        // ACT & ASSERT
+        assertEquals("MySchemaValidator", JavaValidatorGenerator.className("my-schema"));
+        assertEquals("OrderItemValidator", JavaValidatorGenerator.className("Order_item"));
+        assertEquals("_1stValidator", JavaValidatorGenerator.className("1st"));
+    }
+
+    /**
+     * Assert that the generated validator of the schema reports the expected errors and the same errors as
+     * {@link JsonSchemaValidator}.
+     */
+    private static void assertErrors(JsonSchemaDraft draft, String schema, String instance, String... expected) {
+        assertEquals(List.of(expected), assertSameErrors(draft, schema, instance), instance);
+    }
+
+    /**
+     * @return errors reported by the generated validator and {@link JsonSchemaValidator}
+     */
+    private static List<String> assertSameErrors(JsonSchemaDraft draft, String schema, String instance) {
+        try {
+            Class<?> validator = classLoader(draft)
+                    .loadClass("com.example.validation." + JavaValidatorGenerator.className(schema));
+            List<String> errors = validate(validator, instance);
+
+            List<Message> messages = new ArrayList<>();
+            OpenAPI openAPI = new SpecReader(messages::add)
+                    .read("-", new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8)));
+            JsonSchema root = new Converter(true, true, draft, messages::add)
+                    .convert(openAPI.getComponents(), schema);
+            assertEquals(Collections.emptyList(), messages);
+            List<String> interpreted;
+            try (JsonParser parser = OBJECT_MAPPER.createParser(instance)) {
+                interpreted = JsonSchemaValidator.compile(root, draft).validate(parser).stream()
+                        .map(ValidationError::toString)
+                        .collect(Collectors.toList());
+            }
+
+            assertEquals(interpreted, errors, instance);
+            return errors;
+        } catch (IOException | ReflectiveOperationException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> validate(Class<?> validator, String instance)
+            throws IOException, ReflectiveOperationException {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(instance)) {
+            List<String> errors = (List<String>) invoke(validator, "validate", parser);
+            assertNull(parser.nextToken());
+            return errors;
+        }
+    }
+
+    private static boolean isValid(Class<?> validator, String instance)
+            throws IOException, ReflectiveOperationException {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(instance)) {
+            return (Boolean) invoke(validator, "isValid", parser);
+        }
+    }
+
+    private static Object invoke(Class<?> validator, String method, JsonParser parser)
+            throws ReflectiveOperationException {
+        try {
+            return validator.getMethod(method, JsonParser.class).invoke(null, parser);
+        } catch (InvocationTargetException exception) {
+            throw new AssertionError(exception.getCause());
+        }
+    }
+
+    private static synchronized ClassLoader classLoader(JsonSchemaDraft draft) throws IOException {
+        ClassLoader classLoader = CLASS_LOADERS.get(draft);
+        if (classLoader != null) {
+            return classLoader;
+        }
+
+        Path sourceDirectory = tempDir.resolve(draft.name).resolve("src");
+        Path classesDirectory = tempDir.resolve(draft.name).resolve("classes");
+        List<Message> messages = new ArrayList<>();
+        int exitCode = new GenerateValidatorsCommand(
+                "-", new ByteArrayInputStream(SPEC.getBytes(StandardCharsets.UTF_8)), sourceDirectory,
+                "com.example.validation", draft, new Converter(true, true, draft, messages::add), messages::add)
+                .run();
+        assertEquals(Collections.emptyList(), messages);
+        assertEquals(0, exitCode);
+
+        List<String> arguments = new ArrayList<>(List.of(
+                "-d", classesDirectory.toString(), "-classpath", System.getProperty("java.class.path")));
+        try (Stream<Path> files = Files.walk(sourceDirectory)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(file -> arguments.add(file.toString()));
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int compilerExitCode = ToolProvider.getSystemJavaCompiler()
+                .run(null, output, output, arguments.toArray(new String[0]));
+        assertEquals(0, compilerExitCode, output.toString(StandardCharsets.UTF_8));
+
+        classLoader = new URLClassLoader(new URL[] {classesDirectory.toUri().toURL()},
+                JavaValidatorGeneratorTest.class.getClassLoader());
+        CLASS_LOADERS.put(draft, classLoader);
+        return classLoader;
+    }
+}
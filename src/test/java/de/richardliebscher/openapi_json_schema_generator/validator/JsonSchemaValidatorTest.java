@@ -0,0 +1,241 @@
+package de.richardliebscher.openapi_json_schema_generator.validator;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonObject;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.richardliebscher.openapi_json_schema_generator.Converter;
+import de.richardliebscher.openapi_json_schema_generator.JsonSchemaDraft;
+import de.richardliebscher.openapi_json_schema_generator.Message;
+import de.richardliebscher.openapi_json_schema_generator.SpecReader;
+import de.richardliebscher.openapi_json_schema_generator.jsonschema.JsonSchema;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaValidatorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final List<Message> messages = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkTypesAndRequiredProperties(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("required", Json.array("id"))
+                        .add("properties", Json.object()
+                                .add("id", Json.object().add("type", "integer").add("format", "int64"))
+                                .add("name", Json.object().add("type", "string").add("nullable", true)))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator, "{\"id\": 1, \"name\": null}", streaming));
+        assertEquals(List.of(), validate(validator, "{\"id\": 1.0, \"name\": \"a\"}", streaming));
+        assertEquals(List.of("/id: expected integer but found number", "/name: expected string, null but found integer"),
+                validate(validator, "{\"id\": 1.5, \"name\": 1}", streaming));
+        assertEquals(List.of("missing required property id"), validate(validator, "{}", streaming));
+        assertEquals(List.of("expected object but found array"), validate(validator, "[1]", streaming));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkIntegerBounds(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("int32", Json.object().add("type", "integer").add("format", "int32"))
+                                .add("int64", Json.object().add("type", "integer").add("format", "int64"))
+                                .add("exclusive", Json.object()
+                                        .add("type", "number")
+                                        .add("minimum", 0.5)
+                                        .add("exclusiveMinimum", true)
+                                        .add("multipleOf", 0.5)))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator,
+                "{\"int32\": -2147483648, \"int64\": 9223372036854775807, \"exclusive\": 1}", streaming));
+        assertEquals(List.of(
+                        "/int32: must be at most 2147483647",
+                        "/int64: must be at most 9223372036854775807",
+                        "/exclusive: must be greater than 0.5"),
+                validate(validator,
+                        "{\"int32\": 2147483648, \"int64\": 9223372036854775808, \"exclusive\": 0.5}", streaming));
+        assertEquals(List.of("/exclusive: must be a multiple of 0.5"),
+                validate(validator, "{\"exclusive\": 1.25}", streaming));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkEnumComparesNumbersByValue(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "number")
+                        .add("enum", Json.array(1, 2.5))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator, "1.0", streaming));
+        assertEquals(List.of(), validate(validator, "2.50", streaming));
+        assertEquals(List.of("must be one of the enum values"), validate(validator, "3", streaming));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkPatternAndAdditionalProperties(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("additionalProperties", false)
+                        .add("properties", Json.object()
+                                .add("currency", Json.object().add("type", "string").add("pattern", "^[A-Z]{3}$")))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator, "{\"currency\": \"EUR\"}", streaming));
+        assertEquals(List.of("/currency: must match pattern ^[A-Z]{3}$", "/other: additional property not allowed"),
+                validate(validator, "{\"currency\": \"euro\", \"other\": {\"a\": [1]}}", streaming));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkRecursiveReferences(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v7, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("required", Json.array("name"))
+                        .add("properties", Json.object()
+                                .add("name", Json.object().add("type", "string"))
+                                .add("children", Json.object()
+                                        .add("type", "array")
+                                        .add("items", Json.object().add("$ref", "#/components/schemas/Root"))))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator,
+                "{\"name\": \"a\", \"children\": [{\"name\": \"b\", \"children\": []}]}", streaming));
+        assertEquals(List.of("/children/0/children/1: missing required property name"), validate(validator,
+                "{\"name\": \"a\", \"children\": [{\"name\": \"b\", \"children\": [{\"name\": \"c\"}, {}]}]}",
+                streaming));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void checkCombiners(boolean streaming) {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("oneOf", Json.object().add("oneOf", Json.array()
+                                        .add(Json.object().add("type", "integer"))
+                                        .add(Json.object().add("type", "number"))))
+                                .add("anyOf", Json.object().add("anyOf", Json.array()
+                                        .add(Json.object().add("type", "integer"))
+                                        .add(Json.object().add("type", "string"))))
+                                .add("allOf", Json.object().add("allOf", Json.array()
+                                        .add(Json.object().add("$ref", "#/components/schemas/Named"))
+                                        .add(Json.object().add("required", Json.array("id")))))))
+                .add("Named", Json.object()
+                        .add("type", "object")
+                        .add("required", Json.array("name"))));
+
+        // ACT & ASSERT
+        assertEquals(List.of(), validate(validator,
+                "{\"oneOf\": 1.5, \"anyOf\": \"a\", \"allOf\": {\"id\": 1, \"name\": \"a\"}}", streaming));
+        assertEquals(List.of(
+                        "/oneOf: must match exactly one schema of oneOf, but matches several",
+                        "/anyOf: must match at least one schema of anyOf",
+                        "/allOf: missing required property name"),
+                validate(validator, "{\"oneOf\": 1, \"anyOf\": true, \"allOf\": {\"id\": 1}}", streaming));
+    }
+
+    @Test
+    void checkParserIsLeftAtEndOfValue() throws IOException {
+        // ARRANGE
+        JsonSchemaValidator validator = compile(JsonSchemaDraft.v2019_09, Json.object()
+                .add("Root", Json.object()
+                        .add("type", "object")
+                        .add("properties", Json.object()
+                                .add("values", Json.object()
+                                        .add("type", "array")
+                                        .add("uniqueItems", true)
+                                        .add("items", Json.object().add("type", "integer"))))));
+        String input = "{\"values\": [1, 2]}\n{\"values\": [1, 1.0]}\n";
+
+        // ACT
+        List<List<String>> results = new ArrayList<>();
+        try (JsonParser parser = OBJECT_MAPPER.createParser(input)) {
+            while (parser.nextToken() != null) {
+                results.add(toStrings(validator.validate(parser)));
+            }
+        }
+
+        // ASSERT
+        assertEquals(List.of(List.of(), List.of("/values/1: duplicate item")), results);
+    }
+
+    @Test
+    void checkUnresolvableReference() {
+        // ARRANGE
+        JsonSchema root = new JsonSchema();
+        root.$ref = "#/$defs/Missing";
+
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class, () -> JsonSchemaValidator.compile(root));
+    }
+
+    private JsonSchemaValidator compile(JsonSchemaDraft draft, JsonObject schemas) {
+        String spec = Json.object()
+                .add("openapi", "3.0.2")
+                .add("info", Json.object()
+                        .add("version", "1")
+                        .add("title", "test"))
+                .add("paths", Json.object())
+                .add("components", Json.object()
+                        .add("schemas", schemas))
+                .toString();
+        OpenAPI openAPI = new SpecReader(messages::add)
+                .read("-", new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8)));
+        JsonSchema root = new Converter(true, true, draft, messages::add).convert(openAPI.getComponents(), "Root");
+        assertEquals(Collections.emptyList(), messages);
+        return JsonSchemaValidator.compile(root);
+    }
+
+    private static List<String> validate(JsonSchemaValidator validator, String instance, boolean streaming) {
+        try {
+            if (!streaming) {
+                return toStrings(validator.validate(OBJECT_MAPPER.readTree(instance)));
+            }
+            try (JsonParser parser = OBJECT_MAPPER.createParser(instance)) {
+                List<ValidationError> errors = validator.validate(parser);
+                assertNull(parser.nextToken());
+                return toStrings(errors);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static List<String> toStrings(List<ValidationError> errors) {
+        return errors.stream().map(ValidationError::toString).collect(Collectors.toList());
+    }
+}